@@ -9,6 +9,7 @@ import com.story.utils.log.Trace;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 
 /**
  * Created by alex on 03.08.16.
@@ -60,6 +61,51 @@ public class RetrieveActorAction extends SingleRecordAction {
         return this.personDescriptor;
     }
 
+    /**
+     * Retrieve the distinct paths to sprite sheets of all persons
+     * @return array of paths, empty when there are no persons
+     */
+    public String[] retrieveSpriteSheetPaths(){
+        QueryBuilder queryBuilder = new QueryBuilder();
+        String query = queryBuilder.selectDistinct(new String[]{ActorTable.SpriteSheetPathFieldName})
+                .from(ActorTable.TableName).toString();
+
+        QueryDescriptor descriptor = new QueryDescriptor(query);
+        ArrayList<String> paths = new ArrayList<>();
+
+        descriptor.setRespondHandler(resultSet -> {
+            parseSpriteSheetPaths(resultSet, paths);
+            return null;
+        });
+
+        this.execute(descriptor);
+        return paths.toArray(new String[paths.size()]);
+    }
+
+    /**
+     * Collect paths to sprite sheets from records
+     * @param resultSet the records
+     * @param paths the list for paths
+     */
+    private void parseSpriteSheetPaths(ResultSet resultSet, ArrayList<String> paths){
+        try{
+            if (resultSet == null){
+                return;
+            }
+
+            while (resultSet.next()) {
+                String path = resultSet.getString(ActorTable.SpriteSheetPathFieldName);
+                if (path != null){
+                    paths.add(path);
+                }
+            }
+        }
+        catch (SQLException e){
+            Trace.error(e);
+            paths.clear();
+        }
+    }
+
     /**
      * Create person descriptor by single record
      * @param resultSet the record
@@ -43,7 +43,7 @@ class DbConnector {
      * @param url this is path to a database
      * @return connection for database
      */
-    public static Connection getInstance(String url) throws FileNotFoundException {
+    public static synchronized Connection getInstance(String url) throws FileNotFoundException {
         if (connections.containsKey(url)){
             return connections.get(url);
         }
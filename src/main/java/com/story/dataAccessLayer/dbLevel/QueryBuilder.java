@@ -31,6 +31,17 @@ public class QueryBuilder implements IDisposable{
         return this;
     }
 
+    public QueryBuilder selectDistinct(String[] fields){
+        if ((fields == null) || (fields.length == 0)){
+            return this.selectAll();
+        }
+
+        this.query.append("SELECT DISTINCT ");
+        this.query.append(String.join(",", fields));
+        this.query.append(" ");
+        return this;
+    }
+
     public QueryBuilder selectAll(){
         this.query.append("SELECT * ");
         return this;
@@ -1,7 +1,11 @@
 package com.story.scene;
 
+import com.story.application.ApplicationSettings;
 import com.story.scene.components.SimpleNpcComponent;
 import com.story.scene.components.helpers.ComponentAction;
+import com.story.scene.components.helpers.RenderCommandBuffer;
+import com.story.scene.components.helpers.RenderQueue;
+import com.story.scene.components.helpers.SpriteBatch;
 import com.story.scene.managers.MapSceneManager;
 import com.story.scene.sceneDescriptors.MapSceneDescriptor;
 import com.story.scene.sceneDescriptors.SceneDescriptor;
@@ -14,6 +18,8 @@ import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Input;
 import org.newdawn.slick.SlickException;
 
+import java.awt.*;
+
 /**
  * Created by alex on 14.07.16.
  * Represent screen as map where player can moved and execute something actions
@@ -26,6 +32,31 @@ class MapScene extends Scene {
      */
     private MapSceneManager mapSceneManager;
 
+    /**
+     * The queue, where sprites of actors and foreground tiles are sorted by depth during render
+     */
+    private RenderQueue renderQueue;
+
+    /**
+     * The buffer of draw commands, which is sorted and drawn once per frame
+     */
+    private RenderCommandBuffer commandBuffer;
+
+    /**
+     * The batch, which draws commands of buffer in their order
+     */
+    private SpriteBatch spriteBatch;
+
+    /**
+     * Shift of scene from current state to interpolated state, reused between frames
+     */
+    private Point interpolationOffset;
+
+    /**
+     * Shift of player, which keeps player in center of screen, reused between frames
+     */
+    private Point playerOffset;
+
     /**
      * Initialize new instance of MapScene
      */
@@ -38,6 +69,12 @@ class MapScene extends Scene {
      * Initialize component
      */
     private void initialize(){
+        this.renderQueue = new RenderQueue();
+        this.commandBuffer = new RenderCommandBuffer(ApplicationSettings.getSettings().getScreenWidth(),
+                ApplicationSettings.getSettings().getScreenHeight());
+        this.spriteBatch = new SpriteBatch(RenderCommandBuffer.DefaultCapacity, false);
+        this.interpolationOffset = new Point();
+        this.playerOffset = new Point();
         this.eventList.addEvent(EventType.SceneReinit, new Event(EventType.SceneReinit));
         this.eventList.addEvent(EventType.SceneRecreate, new Event(EventType.SceneRecreate));
 
@@ -70,9 +107,7 @@ class MapScene extends Scene {
                 component.init(gameContainer);
             }
 
-            for (SimpleNpcComponent component: this.mapSceneManager.getSimpleNpcList()){
-                component.changePosition(this.mapSceneManager.getMapComponent().getGlobalPoint());
-            }
+            this.mapSceneManager.updateVisibleNpc();
         } catch (Exception e) {
             SceneException se = new SceneException(e);
             Trace.error(se.getMessage(), se);
@@ -96,20 +131,30 @@ class MapScene extends Scene {
 
         this.mapSceneManager.getMapComponent().update(gameContainer, delta);
         this.mapSceneManager.getPlayerComponent().update(gameContainer, delta);
-        for (SimpleNpcComponent component: this.mapSceneManager.getSimpleNpcList()){
-            component.changePosition(this.mapSceneManager.getMapComponent().getGlobalPoint());
-            component.update(gameContainer, delta);
-        }
+        this.mapSceneManager.updateNpc(delta);
+        this.mapSceneManager.updateVisibleNpc();
     }
 
     @Override
     public void render(GameContainer gameContainer, Graphics graphics) {
-        this.mapSceneManager.getMapComponent().render(gameContainer, graphics);
-        this.mapSceneManager.getPlayerComponent().render(gameContainer, graphics);
+        //Scene is drawn from current state and shifted to state between updates, player stays in center
+        Point offset = this.mapSceneManager.getMapComponent().getInterpolationOffset(this.interpolation,
+                this.interpolationOffset);
+        this.playerOffset.setLocation(-offset.x, -offset.y);
+        graphics.translate(offset.x, offset.y);
+
+        this.mapSceneManager.getMapComponent().render(graphics, this.commandBuffer);
+        this.mapSceneManager.getPlayerComponent().render(this.renderQueue, this.playerOffset);
 
-        for (SimpleNpcComponent component: this.mapSceneManager.getSimpleNpcList()){
-            component.render(gameContainer, graphics);
+        for (int i = 0; i < this.mapSceneManager.getVisibleNpcCount(); i++){
+            this.mapSceneManager.getVisibleNpc(i).render(this.renderQueue);
         }
+
+        this.mapSceneManager.getMapComponent().render(this.renderQueue);
+        this.renderQueue.flush(this.commandBuffer, RenderCommandBuffer.Layer.Actors);
+        this.commandBuffer.flush(this.spriteBatch);
+
+        graphics.translate(-offset.x, -offset.y);
     }
 
     @Override
@@ -120,6 +165,23 @@ class MapScene extends Scene {
             this.mapSceneManager.dispose();
         }
 
+        if (this.renderQueue != null){
+            this.renderQueue.dispose();
+        }
+
+        if (this.commandBuffer != null){
+            this.commandBuffer.dispose();
+        }
+
+        if (this.spriteBatch != null){
+            this.spriteBatch.dispose();
+        }
+
         this.mapSceneManager = null;
+        this.renderQueue = null;
+        this.commandBuffer = null;
+        this.spriteBatch = null;
+        this.interpolationOffset = null;
+        this.playerOffset = null;
     }
 }
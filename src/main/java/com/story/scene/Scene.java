@@ -25,6 +25,12 @@ public abstract class Scene implements IDisposable {
      */
     protected SceneDescriptor sceneDescriptor;
 
+    /**
+     * Part of simulation step, which has passed after the last update, from 0 to 1.
+     * Scene is drawn between previous and current states by it.
+     */
+    protected float interpolation;
+
     /**
      * Initialize new instance of Scene
      */
@@ -68,6 +74,14 @@ public abstract class Scene implements IDisposable {
      */
     public abstract void update(GameContainer gameContainer, int delta);
 
+    /**
+     * Set part of simulation step for the next render
+     * @param interpolation value from 0 to 1, where 0 is previous state and 1 is current state
+     */
+    public void setInterpolation(float interpolation){
+        this.interpolation = Math.min(Math.max(interpolation, 0), 1);
+    }
+
     /**
      * Render the game's scene here.
      * @param gameContainer The container holing this game
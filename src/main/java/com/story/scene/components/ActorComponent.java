@@ -1,10 +1,17 @@
 package com.story.scene.components;
 
+import com.story.scene.components.helpers.RenderQueue;
+
 /**
  * Created by alex on 23.07.16.
  * Represent the actor on map
  */
 abstract class ActorComponent extends Component {
+    /**
+     * Add sprites of actor to queue instead of drawing them immediately
+     * @param queue the queue of sprites of current frame, which are drawn in order of depth
+     */
+    public abstract void render(RenderQueue queue);
 
     @Override
     public void dispose(){
@@ -1,8 +1,15 @@
 package com.story.scene.components;
 
 import com.story.dataAccessLayer.dataDescriptors.MapDescriptor;
+import com.story.scene.components.helpers.CollisionGrid;
 import com.story.scene.components.helpers.ComponentAction;
 import com.story.scene.components.helpers.ComponentCommonVariable;
+import com.story.scene.components.helpers.MapAssetCache;
+import com.story.scene.components.helpers.MapChunkCache;
+import com.story.scene.components.helpers.MapExit;
+import com.story.scene.components.helpers.PrefetchedTiledMap;
+import com.story.scene.components.helpers.RenderCommandBuffer;
+import com.story.scene.components.helpers.RenderQueue;
 import com.story.scene.components.managers.TiledMapManager;
 import com.story.utils.GlobalHelper;
 import com.story.utils.Size;
@@ -11,6 +18,7 @@ import com.story.utils.events.Event;
 import com.story.utils.events.EventType;
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.tiled.TiledMap;
 
@@ -27,10 +35,33 @@ public class MapComponent extends Component {
      */
     private enum MoveState{Moved, Stopped};
 
+    private static final String ChunkCacheInvalidateEventName = "ChunkCacheInvalidate";
+
     private MapDescriptor mapDescriptor;
     private TiledMapManager mapManager;
     private Point startPosition;
 
+    /**
+     * The map, which was parsed before component creation. Textures of map are created on init.
+     */
+    private PrefetchedTiledMap prefetchedMap;
+
+    /**
+     * Groups of consecutive layers except foreground in order of map
+     */
+    private int[][] layerRuns;
+
+    /**
+     * The prerendered chunks of static groups by index of group, null for group of dynamic layers,
+     * which is drawn directly every frame
+     */
+    private MapChunkCache[] chunkCaches;
+
+    /**
+     * Indexes of layers, which tiles are drawn by {@link RenderQueue} together with actors
+     */
+    private int[] foregroundLayers;
+
     /**
      * Current move state of the map component
      */
@@ -45,6 +76,25 @@ public class MapComponent extends Component {
         this.mapDescriptor = descriptor;
         this.startPosition = startPosition;
         this.registerEvents();
+        this.addEventListener(EventType.MapRecreate, ChunkCacheInvalidateEventName, this::onMapRecreate);
+    }
+
+    /**
+     * Initialize new instance of MapComponent with map, which was parsed on worker thread
+     * @param descriptor object, which stored data of map
+     * @param prefetchedMap the parsed map without textures
+     */
+    public MapComponent(MapDescriptor descriptor, Point startPosition, PrefetchedTiledMap prefetchedMap){
+        this(descriptor, startPosition);
+        this.prefetchedMap = prefetchedMap;
+    }
+
+    /**
+     * Method, which called when map recreate event happened
+     */
+    private Void onMapRecreate(Void v){
+        this.invalidateChunks();
+        return null;
     }
 
     @Override
@@ -53,29 +103,223 @@ public class MapComponent extends Component {
         if (this.mapManager != null){
             this.mapManager.dispose();
         }
-        this.mapManager = new TiledMapManager(new TiledMap(this.mapDescriptor.getPathToTMX()),
+
+        this.disposeChunks();
+
+        //Map is pinned before it is put, else eviction can destroy map, which has just been uploaded
+        MapAssetCache mapCache = MapAssetCache.getInstance();
+        mapCache.pin(this.mapDescriptor.getId());
+        if (this.prefetchedMap != null){
+            mapCache.put(this.mapDescriptor, this.prefetchedMap.uploadTextures());
+            this.prefetchedMap = null;
+        }
+
+        TiledMap map = mapCache.getOrLoad(this.mapDescriptor);
+
+        this.mapManager = new TiledMapManager(map,
                 new Size(gameContainer.getWidth(), gameContainer.getHeight()),
                 this.startPosition);
+        this.layerRuns = this.mapManager.getGroundLayerRuns();
+        this.chunkCaches = new MapChunkCache[this.layerRuns.length];
+        for (int i = 0; i < this.layerRuns.length; i++){
+            if (!this.mapManager.isDynamicLayer(this.layerRuns[i][0])){
+                this.chunkCaches[i] = new MapChunkCache(this.mapManager.getMap(), this.layerRuns[i]);
+            }
+        }
+
+        this.foregroundLayers = this.mapManager.getForegroundLayers();
         ComponentCommonVariable.getInstance().setTileSize(
                 new Size(this.mapManager.getMap().getTileWidth(), this.mapManager.getMap().getTileHeight()));
     }
 
     @Override
     public void update(GameContainer gameContainer, int delta) {
-        if ((this.moveState == MoveState.Stopped) && (this.mapManager.getCountFramesInViewer() > 0)){
+        this.mapManager.updateViewer(delta);
+        if (this.mapManager.updateStreamingRegions()){
+            this.invalidateChunks();
+            this.eventList.get(EventType.MapRegionsChange).notifySubscribers();
+        }
+
+        if ((this.moveState == MoveState.Stopped) && this.mapManager.isViewerMoving()){
             this.moveState = MoveState.Moved;
             this.eventList.get(EventType.MapMoveStart).notifySubscribers();
         }
-        else if ((this.moveState == MoveState.Moved) && (this.mapManager.getCountFramesInViewer() == 0)){
+        else if ((this.moveState == MoveState.Moved) && !this.mapManager.isViewerMoving()){
             this.moveState = MoveState.Stopped;
             this.eventList.get(EventType.MapMoveStop).notifySubscribers();
         }
     }
 
+    /**
+     * Draw layers except foreground directly without prerendered chunks.
+     * Scene draws map by {@link #render(Graphics, RenderCommandBuffer)}.
+     */
     @Override
     public void render(GameContainer gameContainer, Graphics graphics) {
-        this.mapManager.getMap().render(this.mapManager.getCurrentCoordinate().x,
-                this.mapManager.getCurrentCoordinate().y);
+        Point coordinate = this.mapManager.getCurrentCoordinate();
+        Rectangle area = this.mapManager.getVisibleTileArea(coordinate);
+        if ((area.width == 0) || (area.height == 0)){
+            return;
+        }
+
+        for (int[] run: this.layerRuns){
+            this.renderLayers(coordinate, area, run);
+        }
+    }
+
+    /**
+     * Add visible layers except foreground to ground layer of buffer. Groups are added in order of map,
+     * so dynamic layer between static layers keeps its depth. Static groups are added by prerendered chunks,
+     * dynamic layers are added by tiles, tiles of one layer have the same sort key and they are grouped by texture.
+     * @param graphics the graphics context of screen, it is used for drawing of missed chunks
+     * @param buffer the buffer of commands of scene
+     */
+    public void render(Graphics graphics, RenderCommandBuffer buffer) {
+        Point coordinate = this.mapManager.getCurrentCoordinate();
+        Rectangle area = this.mapManager.getVisibleTileArea(coordinate);
+        if ((area.width == 0) || (area.height == 0)){
+            return;
+        }
+
+        int sortKey = 0;
+        for (int i = 0; i < this.layerRuns.length; i++){
+            MapChunkCache chunkCache = this.chunkCaches[i];
+            if ((chunkCache != null) && chunkCache.render(graphics, coordinate, area, buffer, sortKey)){
+                sortKey++;
+                continue;
+            }
+
+            for (int layer: this.layerRuns[i]){
+                this.addLayerTiles(buffer, sortKey++, coordinate, area, layer);
+            }
+        }
+    }
+
+    /**
+     * Calculate shift of drawing, which moves map from current state of viewer to interpolated state
+     * @param alpha part of the last update from 0 to 1
+     * @param result the point, which is filled by shift in pixels
+     * @return the filled point
+     */
+    public Point getInterpolationOffset(float alpha, Point result){
+        Point current = this.mapManager.getCurrentCoordinate();
+        int currentX = current.x;
+        int currentY = current.y;
+
+        this.mapManager.getInterpolatedCoordinate(alpha, result);
+        result.x -= currentX;
+        result.y -= currentY;
+        return result;
+    }
+
+    /**
+     * Add visible tiles of foreground layers to queue, they are drawn by depth together with actors
+     * @param queue the queue of sprites of current frame
+     */
+    public void render(RenderQueue queue) {
+        if (this.foregroundLayers.length == 0){
+            return;
+        }
+
+        Point coordinate = this.mapManager.getCurrentCoordinate();
+        Rectangle area = this.mapManager.getVisibleTileArea(coordinate);
+        TiledMap map = this.mapManager.getMap();
+        int tileWidth = map.getTileWidth();
+        int tileHeight = map.getTileHeight();
+
+        //Rows are added from top to bottom, so tiles come to queue already sorted by depth
+        for (int tileY = area.y; tileY < area.y + area.height; tileY++){
+            int bottom = coordinate.y + (tileY + 1) * tileHeight;
+            for (int layer: this.foregroundLayers){
+                for (int tileX = area.x; tileX < area.x + area.width; tileX++){
+                    if (map.getTileId(tileX, tileY, layer) == 0){
+                        continue;
+                    }
+
+                    Image image = map.getTileImage(tileX, tileY, layer);
+                    if (image != null){
+                        queue.addTile(image, coordinate.x + tileX * tileWidth, bottom - image.getHeight(), bottom);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Add tiles of visible area of layer to ground layer of buffer
+     * @param buffer the buffer of commands of scene
+     * @param sortKey the order of layer inside ground layer
+     * @param coordinate the global point, from which map is drawn
+     * @param area the visible tiles
+     * @param layer the index of layer
+     */
+    private void addLayerTiles(RenderCommandBuffer buffer, int sortKey, Point coordinate, Rectangle area, int layer){
+        TiledMap map = this.mapManager.getMap();
+        int tileWidth = map.getTileWidth();
+        int tileHeight = map.getTileHeight();
+
+        for (int tileY = area.y; tileY < area.y + area.height; tileY++){
+            int bottom = coordinate.y + (tileY + 1) * tileHeight;
+            for (int tileX = area.x; tileX < area.x + area.width; tileX++){
+                if (map.getTileId(tileX, tileY, layer) == 0){
+                    continue;
+                }
+
+                Image image = map.getTileImage(tileX, tileY, layer);
+                if (image != null){
+                    buffer.add(RenderCommandBuffer.Layer.Ground, sortKey, image,
+                            coordinate.x + tileX * tileWidth, bottom - image.getHeight());
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw tiles of visible area directly
+     * @param coordinate the global point, from which map is drawn
+     * @param area the visible tiles
+     * @param layers indexes of layers for draw
+     */
+    private void renderLayers(Point coordinate, Rectangle area, int[] layers){
+        TiledMap map = this.mapManager.getMap();
+        int x = coordinate.x + area.x * map.getTileWidth();
+        int y = coordinate.y + area.y * map.getTileHeight();
+
+        for (int layer: layers){
+            map.render(x, y, area.x, area.y, area.width, area.height, layer, false);
+        }
+    }
+
+    /**
+     * Remove prerendered chunks of all groups, they will be drawn again on next render
+     */
+    private void invalidateChunks(){
+        if (this.chunkCaches == null){
+            return;
+        }
+
+        for (MapChunkCache chunkCache: this.chunkCaches){
+            if (chunkCache != null){
+                chunkCache.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Release prerendered chunks of all groups
+     */
+    private void disposeChunks(){
+        if (this.chunkCaches == null){
+            return;
+        }
+
+        for (MapChunkCache chunkCache: this.chunkCaches){
+            if (chunkCache != null){
+                chunkCache.dispose();
+            }
+        }
+
+        this.chunkCaches = null;
     }
 
     /**
@@ -109,11 +353,19 @@ public class MapComponent extends Component {
     }
 
     /**
-     * Check when all frames were been draw
-     * @return true, when count of frames for draw is 0
+     * Gets tiles, which are visible on screen now
+     * @return rectangle of visible tiles, the instance is reused on next call
      */
-    public boolean isFinishFramesDrawing(){
-        return this.mapManager.getCountFramesInViewer() == 0;
+    public Rectangle getVisibleTileArea(){
+        return this.mapManager.getVisibleTileArea(this.mapManager.getCurrentCoordinate());
+    }
+
+    /**
+     * Check when scrolling of map is finished
+     * @return true, when viewer isn't moved
+     */
+    public boolean isMoveFinished(){
+        return !this.mapManager.isViewerMoving();
     }
 
     /**
@@ -125,6 +377,39 @@ public class MapComponent extends Component {
         return this.mapManager.isFreeSpace(coordinates);
     }
 
+    /**
+     * Change the walkability of tile, e.g. when door is opened
+     * @param coordinates the tile coordinates
+     * @param blocked true, when tile can't be passed
+     */
+    public void setBarrier(Point coordinates, boolean blocked){
+        this.mapManager.setBarrier(coordinates, blocked);
+    }
+
+    /**
+     * Gets tiles of streaming world, which were loaded or unloaded on the last update
+     * @return array of areas, empty for map without streaming
+     */
+    public Rectangle[] getChangedRegionAreas(){
+        return this.mapManager.getChangedStreamingAreas();
+    }
+
+    /**
+     * Gets exits to other maps
+     * @return array of exits
+     */
+    public MapExit[] getExits(){
+        return this.mapManager.getExits();
+    }
+
+    /**
+     * Gets the walkability grid of current map
+     * @return instance of {@link CollisionGrid}
+     */
+    public CollisionGrid getCollisionGrid(){
+        return this.mapManager.getCollisionGrid();
+    }
+
     /**
      * Gets coordinates of center tile
      * @return the point of center
@@ -138,7 +423,7 @@ public class MapComponent extends Component {
      * @return the global point coordinates
      */
     public Point getGlobalPoint(){
-        Point p = this.mapManager.getCurrentCoordinateWithoutRemove();
+        Point p = this.mapManager.getCurrentCoordinate();
         return new Point(-p.x, -p.y);
     }
 
@@ -167,6 +452,7 @@ public class MapComponent extends Component {
         this.eventList.addEvent(EventType.MapRecreate, new Event(EventType.MapRecreate));
         this.eventList.addEvent(EventType.MapMoveStart, new Event(EventType.MapMoveStart));
         this.eventList.addEvent(EventType.MapMoveStop, new Event(EventType.MapMoveStop));
+        this.eventList.addEvent(EventType.MapRegionsChange, new Event(EventType.MapRegionsChange));
     }
 
     /**
@@ -177,6 +463,7 @@ public class MapComponent extends Component {
         super.dispose();
 
         if (this.mapDescriptor != null){
+            MapAssetCache.getInstance().unpin(this.mapDescriptor.getId());
             this.mapDescriptor.dispose();
         }
 
@@ -184,7 +471,12 @@ public class MapComponent extends Component {
             this.mapManager.dispose();
         }
 
+        this.disposeChunks();
+
         this.mapDescriptor = null;
         this.mapManager = null;
+        this.layerRuns = null;
+        this.foregroundLayers = null;
+        this.prefetchedMap = null;
     }
 }
@@ -2,6 +2,7 @@ package com.story.scene.components;
 
 import com.story.scene.components.descriptors.PlayerDescriptor;
 import com.story.scene.components.helpers.ActorDirection;
+import com.story.scene.components.helpers.RenderQueue;
 import com.story.scene.components.managers.PlayerComponentManager;
 import com.story.utils.customException.InvalidDescriptor;
 import org.newdawn.slick.GameContainer;
@@ -18,6 +19,11 @@ public class PlayerComponent extends ActorComponent {
     public static final String PlayerMoveStopPropertyName = "PlayerStop";
     public static final String PlayerMoveStartPropertyName = "PlayerStart";
 
+    /**
+     * The key of player in {@link RenderQueue}, keys of npc follow it
+     */
+    public static final int RenderKey = 0;
+
     /**
      * The manager of player component
      */
@@ -85,6 +91,21 @@ public class PlayerComponent extends ActorComponent {
         this.componentManager.drawPlayerAnimation();
     }
 
+    @Override
+    public void render(RenderQueue queue) {
+        this.componentManager.drawPlayerAnimation(queue, RenderKey, 0, 0);
+    }
+
+    /**
+     * Add sprite of player to queue with shift, e.g. to keep player in center of screen,
+     * when whole scene is shifted for interpolation
+     * @param queue the queue of sprites of current frame
+     * @param offset the shift of drawing in pixels
+     */
+    public void render(RenderQueue queue, Point offset) {
+        this.componentManager.drawPlayerAnimation(queue, RenderKey, offset.x, offset.y);
+    }
+
     @Override
     public void dispose(){
         super.dispose();
@@ -1,7 +1,10 @@
 package com.story.scene.components;
 
-import com.story.scene.components.descriptors.SimpleNpcDescriptor;
-import com.story.scene.components.managers.SimpleNpcComponentManager;
+import com.story.application.ApplicationSettings;
+import com.story.scene.components.helpers.ActorAnimationHelper;
+import com.story.scene.components.helpers.ActorStore;
+import com.story.scene.components.helpers.ComponentCommonVariable;
+import com.story.scene.components.helpers.RenderQueue;
 import com.story.utils.customException.InvalidDescriptor;
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.Graphics;
@@ -11,46 +14,106 @@ import java.awt.*;
 
 /**
  * Created by alex on 06.08.16.
- * Represent the simple npc component
+ * Represent the simple npc component. Component is the view of npc in {@link ActorStore},
+ * data of npc is stored by store and animation is shared by npc with the same sprite sheet.
  */
 public class SimpleNpcComponent extends ActorComponent {
+    /**
+     * Duration of one frame of npc animation in milliseconds
+     */
+    public static final int AnimationDuration = 300;
+
+    /**
+     * The store of npc data
+     */
+    private ActorStore store;
+
+    /**
+     * The index of npc in store
+     */
+    private int index;
 
     /**
-     * The manager of component
+     * The shared animation of npc
      */
-    private SimpleNpcComponentManager componentManager;
+    private ActorAnimationHelper animation;
 
     /**
      * Initialize new instance of {@link SimpleNpcComponent}
-     * @param descriptor the descriptor of simple npc
+     * @param store the store of npc data
+     * @param index the index of npc in store
+     * @param animation the shared animation of npc
      */
-    public SimpleNpcComponent(SimpleNpcDescriptor descriptor){
-        this.componentManager = new SimpleNpcComponentManager(descriptor);
+    public SimpleNpcComponent(ActorStore store, int index, ActorAnimationHelper animation){
+        if (store == null){
+            throw new NullPointerException("The ActorStore shouldn't be null");
+        }
+
+        this.store = store;
+        this.index = index;
+        this.animation = animation;
     }
 
     public void changePosition(Point globalViewerStartPoint){
-        this.componentManager.calculateGlobalPosition(globalViewerStartPoint);
+        this.store.updateScreenPosition(this.index, globalViewerStartPoint,
+                ComponentCommonVariable.getInstance().getTileSize().getWidth(),
+                ComponentCommonVariable.getInstance().getTileSize().getHeight(),
+                ApplicationSettings.getSettings().getScreenWidth(),
+                ApplicationSettings.getSettings().getScreenHeight());
+    }
+
+    /**
+     * Hide the npc, when it leaves the viewer
+     */
+    public void hide(){
+        this.store.hide(this.index);
+    }
+
+    public Point getCurrentCoordinate() {
+        return new Point(this.store.getTileX(this.index), this.store.getTileY(this.index));
+    }
+
+    public int getIndex() {
+        return index;
     }
 
     @Override
     public void init(GameContainer gameContainer) throws SlickException, InvalidDescriptor {}
 
+    /**
+     * Update animation of this npc only, all npc are updated by {@link ActorStore#updateAnimations(int, int)}
+     */
     @Override
     public void update(GameContainer gameContainer, int delta) {
-        this.componentManager.updateNpc(delta);
+        this.store.updateAnimation(this.index, delta, AnimationDuration);
     }
 
     @Override
     public void render(GameContainer gameContainer, Graphics graphics) {
-        this.componentManager.drawNpc();
+        if ((this.animation == null) || !this.store.isVisible(this.index)){
+            return;
+        }
+
+        this.animation.drawFrame(this.store.getDirection(this.index), this.store.getFrame(this.index),
+                this.store.getScreenX(this.index), this.store.getScreenY(this.index));
+    }
+
+    @Override
+    public void render(RenderQueue queue) {
+        if ((this.animation == null) || !this.store.isVisible(this.index)){
+            return;
+        }
+
+        queue.addActor(PlayerComponent.RenderKey + 1 + this.index,
+                this.animation.getFrameImage(this.store.getDirection(this.index), this.store.getFrame(this.index)),
+                this.store.getScreenX(this.index), this.store.getScreenY(this.index));
     }
 
     @Override
     public void dispose() {
         super.dispose();
 
-        if (this.componentManager != null){
-            this.componentManager.dispose();
-        }
+        this.store = null;
+        this.animation = null;
     }
 }
@@ -15,6 +15,11 @@ public class SimpleNpcDescriptor extends BaseActorDescriptor {
      */
     private Point startPosition;
 
+    /**
+     * Variable have true value when npc walks by random free tiles, else npc stays on its tile
+     */
+    private boolean isWandering;
+
     /**
      * Initialize new instance of {@link SimpleNpcDescriptor}
      * @param id the id of npc
@@ -31,6 +36,14 @@ public class SimpleNpcDescriptor extends BaseActorDescriptor {
         this.startPosition = startPosition;
     }
 
+    public boolean isWandering() {
+        return isWandering;
+    }
+
+    public void setWandering(boolean wandering) {
+        isWandering = wandering;
+    }
+
     @Override
     public void dispose() {
         super.dispose();
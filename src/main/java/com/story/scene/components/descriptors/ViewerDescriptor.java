@@ -32,6 +32,11 @@ public class ViewerDescriptor implements IDisposable {
      */
     private Size screenSize;
 
+    /**
+     * The speed of scrolling, tiles per second. Default speed is used when it isn't positive.
+     */
+    private float scrollSpeed;
+
     /**
      * Initialize the instance of {@link ViewerDescriptor}
      */
@@ -84,6 +89,14 @@ public class ViewerDescriptor implements IDisposable {
         this.screenSize = screenSize;
     }
 
+    public float getScrollSpeed() {
+        return scrollSpeed;
+    }
+
+    public void setScrollSpeed(float scrollSpeed) {
+        this.scrollSpeed = scrollSpeed;
+    }
+
     @Override
     public void dispose() {
         this.startCoordinates = null;
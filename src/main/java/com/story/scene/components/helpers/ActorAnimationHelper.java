@@ -1,19 +1,18 @@
 package com.story.scene.components.helpers;
 
 import com.story.system.IDisposable;
-import com.story.utils.GlobalHelper;
 import com.story.utils.Size;
 import com.story.utils.log.Trace;
 import org.newdawn.slick.Animation;
 import org.newdawn.slick.Image;
-import org.newdawn.slick.SpriteSheet;
 
-import java.io.FileNotFoundException;
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * Created by alex on 06.08.16.
  * Represent class which can parse the SpriteSheet of actor and manipulate they by situation.
+ * Frames of sprite sheet are taken from {@link SpriteSheetCache}, instance keeps only state of playback.
+ * Animations are kept in table by index of state and direction, places of animations are given by {@link ActorAnimationLayout}.
  */
 public class ActorAnimationHelper implements IDisposable {
     private static final int DefaultActorImage = 0;
@@ -24,91 +23,84 @@ public class ActorAnimationHelper implements IDisposable {
     private boolean isAutoUpdate;
 
     /**
-     * The animations by direction
+     * The shared frames of sprite sheet
      */
-    private HashMap<ActorDirection, Animation> actorAnimationsByDirection;
+    private SpriteSheetCache.Template template;
+
+    /**
+     * The animations by index of {@link ActorAnimationLayout#getIndex(ActorAnimationState, ActorDirection)}
+     */
+    private Animation[] animations;
+
+    /**
+     * The state of actor and index of its first animation in table
+     */
+    private ActorAnimationState state;
+    private int stateOffset;
 
     /**
      * Initialize new instance of {@link ActorAnimationHelper}
      * @param pathToSpriteSheet path to sprite sheet
      * @param tileSize the size of tile
      * @param duration the duration of animation
+     * @param layout the places of animations in sprite sheet
      */
-    public ActorAnimationHelper(String pathToSpriteSheet, Size tileSize, int duration){
-        this.actorAnimationsByDirection = this.buildDirectionAnimation(pathToSpriteSheet, tileSize, duration);
+    public ActorAnimationHelper(String pathToSpriteSheet, Size tileSize, int duration, ActorAnimationLayout layout){
+        this.animations = this.buildAnimations(pathToSpriteSheet, tileSize, duration, layout);
         this.isAutoUpdate = false;
+        this.setState(ActorAnimationState.WALK);
+    }
+
+    /**
+     * Initialize new instance of {@link ActorAnimationHelper} with layout from file next to sprite sheet
+     * @see #ActorAnimationHelper(String, Size, int, ActorAnimationLayout)
+     */
+    public ActorAnimationHelper(String pathToSpriteSheet, Size tileSize, int duration){
+        this(pathToSpriteSheet, tileSize, duration, ActorAnimationLayout.load(pathToSpriteSheet));
     }
 
     /**
-     * Building the animation by direction
+     * Building the table of animations. Animations, which aren't described by layout, are taken from walk.
      * @param pathToSpriteSheet path to sprite sheet
      * @param tileSize the size of tile
      * @param duration the duration of animation
-     * @return animation sorted by direction
+     * @param layout the places of animations in sprite sheet
+     * @return animations by index of state and direction
      */
-    private HashMap<ActorDirection, Animation> buildDirectionAnimation(String pathToSpriteSheet,
-                                                                       Size tileSize,
-                                                                       int duration) {
+    private Animation[] buildAnimations(String pathToSpriteSheet, Size tileSize, int duration, ActorAnimationLayout layout) {
+        Animation[] animations = new Animation[ActorAnimationLayout.AnimationCount];
         try {
-            if (!GlobalHelper.isFileExists(pathToSpriteSheet)) {
-                throw new FileNotFoundException("File " + pathToSpriteSheet + " doesn't exists");
-            }
-
-            SpriteSheet spriteSheet = new SpriteSheet(pathToSpriteSheet, tileSize.getWidth(), tileSize.getHeight());
-
-            Image[] downImages = this.getSubImagesByHorizontal(spriteSheet, 0);
-            Image[] leftImages = this.getSubImagesByHorizontal(spriteSheet, 1);
-            Image[] rightImages = this.getSubImagesByHorizontal(spriteSheet, 2);
-            Image[] upImages = this.getSubImagesByHorizontal(spriteSheet, 3);
-
-            this.actorAnimationsByDirection = new HashMap<>();
-
-            if (downImages != null) {
-                this.actorAnimationsByDirection.put(ActorDirection.DOWN, new Animation(downImages, duration));
-                //this.actorAnimationsByDirection.get(ActorDirection.DOWN).setAutoUpdate(true);
-            }
-
-            if (leftImages != null) {
-                this.actorAnimationsByDirection.put(ActorDirection.LEFT, new Animation(leftImages, duration));
-            }
-
-            if (rightImages != null) {
-                this.actorAnimationsByDirection.put(ActorDirection.RIGHT, new Animation(rightImages, duration));
+            this.template = SpriteSheetCache.getInstance().acquire(pathToSpriteSheet, tileSize);
+
+            for (int i = 0; i < animations.length; i++){
+                Image[] frames = layout.contains(i) ? this.template.getFrames(layout.getRow(i)) : null;
+                if (frames == null){
+                    continue;
+                }
+
+                int firstFrame = Math.min(layout.getFirstFrame(i), frames.length);
+                int lastFrame = layout.getFrameCount(i) == ActorAnimationLayout.WholeRow
+                        ? frames.length
+                        : Math.min(firstFrame + layout.getFrameCount(i), frames.length);
+                if (lastFrame > firstFrame){
+                    animations[i] = new Animation(Arrays.copyOfRange(frames, firstFrame, lastFrame), duration);
+                }
             }
 
-            if (upImages != null) {
-                this.actorAnimationsByDirection.put(ActorDirection.UP, new Animation(upImages, duration));
+            for (ActorAnimationState state: ActorAnimationState.values()) {
+                for (ActorDirection direction: ActorDirection.values()) {
+                    int index = ActorAnimationLayout.getIndex(state, direction);
+                    if (animations[index] == null){
+                        animations[index] = animations[ActorAnimationLayout.getIndex(ActorAnimationState.WALK, direction)];
+                    }
+                }
             }
-
-            return this.actorAnimationsByDirection;
         }
         catch (Exception e){
             Trace.error(e);
-            return null;
-        }
-    }
-
-    /**
-     * Gets sub images from big sprite
-     * @param sprite the common sprite
-     * @param lineNumber number of line
-     * @return array of images
-     */
-    private Image[] getSubImagesByHorizontal(SpriteSheet sprite, int lineNumber){
-        if (sprite == null){
-            throw new NullPointerException("SpriteSheet shouldn't be null");
         }
 
-        if (sprite.getVerticalCount() < lineNumber){
-            return null;
-        }
-
-        Image[] images = new Image[sprite.getHorizontalCount()];
-        for (int i = 0; i < sprite.getHorizontalCount(); i++){
-            images[i] = sprite.getSubImage(i, lineNumber);
-        }
-
-        return images;
+        return animations;
     }
 
     /**
@@ -119,18 +111,28 @@ public class ActorAnimationHelper implements IDisposable {
         this.isAutoUpdate = value;
     }
 
+    /**
+     * Change state of actor, animations of the state are used after that
+     * @param state the state of actor
+     */
+    public void setState(ActorAnimationState state){
+        this.state = state;
+        this.stateOffset = ActorAnimationLayout.getStateOffset(state);
+    }
+
+    public ActorAnimationState getState() {
+        return state;
+    }
+
     /**
      * Updating animation by direction
      * @param direction the direction of actor
      * @param delta the delta
      */
     public void update(ActorDirection direction, int delta){
-        if ((this.actorAnimationsByDirection == null) || !(this.actorAnimationsByDirection.containsKey(direction))){
-            return;
-        }
-
-        if (this.isAutoUpdate){
-            this.actorAnimationsByDirection.get(direction).update(delta);
+        Animation animation = this.animations[this.stateOffset + direction.ordinal()];
+        if ((animation != null) && this.isAutoUpdate){
+            animation.update(delta);
         }
     }
 
@@ -141,20 +143,67 @@ public class ActorAnimationHelper implements IDisposable {
      * @param y draw position by horizontal
      */
     public void draw(ActorDirection direction, int x, int y){
-        if ((this.actorAnimationsByDirection == null) || !(this.actorAnimationsByDirection.containsKey(direction))){
-            return;
+        Image image = this.getCurrentImage(direction);
+        if (image != null){
+            image.draw(x, y);
         }
+    }
+
+    /**
+     * Gets count of frames in animation of direction
+     * @param direction the direction of actor
+     * @return count of frames, 0 when animation isn't loaded
+     */
+    public int getFrameCount(ActorDirection direction){
+        Animation animation = this.animations[this.stateOffset + direction.ordinal()];
+        return animation == null ? 0 : animation.getFrameCount();
+    }
 
-        if (this.isAutoUpdate){
-            this.actorAnimationsByDirection.get(direction).draw(x, y);
+    /**
+     * Draw the frame of animation. Frame is given by caller, so one animation can be shared by several actors.
+     * @param direction the direction of actor
+     * @param frame the index of frame
+     * @param x draw position by horizontal
+     * @param y draw position by vertical
+     */
+    public void drawFrame(ActorDirection direction, int frame, int x, int y){
+        Image image = this.getFrameImage(direction, frame);
+        if (image != null){
+            image.draw(x, y);
         }
-        else {
-            this.actorAnimationsByDirection.get(direction).getImage(DefaultActorImage).draw(x, y);
+    }
+
+    /**
+     * Gets image, which is drawn by {@link #draw(ActorDirection, int, int)} now
+     * @param direction the direction of actor
+     * @return the image or null, when animation isn't loaded
+     */
+    public Image getCurrentImage(ActorDirection direction){
+        Animation animation = this.animations[this.stateOffset + direction.ordinal()];
+        if (animation == null){
+            return null;
         }
+
+        return this.isAutoUpdate ? animation.getCurrentFrame() : animation.getImage(DefaultActorImage);
+    }
+
+    /**
+     * Gets image of frame, which is drawn by {@link #drawFrame(ActorDirection, int, int, int)}
+     * @param direction the direction of actor
+     * @param frame the index of frame
+     * @return the image or null, when animation isn't loaded
+     */
+    public Image getFrameImage(ActorDirection direction, int frame){
+        Animation animation = this.animations[this.stateOffset + direction.ordinal()];
+        return animation == null ? null : animation.getImage(frame % animation.getFrameCount());
     }
 
     @Override
     public void dispose() {
-        this.actorAnimationsByDirection = null;
+        SpriteSheetCache.getInstance().release(this.template);
+
+        this.template = null;
+        this.animations = null;
+        this.state = null;
     }
 }
@@ -0,0 +1,189 @@
+package com.story.scene.components.helpers;
+
+import com.story.utils.GlobalHelper;
+import com.story.utils.log.Trace;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Represent the places of animations in sprite sheet by state and direction of actor.
+ * Layout is described by properties file next to sprite sheet, e.g. actor.png.properties,
+ * where key is state and direction, e.g. walk.down, and value is row[,firstFrame[,frameCount]].
+ * Animations of states, which aren't described, are taken from {@link ActorAnimationState#WALK}.
+ */
+public class ActorAnimationLayout {
+    /**
+     * Extension of file with layout, it is added to path of sprite sheet
+     */
+    public static final String FileExtension = ".properties";
+
+    /**
+     * Frame count, which means all frames till end of row
+     */
+    public static final int WholeRow = 0;
+
+    /**
+     * Row of animation, which isn't described
+     */
+    public static final int NoRow = -1;
+
+    private static final ActorAnimationState[] States = ActorAnimationState.values();
+    private static final ActorDirection[] Directions = ActorDirection.values();
+
+    /**
+     * Count of animations in layout
+     */
+    public static final int AnimationCount = States.length * Directions.length;
+
+    /**
+     * Row, first frame and count of frames by index of animation
+     */
+    private int[] rows;
+    private int[] firstFrames;
+    private int[] frameCounts;
+
+    /**
+     * Initialize new instance of {@link ActorAnimationLayout} without animations
+     */
+    public ActorAnimationLayout(){
+        this.rows = new int[AnimationCount];
+        this.firstFrames = new int[AnimationCount];
+        this.frameCounts = new int[AnimationCount];
+
+        for (int i = 0; i < AnimationCount; i++){
+            this.rows[i] = NoRow;
+        }
+    }
+
+    /**
+     * Create layout of sprite sheet, where rows 0 to 3 are walk down, left, right and up
+     * @return the layout
+     */
+    public static ActorAnimationLayout createDefault(){
+        ActorAnimationLayout layout = new ActorAnimationLayout();
+        layout.set(ActorAnimationState.WALK, ActorDirection.DOWN, 0, 0, WholeRow);
+        layout.set(ActorAnimationState.WALK, ActorDirection.LEFT, 1, 0, WholeRow);
+        layout.set(ActorAnimationState.WALK, ActorDirection.RIGHT, 2, 0, WholeRow);
+        layout.set(ActorAnimationState.WALK, ActorDirection.UP, 3, 0, WholeRow);
+
+        return layout;
+    }
+
+    /**
+     * Create layout by properties
+     * @param properties the properties, e.g. walk.down=0 or idle.down=0,0,1
+     * @return the layout
+     */
+    public static ActorAnimationLayout parse(Properties properties){
+        ActorAnimationLayout layout = new ActorAnimationLayout();
+        for (ActorAnimationState state: States) {
+            for (ActorDirection direction: Directions) {
+                String value = properties.getProperty(createKey(state, direction));
+                if (value == null){
+                    continue;
+                }
+
+                String[] parts = value.split(",");
+                try {
+                    layout.set(state, direction,
+                            Integer.parseInt(parts[0].trim()),
+                            parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 0,
+                            parts.length > 2 ? Integer.parseInt(parts[2].trim()) : WholeRow);
+                }
+                catch (NumberFormatException e){
+                    throw new IllegalArgumentException("Invalid animation " + createKey(state, direction) + "=" + value, e);
+                }
+            }
+        }
+
+        return layout;
+    }
+
+    /**
+     * Load layout of sprite sheet
+     * @param pathToSpriteSheet path to sprite sheet
+     * @return layout from file next to sprite sheet or default layout, when file doesn't exist or invalid
+     */
+    public static ActorAnimationLayout load(String pathToSpriteSheet){
+        String path = pathToSpriteSheet + FileExtension;
+        if (!GlobalHelper.isFileExists(path)){
+            return createDefault();
+        }
+
+        try (InputStream stream = new FileInputStream(path)) {
+            Properties properties = new Properties();
+            properties.load(stream);
+            return parse(properties);
+        } catch (IOException | IllegalArgumentException e) {
+            Trace.error(e.getMessage(), e);
+            return createDefault();
+        }
+    }
+
+    /**
+     * Describe animation
+     * @param state the state of actor
+     * @param direction the direction of actor
+     * @param row the row of sprite sheet
+     * @param firstFrame the first frame in row
+     * @param frameCount count of frames or {@link #WholeRow}
+     */
+    public void set(ActorAnimationState state, ActorDirection direction, int row, int firstFrame, int frameCount){
+        if ((row < 0) || (firstFrame < 0) || (frameCount < 0)){
+            throw new IllegalArgumentException("Row, first frame and count of frames shouldn't be negative");
+        }
+
+        int index = getIndex(state, direction);
+        this.rows[index] = row;
+        this.firstFrames[index] = firstFrame;
+        this.frameCounts[index] = frameCount;
+    }
+
+    /**
+     * Check when animation is described
+     * @param index the index of animation
+     * @return true, when animation has row
+     */
+    public boolean contains(int index){
+        return this.rows[index] != NoRow;
+    }
+
+    public int getRow(int index){
+        return this.rows[index];
+    }
+
+    public int getFirstFrame(int index){
+        return this.firstFrames[index];
+    }
+
+    public int getFrameCount(int index){
+        return this.frameCounts[index];
+    }
+
+    /**
+     * Gets index of animation in tables of layout and animation helper
+     * @param state the state of actor
+     * @param direction the direction of actor
+     * @return index from 0 to {@link #AnimationCount}
+     */
+    public static int getIndex(ActorAnimationState state, ActorDirection direction){
+        return getStateOffset(state) + direction.ordinal();
+    }
+
+    /**
+     * Gets index of the first animation of state, animations of state follow in order of {@link ActorDirection}
+     * @param state the state of actor
+     * @return index of animation
+     */
+    public static int getStateOffset(ActorAnimationState state){
+        return state.ordinal() * Directions.length;
+    }
+
+    private static String createKey(ActorAnimationState state, ActorDirection direction){
+        return state.name().toLowerCase(Locale.ROOT) + "." + direction.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,11 @@
+package com.story.scene.components.helpers;
+
+/**
+ * Represent the state of actor, every state has own animation by direction
+ */
+public enum ActorAnimationState {
+    IDLE,
+    WALK,
+    RUN,
+    ATTACK
+}
@@ -0,0 +1,291 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.util.Arrays;
+
+/**
+ * Represent the uniform grid of actors on map. Map is split to square cells,
+ * every cell stores ids of actors, which are staying on its tiles.
+ * Actor ids are small not negative numbers, usually index of actor in list.
+ */
+public class ActorSpatialGrid implements IDisposable {
+    /**
+     * Default count of tiles by side of cell
+     */
+    public static final int DefaultCellSize = 8;
+
+    /**
+     * Value, which is returned when there isn't actor on tile
+     */
+    public static final int NoActor = -1;
+
+    /**
+     * Start capacity of one cell
+     */
+    private static final int DefaultCellCapacity = 4;
+
+    /**
+     * Count of tiles by side of cell
+     */
+    private int cellSize;
+
+    /**
+     * Count of cells by horizontal
+     */
+    private int columns;
+
+    /**
+     * Count of cells by vertical
+     */
+    private int rows;
+
+    /**
+     * Ids of actors by cells. Cell is created when first actor comes to it.
+     */
+    private int[][] cells;
+
+    /**
+     * Count of actors by cells
+     */
+    private int[] cellCounts;
+
+    /**
+     * The tile coordinates of actors by id
+     */
+    private int[] actorX;
+    private int[] actorY;
+
+    /**
+     * Index of actor inside its cell, or -1 when actor isn't added
+     */
+    private int[] actorSlots;
+
+    /**
+     * Initialize new instance of {@link ActorSpatialGrid}
+     * @param mapWidth count of tiles on map by horizontal
+     * @param mapHeight count of tiles on map by vertical
+     * @param cellSize count of tiles by side of cell
+     */
+    public ActorSpatialGrid(int mapWidth, int mapHeight, int cellSize){
+        if ((mapWidth < 0) || (mapHeight < 0) || (cellSize <= 0)){
+            throw new IllegalArgumentException("Invalid size of grid");
+        }
+
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (mapWidth + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (mapHeight + cellSize - 1) / cellSize);
+        this.cells = new int[this.columns * this.rows][];
+        this.cellCounts = new int[this.columns * this.rows];
+        this.actorX = new int[0];
+        this.actorY = new int[0];
+        this.actorSlots = new int[0];
+    }
+
+    /**
+     * Initialize new instance of {@link ActorSpatialGrid} with default size of cell
+     * @param mapWidth count of tiles on map by horizontal
+     * @param mapHeight count of tiles on map by vertical
+     */
+    public ActorSpatialGrid(int mapWidth, int mapHeight){
+        this(mapWidth, mapHeight, DefaultCellSize);
+    }
+
+    /**
+     * Add actor to grid
+     * @param actorId the id of actor
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     */
+    public void add(int actorId, int x, int y){
+        if (actorId < 0){
+            throw new IllegalArgumentException("Id of actor shouldn't be negative");
+        }
+
+        this.ensureActorCapacity(actorId + 1);
+        if (this.actorSlots[actorId] >= 0){
+            this.move(actorId, x, y);
+            return;
+        }
+
+        this.actorX[actorId] = x;
+        this.actorY[actorId] = y;
+        this.insertToCell(actorId, this.getCellIndex(x, y));
+    }
+
+    /**
+     * Change position of actor. Cells are changed only when actor comes to other cell.
+     * @param actorId the id of actor
+     * @param x the new tile coordinate by horizontal
+     * @param y the new tile coordinate by vertical
+     */
+    public void move(int actorId, int x, int y){
+        if (!this.contains(actorId)){
+            this.add(actorId, x, y);
+            return;
+        }
+
+        int oldCell = this.getCellIndex(this.actorX[actorId], this.actorY[actorId]);
+        int newCell = this.getCellIndex(x, y);
+        this.actorX[actorId] = x;
+        this.actorY[actorId] = y;
+
+        if (oldCell != newCell){
+            this.removeFromCell(actorId, oldCell);
+            this.insertToCell(actorId, newCell);
+        }
+    }
+
+    /**
+     * Remove actor from grid
+     * @param actorId the id of actor
+     */
+    public void remove(int actorId){
+        if (!this.contains(actorId)){
+            return;
+        }
+
+        this.removeFromCell(actorId, this.getCellIndex(this.actorX[actorId], this.actorY[actorId]));
+    }
+
+    /**
+     * Check when actor is added to grid
+     * @param actorId the id of actor
+     * @return true, when actor is present
+     */
+    public boolean contains(int actorId){
+        return (actorId >= 0) && (actorId < this.actorSlots.length) && (this.actorSlots[actorId] >= 0);
+    }
+
+    /**
+     * Find actors, which are staying inside the rectangle of tiles
+     * @param x the left tile of rectangle
+     * @param y the top tile of rectangle
+     * @param width count of tiles by horizontal
+     * @param height count of tiles by vertical
+     * @param result array for ids of found actors, search is stopped when array is full
+     * @return count of ids, which are written to result
+     */
+    public int queryRectangle(int x, int y, int width, int height, int[] result){
+        if ((width <= 0) || (height <= 0)){
+            return 0;
+        }
+
+        int right = x + width - 1;
+        int bottom = y + height - 1;
+        int firstColumn = this.clampColumn(Math.floorDiv(x, this.cellSize));
+        int lastColumn = this.clampColumn(Math.floorDiv(right, this.cellSize));
+        int firstRow = this.clampRow(Math.floorDiv(y, this.cellSize));
+        int lastRow = this.clampRow(Math.floorDiv(bottom, this.cellSize));
+
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++){
+            for (int column = firstColumn; column <= lastColumn; column++){
+                int cellIndex = row * this.columns + column;
+                int[] cell = this.cells[cellIndex];
+                for (int i = 0; i < this.cellCounts[cellIndex]; i++){
+                    int actorId = cell[i];
+                    if ((this.actorX[actorId] >= x) && (this.actorX[actorId] <= right)
+                            && (this.actorY[actorId] >= y) && (this.actorY[actorId] <= bottom)){
+                        if (count == result.length){
+                            return count;
+                        }
+
+                        result[count++] = actorId;
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Find actor, which is staying on tile
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return id of actor or {@link #NoActor}
+     */
+    public int getActorAt(int x, int y){
+        int cellIndex = this.getCellIndex(x, y);
+        int[] cell = this.cells[cellIndex];
+        for (int i = 0; i < this.cellCounts[cellIndex]; i++){
+            if ((this.actorX[cell[i]] == x) && (this.actorY[cell[i]] == y)){
+                return cell[i];
+            }
+        }
+
+        return NoActor;
+    }
+
+    /**
+     * Gets index of cell by tile coordinates. Tiles outside the map are placed to border cells.
+     */
+    private int getCellIndex(int x, int y){
+        return this.clampRow(Math.floorDiv(y, this.cellSize)) * this.columns
+                + this.clampColumn(Math.floorDiv(x, this.cellSize));
+    }
+
+    private int clampColumn(int column){
+        return Math.min(Math.max(column, 0), this.columns - 1);
+    }
+
+    private int clampRow(int row){
+        return Math.min(Math.max(row, 0), this.rows - 1);
+    }
+
+    /**
+     * Put actor to the end of cell
+     */
+    private void insertToCell(int actorId, int cellIndex){
+        int[] cell = this.cells[cellIndex];
+        if (cell == null){
+            cell = new int[DefaultCellCapacity];
+        }
+        else if (this.cellCounts[cellIndex] == cell.length){
+            cell = Arrays.copyOf(cell, cell.length * 2);
+        }
+
+        this.cells[cellIndex] = cell;
+        cell[this.cellCounts[cellIndex]] = actorId;
+        this.actorSlots[actorId] = this.cellCounts[cellIndex]++;
+    }
+
+    /**
+     * Remove actor from cell, the last actor of cell takes its place
+     */
+    private void removeFromCell(int actorId, int cellIndex){
+        int[] cell = this.cells[cellIndex];
+        int slot = this.actorSlots[actorId];
+        int lastActorId = cell[--this.cellCounts[cellIndex]];
+
+        cell[slot] = lastActorId;
+        this.actorSlots[lastActorId] = slot;
+        this.actorSlots[actorId] = -1;
+    }
+
+    /**
+     * Grow arrays of actors, when id is out of them
+     */
+    private void ensureActorCapacity(int capacity){
+        if (capacity <= this.actorSlots.length){
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, this.actorSlots.length * 2);
+        int oldCapacity = this.actorSlots.length;
+        this.actorX = Arrays.copyOf(this.actorX, newCapacity);
+        this.actorY = Arrays.copyOf(this.actorY, newCapacity);
+        this.actorSlots = Arrays.copyOf(this.actorSlots, newCapacity);
+        Arrays.fill(this.actorSlots, oldCapacity, newCapacity, -1);
+    }
+
+    @Override
+    public void dispose() {
+        this.cells = null;
+        this.cellCounts = null;
+        this.actorX = null;
+        this.actorY = null;
+        this.actorSlots = null;
+    }
+}
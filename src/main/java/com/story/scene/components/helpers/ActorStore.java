@@ -0,0 +1,336 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Represent the store of actors, where every field of actor is kept in own primitive array.
+ * Actor is the index in arrays, so actors don't have objects and systems update them by tight loops.
+ * Indexes are given in order of adding and aren't changed.
+ */
+public class ActorStore implements IDisposable {
+    /**
+     * Represent how often actor is simulated. Visible actors get full updates, near actors outside the screen
+     * get rare updates and far actors aren't updated. Skipped time is applied at once on next update.
+     */
+    public enum DetailLevel {Full, Coarse, Frozen}
+
+    /**
+     * Value of screen coordinate, when actor isn't visible
+     */
+    public static final int NotVisible = Integer.MIN_VALUE;
+
+    /**
+     * Start capacity of arrays
+     */
+    private static final int DefaultCapacity = 16;
+
+    /**
+     * Directions by ordinal, values() creates new array on every call
+     */
+    private static final ActorDirection[] Directions = ActorDirection.values();
+
+    private static final DetailLevel[] DetailLevels = DetailLevel.values();
+
+    /**
+     * Time between updates of actor with {@link DetailLevel#Coarse} in milliseconds
+     */
+    public static final int CoarseUpdatePeriod = 500;
+
+    /**
+     * Count of actors
+     */
+    private int count;
+
+    /**
+     * Ids of actors in database
+     */
+    private int[] ids;
+
+    /**
+     * The tile coordinates of actors
+     */
+    private int[] tileX;
+    private int[] tileY;
+
+    /**
+     * Ordinals of {@link ActorDirection}
+     */
+    private byte[] directions;
+
+    /**
+     * Index of animation, which is shared by actors with the same sprite sheet
+     */
+    private int[] animationIndexes;
+
+    /**
+     * Count of frames in animation, current frame and time of current frame in milliseconds
+     */
+    private int[] frameCounts;
+    private int[] frames;
+    private int[] frameTimers;
+
+    /**
+     * Ordinals of {@link DetailLevel}
+     */
+    private byte[] detailLevels;
+
+    /**
+     * Time of animation clock, when animation of actor was updated last time
+     */
+    private int[] animationTimes;
+
+    /**
+     * Time since creation of store in milliseconds, it is moved by updates of all actors
+     */
+    private int animationClock;
+
+    /**
+     * Coordinates of actors on screen, x is {@link #NotVisible} when actor isn't drawn
+     */
+    private int[] screenX;
+    private int[] screenY;
+
+    /**
+     * Initialize new instance of {@link ActorStore}
+     * @param capacity expected count of actors
+     */
+    public ActorStore(int capacity){
+        capacity = Math.max(capacity, 1);
+        this.ids = new int[capacity];
+        this.tileX = new int[capacity];
+        this.tileY = new int[capacity];
+        this.directions = new byte[capacity];
+        this.animationIndexes = new int[capacity];
+        this.frameCounts = new int[capacity];
+        this.frames = new int[capacity];
+        this.frameTimers = new int[capacity];
+        this.detailLevels = new byte[capacity];
+        this.animationTimes = new int[capacity];
+        this.screenX = new int[capacity];
+        this.screenY = new int[capacity];
+    }
+
+    /**
+     * Initialize new instance of {@link ActorStore} with default capacity
+     */
+    public ActorStore(){
+        this(DefaultCapacity);
+    }
+
+    /**
+     * Add actor to store
+     * @param id the id of actor in database
+     * @param animationIndex the index of shared animation
+     * @param frameCount count of frames in animation
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @param direction the direction of actor
+     * @return index of actor in store
+     */
+    public int add(int id, int animationIndex, int frameCount, int x, int y, ActorDirection direction){
+        if (this.count == this.ids.length){
+            this.resize(this.count * 2);
+        }
+
+        int index = this.count++;
+        this.ids[index] = id;
+        this.animationIndexes[index] = animationIndex;
+        this.frameCounts[index] = Math.max(frameCount, 1);
+        this.frames[index] = 0;
+        this.frameTimers[index] = 0;
+        this.detailLevels[index] = (byte) DetailLevel.Full.ordinal();
+        this.animationTimes[index] = this.animationClock;
+        this.tileX[index] = x;
+        this.tileY[index] = y;
+        this.directions[index] = (byte) direction.ordinal();
+        this.screenX[index] = NotVisible;
+        return index;
+    }
+
+    /**
+     * Move frames of actors by elapsed time according to their detail levels.
+     * Actor, which wasn't updated for a while, gets all skipped time at once.
+     * @param delta the amount of time thats passed since last update in milliseconds
+     * @param frameDuration the duration of one frame in milliseconds
+     */
+    public void updateAnimations(int delta, int frameDuration){
+        this.animationClock += delta;
+        byte full = (byte) DetailLevel.Full.ordinal();
+        byte coarse = (byte) DetailLevel.Coarse.ordinal();
+
+        for (int i = 0; i < this.count; i++){
+            int skippedTime = this.animationClock - this.animationTimes[i];
+            if ((this.detailLevels[i] == full)
+                    || ((this.detailLevels[i] == coarse) && (skippedTime >= CoarseUpdatePeriod))){
+                this.updateAnimation(i, skippedTime, frameDuration);
+                this.animationTimes[i] = this.animationClock;
+            }
+        }
+    }
+
+    /**
+     * Move frame of one actor by elapsed time
+     * @param index the index of actor
+     * @param delta the amount of time thats passed since last update in milliseconds
+     * @param frameDuration the duration of one frame in milliseconds
+     */
+    public void updateAnimation(int index, int delta, int frameDuration){
+        int timer = this.frameTimers[index] + delta;
+        if (timer >= frameDuration){
+            this.frames[index] = (this.frames[index] + timer / frameDuration) % this.frameCounts[index];
+            timer %= frameDuration;
+        }
+
+        this.frameTimers[index] = timer;
+    }
+
+    /**
+     * Calculate screen coordinates of actors. Actor, which is outside the screen, becomes not visible.
+     * @param indexes the indexes of actors
+     * @param indexCount count of indexes
+     * @param globalViewerStartPoint the global point of viewer
+     * @param tileWidth the width of tile
+     * @param tileHeight the height of tile
+     * @param screenWidth the width of screen
+     * @param screenHeight the height of screen
+     */
+    public void updateScreenPositions(int[] indexes, int indexCount, Point globalViewerStartPoint,
+                                      int tileWidth, int tileHeight, int screenWidth, int screenHeight){
+        for (int i = 0; i < indexCount; i++){
+            this.updateScreenPosition(indexes[i], globalViewerStartPoint, tileWidth, tileHeight, screenWidth, screenHeight);
+        }
+    }
+
+    /**
+     * Calculate screen coordinates of one actor
+     * @see #updateScreenPositions(int[], int, Point, int, int, int, int)
+     */
+    public void updateScreenPosition(int index, Point globalViewerStartPoint,
+                                     int tileWidth, int tileHeight, int screenWidth, int screenHeight){
+        //Area of the viewer is increased, because on border of the viewer elements becomes invisible
+        int left = globalViewerStartPoint.x - tileWidth;
+        int top = globalViewerStartPoint.y - tileHeight;
+        int x = this.tileX[index] * tileWidth;
+        int y = this.tileY[index] * tileHeight;
+        if ((x < left) || (x > left + screenWidth) || (y < top) || (y > top + screenHeight)){
+            this.screenX[index] = NotVisible;
+            return;
+        }
+
+        this.screenX[index] = x - globalViewerStartPoint.x;
+        this.screenY[index] = y - globalViewerStartPoint.y;
+    }
+
+    /**
+     * Mark actor as not visible, it isn't drawn until screen position is calculated again
+     * @param index the index of actor
+     */
+    public void hide(int index){
+        this.screenX[index] = NotVisible;
+    }
+
+    public boolean isVisible(int index){
+        return this.screenX[index] != NotVisible;
+    }
+
+    /**
+     * Change tile of actor
+     * @param index the index of actor
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     */
+    public void setPosition(int index, int x, int y){
+        this.tileX[index] = x;
+        this.tileY[index] = y;
+    }
+
+    /**
+     * Change how often actor is simulated
+     * @param index the index of actor
+     * @param level the detail level
+     */
+    public void setDetailLevel(int index, DetailLevel level){
+        this.detailLevels[index] = (byte) level.ordinal();
+    }
+
+    public DetailLevel getDetailLevel(int index){
+        return DetailLevels[this.detailLevels[index]];
+    }
+
+    public void setDirection(int index, ActorDirection direction){
+        this.directions[index] = (byte) direction.ordinal();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getId(int index){
+        return this.ids[index];
+    }
+
+    public int getTileX(int index){
+        return this.tileX[index];
+    }
+
+    public int getTileY(int index){
+        return this.tileY[index];
+    }
+
+    public ActorDirection getDirection(int index){
+        return Directions[this.directions[index]];
+    }
+
+    public int getAnimationIndex(int index){
+        return this.animationIndexes[index];
+    }
+
+    public int getFrame(int index){
+        return this.frames[index];
+    }
+
+    public int getScreenX(int index){
+        return this.screenX[index];
+    }
+
+    public int getScreenY(int index){
+        return this.screenY[index];
+    }
+
+    /**
+     * Grow all arrays to new capacity
+     */
+    private void resize(int capacity){
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.tileX = Arrays.copyOf(this.tileX, capacity);
+        this.tileY = Arrays.copyOf(this.tileY, capacity);
+        this.directions = Arrays.copyOf(this.directions, capacity);
+        this.animationIndexes = Arrays.copyOf(this.animationIndexes, capacity);
+        this.frameCounts = Arrays.copyOf(this.frameCounts, capacity);
+        this.frames = Arrays.copyOf(this.frames, capacity);
+        this.frameTimers = Arrays.copyOf(this.frameTimers, capacity);
+        this.detailLevels = Arrays.copyOf(this.detailLevels, capacity);
+        this.animationTimes = Arrays.copyOf(this.animationTimes, capacity);
+        this.screenX = Arrays.copyOf(this.screenX, capacity);
+        this.screenY = Arrays.copyOf(this.screenY, capacity);
+    }
+
+    @Override
+    public void dispose() {
+        this.ids = null;
+        this.tileX = null;
+        this.tileY = null;
+        this.directions = null;
+        this.animationIndexes = null;
+        this.frameCounts = null;
+        this.frames = null;
+        this.frameTimers = null;
+        this.detailLevels = null;
+        this.animationTimes = null;
+        this.screenX = null;
+        this.screenY = null;
+    }
+}
@@ -0,0 +1,254 @@
+package com.story.scene.components.helpers;
+
+import com.story.application.Constants;
+import com.story.system.IDisposable;
+
+import java.util.Arrays;
+
+/**
+ * Represent the scheduler of npc thinking, which spreads thinks of npc by frames.
+ * Every frame gets the batch of npc, which fits to time budget. Size of batch is calculated
+ * by measured cost of one think. Npc, which are visible on screen, are taken first,
+ * other npc are taken by round robin, so every npc thinks sooner or later.
+ * Npc thinks not more often than once per interval of frames, interval depends on detail level of npc.
+ */
+public class AiScheduler implements IDisposable {
+    /**
+     * Part of frame, which is given to thinking, e.g. 4 means quarter of frame
+     */
+    public static final int DefaultBudgetDivider = 4;
+
+    /**
+     * Default count of frames between thinks of one npc, one second
+     */
+    public static final int DefaultThinkInterval = Constants.MaxFPS;
+
+    /**
+     * Count of frames after interval, when waiting npc is counted as starved
+     */
+    public static final int StarvationFrames = Constants.MaxFPS;
+
+    /**
+     * How many times interval of npc with {@link ActorStore.DetailLevel#Coarse} is longer
+     */
+    public static final int CoarseIntervalMultiplier = 4;
+
+    /**
+     * Max part of batch for visible npc in quarters, other part is kept for npc outside the screen
+     */
+    private static final int PriorityQuarters = 3;
+
+    /**
+     * Cost of one think before the first measure in nanoseconds
+     */
+    private static final long DefaultThinkCost = 10000;
+
+    /**
+     * Count of npc
+     */
+    private int count;
+
+    /**
+     * Number of current frame
+     */
+    private int frame;
+
+    /**
+     * Number of frame, when npc thought last time
+     */
+    private int[] lastThinkFrames;
+
+    /**
+     * Count of frames between thinks by npc, 0 when npc doesn't think
+     */
+    private int[] intervals;
+
+    /**
+     * Indexes of npc, which are visible on screen
+     */
+    private int[] priorityIndexes;
+    private int priorityCount;
+
+    /**
+     * Index of npc, from which round robin continues on next frame
+     */
+    private int cursor;
+
+    /**
+     * Time of thinking per frame and average cost of one think in nanoseconds
+     */
+    private long budget;
+    private long thinkCost;
+
+    /**
+     * Count of frames between thinks of one npc
+     */
+    private int thinkInterval;
+
+    /**
+     * The statistic of starvation, it is collected since creation
+     */
+    private int maxWaitFrames;
+    private int starvedThinkCount;
+
+    /**
+     * Initialize new instance of {@link AiScheduler}
+     * @param count count of npc
+     * @param budgetMillis time of thinking per frame in milliseconds
+     * @param thinkInterval count of frames between thinks of one npc
+     */
+    public AiScheduler(int count, float budgetMillis, int thinkInterval){
+        if ((count < 0) || (budgetMillis <= 0) || (thinkInterval < 1)){
+            throw new IllegalArgumentException("Invalid arguments of scheduler");
+        }
+
+        this.count = count;
+        this.budget = (long) (budgetMillis * 1000000L);
+        this.thinkCost = DefaultThinkCost;
+        this.thinkInterval = thinkInterval;
+        this.lastThinkFrames = new int[count];
+        this.priorityIndexes = new int[count];
+        this.intervals = new int[count];
+
+        //All npc can think on the first frame
+        Arrays.fill(this.lastThinkFrames, -thinkInterval);
+        Arrays.fill(this.intervals, thinkInterval);
+    }
+
+    /**
+     * Initialize new instance of {@link AiScheduler} with the part of frame at {@link Constants#MaxFPS}
+     * @param count count of npc
+     */
+    public AiScheduler(int count){
+        this(count, 1000f / Constants.MaxFPS / DefaultBudgetDivider, DefaultThinkInterval);
+    }
+
+    /**
+     * Set npc, which are visible on screen. They are taken first until next call.
+     * @param indexes the indexes of npc
+     * @param indexCount count of indexes
+     */
+    public void setPriority(int[] indexes, int indexCount){
+        System.arraycopy(indexes, 0, this.priorityIndexes, 0, indexCount);
+        this.priorityCount = indexCount;
+    }
+
+    /**
+     * Change how often npc thinks. Frozen npc doesn't think, coarse npc thinks rarer.
+     * @param index the index of npc
+     * @param level the detail level of npc
+     */
+    public void setDetailLevel(int index, ActorStore.DetailLevel level){
+        switch (level){
+            case Full:
+                this.intervals[index] = this.thinkInterval;
+                break;
+            case Coarse:
+                this.intervals[index] = this.thinkInterval * CoarseIntervalMultiplier;
+                break;
+            case Frozen:
+                this.intervals[index] = 0;
+                break;
+        }
+    }
+
+    /**
+     * Take npc, which think on this frame, and start next frame
+     * @param batch array for indexes of npc, it should have length not less than count of npc
+     * @return count of indexes, which are written to batch
+     */
+    public int schedule(int[] batch){
+        int capacity = (int) Math.min(Math.max(this.budget / this.thinkCost, 1), this.count);
+        int priorityCapacity = Math.max(capacity * PriorityQuarters / 4, 1);
+        int size = 0;
+
+        for (int i = 0; (i < this.priorityCount) && (size < priorityCapacity); i++){
+            if (this.isReady(this.priorityIndexes[i])){
+                batch[size++] = this.take(this.priorityIndexes[i]);
+            }
+        }
+
+        for (int visited = 0; (visited < this.count) && (size < capacity); visited++){
+            int index = this.cursor;
+            this.cursor = (this.cursor + 1) % this.count;
+            if (this.isReady(index)){
+                batch[size++] = this.take(index);
+            }
+        }
+
+        this.frame++;
+        return size;
+    }
+
+    /**
+     * Give measured time of thinking for batch, size of next batches is calculated by it
+     * @param elapsedNanos time of thinking in nanoseconds
+     * @param thinkCount count of npc in batch
+     */
+    public void reportCost(long elapsedNanos, int thinkCount){
+        if (thinkCount <= 0){
+            return;
+        }
+
+        long cost = Math.max(elapsedNanos / thinkCount, 1);
+        this.thinkCost = Math.max((this.thinkCost * 7 + cost) / 8, 1);
+    }
+
+    /**
+     * Gets the largest count of frames, which npc waited after its interval
+     * @return count of frames
+     */
+    public int getMaxWaitFrames() {
+        return maxWaitFrames;
+    }
+
+    /**
+     * Gets count of thinks, which were made after waiting longer than {@link #StarvationFrames}
+     * @return count of thinks
+     */
+    public int getStarvedThinkCount() {
+        return starvedThinkCount;
+    }
+
+    /**
+     * Gets count of frames, which npc waits for think now
+     * @param index the index of npc
+     * @return count of frames after its interval, 0 when npc isn't late
+     */
+    public int getWaitFrames(int index){
+        if (this.intervals[index] == 0){
+            return 0;
+        }
+
+        return Math.max(this.frame - this.lastThinkFrames[index] - this.intervals[index], 0);
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    private boolean isReady(int index){
+        return (this.intervals[index] > 0) && (this.frame - this.lastThinkFrames[index] >= this.intervals[index]);
+    }
+
+    /**
+     * Mark npc as thought on this frame and collect starvation
+     */
+    private int take(int index){
+        int waitFrames = this.getWaitFrames(index);
+        this.maxWaitFrames = Math.max(this.maxWaitFrames, waitFrames);
+        if (waitFrames > StarvationFrames){
+            this.starvedThinkCount++;
+        }
+
+        this.lastThinkFrames[index] = this.frame;
+        return index;
+    }
+
+    @Override
+    public void dispose() {
+        this.lastThinkFrames = null;
+        this.intervals = null;
+        this.priorityIndexes = null;
+    }
+}
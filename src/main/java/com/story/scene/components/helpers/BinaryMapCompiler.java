@@ -0,0 +1,303 @@
+package com.story.scene.components.helpers;
+
+import com.story.utils.log.Trace;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.tiled.Layer;
+import org.newdawn.slick.tiled.TiledMap;
+import org.newdawn.slick.util.ResourceLoader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.BufferedOutputStream;
+import java.awt.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Properties;
+
+/**
+ * Represent the offline compiler of TMX to binary map, format is described by {@link BinaryMapFormat}.
+ * Usage: BinaryMapCompiler &lt;path to tmx&gt; [path to binary file]
+ * or BinaryMapCompiler --world &lt;region size&gt; &lt;path to tmx&gt; for streaming world.
+ */
+public class BinaryMapCompiler {
+    private static final String TileSetTagName = "tileset";
+    private static final String ImageTagName = "image";
+    private static final String WorldOption = "--world";
+
+    /**
+     * Represent the TMX, which gives access to parsed properties, layers and objects
+     */
+    private static class SourceMap extends TiledMap {
+        SourceMap(String ref) throws SlickException {
+            super(ref, false);
+        }
+
+        void writeMapProperties(DataOutputStream output) throws IOException {
+            BinaryMapCompiler.writeProperties(output, this.props);
+        }
+
+        /**
+         * Write layers, tiles are written only inside the area
+         * @param withTiles false for header of streaming world
+         */
+        void writeLayers(DataOutputStream output, Rectangle area, boolean withTiles) throws IOException {
+            output.writeInt(this.layers.size());
+            for (Object item: this.layers) {
+                Layer layer = (Layer) item;
+                writeString(output, layer.name);
+                writeProperties(output, layer.props);
+                if (!withTiles){
+                    continue;
+                }
+
+                for (int y = area.y; y < area.y + area.height; y++){
+                    for (int x = area.x; x < area.x + area.width; x++){
+                        writeTileId(output, layer.data[x][y][2]);
+                    }
+                }
+            }
+        }
+
+        void writeObjectGroups(DataOutputStream output) throws IOException {
+            output.writeInt(this.objectGroups.size());
+            for (Object groupItem: this.objectGroups) {
+                ObjectGroup group = (ObjectGroup) groupItem;
+                writeString(output, group.name);
+                output.writeInt(group.width);
+                output.writeInt(group.height);
+                writeProperties(output, group.props);
+
+                output.writeInt(group.objects.size());
+                for (Object objectItem: group.objects) {
+                    GroupObject object = (GroupObject) objectItem;
+                    writeString(output, object.name);
+                    writeString(output, object.type);
+                    output.writeInt(object.x);
+                    output.writeInt(object.y);
+                    output.writeInt(object.width);
+                    output.writeInt(object.height);
+                    writeProperties(output, object.props);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            if ((args.length == 3) && WorldOption.equals(args[0])){
+                compileWorld(args[2], BinaryMapFormat.getWorldPath(args[2]), Integer.parseInt(args[1]));
+                System.out.println("World is compiled to " + BinaryMapFormat.getWorldPath(args[2]));
+                return;
+            }
+
+            if ((args.length < 1) || (args.length > 2)){
+                System.out.println("Usage: BinaryMapCompiler <path to tmx> [path to binary file]");
+                System.out.println("       BinaryMapCompiler " + WorldOption + " <region size> <path to tmx>");
+                return;
+            }
+
+            String outputPath = args.length == 2 ? args[1] : BinaryMapFormat.getBinaryPath(args[0]);
+            compile(args[0], outputPath);
+            System.out.println("Map is compiled to " + outputPath);
+        } catch (SlickException | IOException | NumberFormatException e) {
+            Trace.error(e.getMessage(), e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compile TMX to binary file
+     * @param tmxPath the path to TMX file
+     * @param outputPath the path to binary file
+     * @throws SlickException indicated when TMX can't be parsed
+     * @throws IOException indicated when binary file can't be written
+     */
+    public static void compile(String tmxPath, String outputPath) throws SlickException, IOException {
+        SourceMap map = new SourceMap(tmxPath);
+        byte[] tileSets = serializeTileSets(tmxPath, map.getTilesLocation());
+        Rectangle area = new Rectangle(0, 0, map.getWidth(), map.getHeight());
+
+        try (DataOutputStream output = createOutput(outputPath)) {
+            writeHeader(output, BinaryMapFormat.Magic, map, area);
+            map.writeMapProperties(output);
+            output.write(tileSets);
+            map.writeLayers(output, area, true);
+            map.writeObjectGroups(output);
+            writeBarrier(output, CollisionGrid.createFromLayer(map, BinaryMapFormat.BarrierLayerName), area);
+        }
+    }
+
+    /**
+     * Compile TMX to streaming world, which is split to square regions
+     * @param tmxPath the path to TMX file
+     * @param worldPath the path to world file, region files are written near it
+     * @param regionSize count of tiles by side of region
+     * @throws SlickException indicated when TMX can't be parsed
+     * @throws IOException indicated when binary files can't be written
+     */
+    public static void compileWorld(String tmxPath, String worldPath, int regionSize) throws SlickException, IOException {
+        if (regionSize <= 0){
+            throw new IllegalArgumentException("Size of region should be positive");
+        }
+
+        SourceMap map = new SourceMap(tmxPath);
+        byte[] tileSets = serializeTileSets(tmxPath, map.getTilesLocation());
+        CollisionGrid barrier = CollisionGrid.createFromLayer(map, BinaryMapFormat.BarrierLayerName);
+        Rectangle worldArea = new Rectangle(0, 0, map.getWidth(), map.getHeight());
+
+        try (DataOutputStream output = createOutput(worldPath)) {
+            writeHeader(output, BinaryMapFormat.WorldMagic, map, worldArea);
+            output.writeInt(regionSize);
+            map.writeMapProperties(output);
+            output.write(tileSets);
+            map.writeLayers(output, worldArea, false);
+            map.writeObjectGroups(output);
+        }
+
+        for (int regionY = 0; regionY * regionSize < map.getHeight(); regionY++){
+            for (int regionX = 0; regionX * regionSize < map.getWidth(); regionX++){
+                Rectangle area = new Rectangle(regionX * regionSize, regionY * regionSize,
+                        Math.min(regionSize, map.getWidth() - regionX * regionSize),
+                        Math.min(regionSize, map.getHeight() - regionY * regionSize));
+
+                try (DataOutputStream output = createOutput(BinaryMapFormat.getRegionPath(worldPath, regionX, regionY))) {
+                    writeHeader(output, BinaryMapFormat.Magic, map, area);
+                    output.writeInt(0);
+                    output.write(tileSets);
+                    map.writeLayers(output, area, true);
+                    output.writeInt(0);
+                    writeBarrier(output, barrier, area);
+                }
+            }
+        }
+    }
+
+    private static DataOutputStream createOutput(String path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+    }
+
+    private static void writeHeader(DataOutputStream output, int magic, TiledMap map, Rectangle area) throws IOException {
+        output.writeInt(magic);
+        output.writeInt(BinaryMapFormat.Version);
+        output.writeInt(area.width);
+        output.writeInt(area.height);
+        output.writeInt(map.getTileWidth());
+        output.writeInt(map.getTileHeight());
+    }
+
+    /**
+     * Write packed bits of barrier inside the area
+     */
+    private static void writeBarrier(DataOutputStream output, CollisionGrid barrier, Rectangle area) throws IOException {
+        CollisionGrid grid = barrier;
+        if ((area.width != barrier.getWidth()) || (area.height != barrier.getHeight())){
+            grid = new CollisionGrid(area.width, area.height);
+            for (int y = 0; y < area.height; y++){
+                for (int x = 0; x < area.width; x++){
+                    grid.setBlocked(x, y, barrier.isBlocked(area.x + x, area.y + y));
+                }
+            }
+        }
+
+        output.writeInt(grid.getWordCount());
+        for (int i = 0; i < grid.getWordCount(); i++){
+            output.writeLong(grid.getWord(i));
+        }
+    }
+
+    /**
+     * Tile sets are read from DOM, because map without images doesn't store them.
+     * Section is serialized once, because all regions of world have the same tile sets.
+     */
+    private static byte[] serializeTileSets(String tmxPath, String tilesLocation) throws SlickException, IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            writeTileSets(output, tmxPath, tilesLocation);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static void writeTileSets(DataOutputStream output, String tmxPath, String tilesLocation)
+            throws SlickException, IOException {
+        NodeList elements = parse(tmxPath).getDocumentElement().getElementsByTagName(TileSetTagName);
+        output.writeInt(elements.getLength());
+        for (int i = 0; i < elements.getLength(); i++){
+            Element element = (Element) elements.item(i);
+            int firstGid = Integer.parseInt(element.getAttribute("firstgid"));
+
+            String source = element.getAttribute("source");
+            if (!source.isEmpty()){
+                element = parse(tilesLocation + "/" + source).getDocumentElement();
+            }
+
+            Element image = (Element) element.getElementsByTagName(ImageTagName).item(0);
+            writeString(output, element.getAttribute("name"));
+            output.writeInt(firstGid);
+            output.writeInt(Integer.parseInt(element.getAttribute("tilewidth")));
+            output.writeInt(Integer.parseInt(element.getAttribute("tileheight")));
+            output.writeInt(parseOptionalInt(element.getAttribute("spacing")));
+            output.writeInt(parseOptionalInt(element.getAttribute("margin")));
+            writeString(output, image.getAttribute("source"));
+            writeString(output, image.getAttribute("trans"));
+        }
+    }
+
+    /**
+     * Tile ids are written as 16-bit values, so they are read by {@link OffHeapTileStore} without copy
+     */
+    private static void writeTileId(DataOutputStream output, int tileId) throws IOException {
+        if ((tileId < 0) || (tileId > OffHeapTileStore.MaxTileId)){
+            throw new IOException("Tile id " + tileId + " doesn't fit to 16 bits");
+        }
+
+        output.writeShort(tileId);
+    }
+
+    private static void writeProperties(DataOutputStream output, Properties properties) throws IOException {
+        if (properties == null){
+            output.writeInt(0);
+            return;
+        }
+
+        ArrayList<String> names = new ArrayList<>(properties.stringPropertyNames());
+        output.writeInt(names.size());
+        for (String name: names) {
+            writeString(output, name);
+            writeString(output, properties.getProperty(name));
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static int parseOptionalInt(String value){
+        return value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+
+    private static Document parse(String ref) throws SlickException {
+        try (InputStream stream = ResourceLoader.getResourceAsStream(ref)) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setValidating(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            builder.setEntityResolver((publicId, systemId) -> new InputSource(new ByteArrayInputStream(new byte[0])));
+
+            return builder.parse(stream);
+        } catch (Exception e) {
+            throw new SlickException("Unable to parse tiled map: " + ref, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.story.scene.components.helpers;
+
+import java.io.File;
+
+/**
+ * Represent constants of compiled binary map. Numbers are written in big endian order.
+ * <pre>
+ * int magic, int version
+ * int width, int height, int tileWidth, int tileHeight
+ * properties of map
+ * int tileSetCount, tile sets: string name, int firstGid, int tileWidth, int tileHeight,
+ *     int spacing, int margin, string imageSource, string transparentColor
+ * int layerCount, layers: string name, properties, unsigned short[width * height] global tile ids by rows
+ * int objectGroupCount, groups: string name, int width, int height, properties,
+ *     int objectCount, objects: string name, string type, int x, int y, int width, int height, properties
+ * int barrierWordCount, long[barrierWordCount] packed bits of {@link CollisionGrid}
+ * </pre>
+ * Properties are written as int count and pairs of strings, string is int length and UTF-8 bytes.
+ * <p>
+ * Streaming world is split to square regions. The world file has {@link #WorldMagic}, int regionSize
+ * after the size of tiles, layers without tile arrays and no barrier. Every region is the usual
+ * binary map with the same tile sets and layers, region files are placed near the world file.
+ */
+public final class BinaryMapFormat {
+    /**
+     * The first bytes of file, "STMB"
+     */
+    public static final int Magic = 0x53544D42;
+
+    /**
+     * The first bytes of streaming world file, "STMW"
+     */
+    public static final int WorldMagic = 0x53544D57;
+
+    /**
+     * Version of format, file with other version isn't loaded
+     */
+    public static final int Version = 2;
+
+    /**
+     * Extension of compiled map, file is placed near TMX
+     */
+    public static final String Extension = ".stmb";
+
+    /**
+     * Extension of streaming world file
+     */
+    public static final String WorldExtension = ".stmw";
+
+    /**
+     * Name of layer, which is baked to collision bits
+     */
+    public static final String BarrierLayerName = "Barrier";
+
+    private BinaryMapFormat(){}
+
+    /**
+     * Gets path to compiled map by path to TMX
+     * @param tmxPath the path to TMX file
+     * @return the path to binary file
+     */
+    public static String getBinaryPath(String tmxPath){
+        return removeExtension(tmxPath) + Extension;
+    }
+
+    /**
+     * Gets path to streaming world by path to TMX
+     * @param tmxPath the path to TMX file
+     * @return the path to world file
+     */
+    public static String getWorldPath(String tmxPath){
+        return removeExtension(tmxPath) + WorldExtension;
+    }
+
+    /**
+     * Gets path to region of streaming world
+     * @param worldPath the path to world file
+     * @param regionX the region by horizontal
+     * @param regionY the region by vertical
+     * @return the path to binary map of region
+     */
+    public static String getRegionPath(String worldPath, int regionX, int regionY){
+        return removeExtension(worldPath) + "." + regionX + "_" + regionY + Extension;
+    }
+
+    /**
+     * Check when compiled map exists for TMX
+     * @param tmxPath the path to TMX file
+     * @return true, when binary file exists
+     */
+    public static boolean hasBinary(String tmxPath){
+        return (tmxPath != null) && new File(getBinaryPath(tmxPath)).isFile();
+    }
+
+    /**
+     * Check when streaming world exists for TMX
+     * @param tmxPath the path to TMX file
+     * @return true, when world file exists
+     */
+    public static boolean hasWorld(String tmxPath){
+        return (tmxPath != null) && new File(getWorldPath(tmxPath)).isFile();
+    }
+
+    private static String removeExtension(String path){
+        int extensionIndex = path.lastIndexOf('.');
+        int separatorIndex = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return extensionIndex <= separatorIndex ? path : path.substring(0, extensionIndex);
+    }
+}
@@ -0,0 +1,365 @@
+package com.story.scene.components.helpers;
+
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.tiled.Layer;
+import org.newdawn.slick.tiled.TileSet;
+import org.newdawn.slick.tiled.TiledMap;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Represent the tiled map, which is loaded from compiled binary file by memory mapping.
+ * Format is described by {@link BinaryMapFormat}. Tiles aren't copied to heap, they are read
+ * from mapped file by {@link OffHeapTileStore}, so tiles are drawn by the map instead of layers.
+ * XML isn't parsed, only small elements are created for constructors of Slick classes.
+ */
+public class BinaryTiledMap extends TiledMap {
+    /**
+     * The smallest map, which is used to initialize base class
+     */
+    private static final byte[] EmptyMap =
+            "<map orientation=\"orthogonal\" width=\"0\" height=\"0\" tilewidth=\"1\" tileheight=\"1\"/>"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Data of layer without tiles, gzip of empty array in base64
+     */
+    private static final String EmptyLayerData = "H4sIAAAAAAACAwMAAAAAAAAAAAA=";
+
+    /**
+     * Document for elements, which are passed to constructors of Slick classes
+     */
+    private Document document;
+
+    /**
+     * The packed bits of barrier layer, null for streaming world
+     */
+    private long[] barrierBits;
+
+    /**
+     * Count of tiles by side of region for streaming world, 0 for usual map
+     */
+    protected int regionSize;
+
+    /**
+     * The tiles of layers in mapped file, null for streaming world
+     */
+    private OffHeapTileStore tileStore;
+
+    /**
+     * Initialize new instance of {@link BinaryTiledMap}
+     * @param path the path to binary file
+     * @param loadTileSets false, when images of tile sets shouldn't be loaded
+     * @throws SlickException indicated when file can't be read or has other version
+     */
+    public BinaryTiledMap(String path, boolean loadTileSets) throws SlickException {
+        super(new ByteArrayInputStream(EmptyMap), getDirectory(path));
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            this.document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            this.read(buffer, loadTileSets);
+        } catch (IOException | ParserConfigurationException | RuntimeException e) {
+            throw new SlickException("Unable to load binary map: " + path, e);
+        } finally {
+            this.document = null;
+        }
+    }
+
+    /**
+     * Initialize new instance of {@link BinaryTiledMap} with images of tile sets
+     * @param path the path to binary file
+     * @throws SlickException indicated when file can't be read or has other version
+     */
+    public BinaryTiledMap(String path) throws SlickException {
+        this(path, true);
+    }
+
+    /**
+     * Create the collision grid from baked barrier layer
+     * @return new instance of {@link CollisionGrid}
+     */
+    public CollisionGrid createCollisionGrid(){
+        return new CollisionGrid(this.width, this.height, LongBuffer.wrap(this.barrierBits));
+    }
+
+    /**
+     * Gets the tiles of layers, which are stored outside the heap
+     * @return instance of {@link OffHeapTileStore}, null for streaming world
+     */
+    public OffHeapTileStore getTileStore(){
+        return this.tileStore;
+    }
+
+    @Override
+    public int getTileId(int x, int y, int layerIndex) {
+        if ((x < 0) || (y < 0) || (x >= this.width) || (y >= this.height)){
+            return 0;
+        }
+
+        return this.tileStore.getTileId(x, y, layerIndex);
+    }
+
+    @Override
+    public void setTileId(int x, int y, int layerIndex, int tileId) {
+        this.tileStore.setTileId(x, y, layerIndex, tileId);
+    }
+
+    @Override
+    public Image getTileImage(int x, int y, int layerIndex) {
+        int tileId = this.getTileId(x, y, layerIndex);
+        if (tileId == 0){
+            return null;
+        }
+
+        TileSet tileSet = this.findTileSet(tileId);
+        int localId = tileId - tileSet.firstGID;
+        return tileSet.tiles.getSprite(tileSet.getTileX(localId), tileSet.getTileY(localId));
+    }
+
+    @Override
+    public void render(int x, int y, int sx, int sy, int width, int height) {
+        this.render(x, y, sx, sy, width, height, false);
+    }
+
+    @Override
+    public void render(int x, int y, int sx, int sy, int width, int height, boolean lineByLine) {
+        for (int layer = 0; layer < this.getLayerCount(); layer++){
+            this.render(x, y, sx, sy, width, height, layer, lineByLine);
+        }
+    }
+
+    /**
+     * Draw the layer from tile store. Tiles are drawn by tile sets, so every sprite sheet is bound once.
+     * Drawing by lines isn't supported, because objects aren't drawn between lines by this game.
+     */
+    @Override
+    public void render(int x, int y, int sx, int sy, int width, int height, int layer, boolean lineByLine) {
+        int left = Math.max(sx, 0);
+        int top = Math.max(sy, 0);
+        int right = Math.min(sx + width, this.width);
+        int bottom = Math.min(sy + height, this.height);
+
+        for (int i = 0; i < this.getTileSetCount(); i++){
+            TileSet tileSet = this.getTileSet(i);
+            boolean isStarted = false;
+            for (int tileY = top; tileY < bottom; tileY++){
+                for (int tileX = left; tileX < right; tileX++){
+                    int tileId = this.tileStore.getTileId(tileX, tileY, layer);
+                    if ((tileId == 0) || !tileSet.contains(tileId)){
+                        continue;
+                    }
+
+                    if (!isStarted){
+                        tileSet.tiles.startUse();
+                        isStarted = true;
+                    }
+
+                    int localId = tileId - tileSet.firstGID;
+                    tileSet.tiles.renderInUse(x + (tileX - sx) * this.tileWidth,
+                            y + (tileY - sy) * this.tileHeight - (tileSet.tileHeight - this.tileHeight),
+                            tileSet.getTileX(localId), tileSet.getTileY(localId));
+                }
+            }
+
+            if (isStarted){
+                tileSet.tiles.endUse();
+            }
+        }
+    }
+
+    /**
+     * Use tile sets of other map, e.g. tile sets with images of streaming world for its region.
+     * Both maps should have the same tile sets.
+     * @param source the map, which tile sets are used
+     */
+    @SuppressWarnings("unchecked")
+    void shareTileSets(TiledMap source){
+        this.tileSets.clear();
+        for (int i = 0; i < source.getTileSetCount(); i++){
+            this.tileSets.add(source.getTileSet(i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void read(ByteBuffer buffer, boolean loadTileSets) throws SlickException {
+        int magic = buffer.getInt();
+        boolean isWorld = magic == BinaryMapFormat.WorldMagic;
+        if (!isWorld && (magic != BinaryMapFormat.Magic)){
+            throw new SlickException("File isn't compiled map");
+        }
+
+        int version = buffer.getInt();
+        if (version != BinaryMapFormat.Version){
+            throw new SlickException("Version " + version + " of compiled map isn't supported");
+        }
+
+        this.width = buffer.getInt();
+        this.height = buffer.getInt();
+        this.tileWidth = buffer.getInt();
+        this.tileHeight = buffer.getInt();
+        this.regionSize = isWorld ? buffer.getInt() : 0;
+        this.props = readProperties(buffer);
+
+        int tileSetCount = buffer.getInt();
+        for (int i = 0; i < tileSetCount; i++){
+            TileSet tileSet = new TileSet(this, this.readTileSetElement(buffer), loadTileSets);
+            tileSet.index = i;
+            if (i > 0){
+                ((TileSet) this.tileSets.get(i - 1)).setLimit(tileSet.firstGID - 1);
+            }
+
+            this.tileSets.add(tileSet);
+        }
+
+        int layerCount = buffer.getInt();
+        ShortBuffer[] tiles = new ShortBuffer[isWorld ? 0 : layerCount];
+        for (int i = 0; i < layerCount; i++){
+            Layer layer = new Layer(this, this.createElement("layer", EmptyLayerData));
+            layer.index = i;
+            layer.name = readString(buffer);
+            layer.props = readProperties(buffer);
+            this.layers.add(layer);
+
+            //Tiles of world are stored in regions
+            if (isWorld){
+                continue;
+            }
+
+            ByteBuffer layerBytes = buffer.slice();
+            layerBytes.limit(this.width * this.height * 2);
+            tiles[i] = layerBytes.asShortBuffer();
+            buffer.position(buffer.position() + layerBytes.limit());
+        }
+
+        if (!isWorld){
+            this.tileStore = new OffHeapTileStore(this.width, this.height, tiles);
+        }
+
+        int groupCount = buffer.getInt();
+        for (int i = 0; i < groupCount; i++){
+            ObjectGroup group = new ObjectGroup(this.readObjectGroupElement(buffer));
+            group.index = i;
+            this.objectGroups.add(group);
+        }
+
+        if (!isWorld){
+            this.barrierBits = new long[buffer.getInt()];
+            buffer.asLongBuffer().get(this.barrierBits);
+        }
+    }
+
+    private Element readTileSetElement(ByteBuffer buffer){
+        Element element = this.document.createElement("tileset");
+        element.setAttribute("name", readString(buffer));
+        element.setAttribute("firstgid", String.valueOf(buffer.getInt()));
+        element.setAttribute("tilewidth", String.valueOf(buffer.getInt()));
+        element.setAttribute("tileheight", String.valueOf(buffer.getInt()));
+        element.setAttribute("spacing", String.valueOf(buffer.getInt()));
+        element.setAttribute("margin", String.valueOf(buffer.getInt()));
+
+        Element image = this.document.createElement("image");
+        image.setAttribute("source", readString(buffer));
+        String transparent = readString(buffer);
+        if (!transparent.isEmpty()){
+            image.setAttribute("trans", transparent);
+        }
+
+        element.appendChild(image);
+        return element;
+    }
+
+    private Element readObjectGroupElement(ByteBuffer buffer){
+        Element group = this.document.createElement("objectgroup");
+        group.setAttribute("name", readString(buffer));
+        group.setAttribute("width", String.valueOf(buffer.getInt()));
+        group.setAttribute("height", String.valueOf(buffer.getInt()));
+        this.appendProperties(group, readProperties(buffer));
+
+        int objectCount = buffer.getInt();
+        for (int i = 0; i < objectCount; i++){
+            Element object = this.document.createElement("object");
+            object.setAttribute("name", readString(buffer));
+            object.setAttribute("type", readString(buffer));
+            object.setAttribute("x", String.valueOf(buffer.getInt()));
+            object.setAttribute("y", String.valueOf(buffer.getInt()));
+            object.setAttribute("width", String.valueOf(buffer.getInt()));
+            object.setAttribute("height", String.valueOf(buffer.getInt()));
+            this.appendProperties(object, readProperties(buffer));
+            group.appendChild(object);
+        }
+
+        return group;
+    }
+
+    /**
+     * Create element of layer with data, which contains no tiles
+     */
+    private Element createElement(String name, String data){
+        Element element = this.document.createElement(name);
+        element.setAttribute("width", "0");
+        element.setAttribute("height", "0");
+
+        Element dataElement = this.document.createElement("data");
+        dataElement.setAttribute("encoding", "base64");
+        dataElement.setAttribute("compression", "gzip");
+        dataElement.appendChild(this.document.createTextNode(data));
+        element.appendChild(dataElement);
+
+        return element;
+    }
+
+    private void appendProperties(Element element, Properties properties){
+        if (properties.isEmpty()){
+            return;
+        }
+
+        Element propertiesElement = this.document.createElement("properties");
+        for (String name: properties.stringPropertyNames()) {
+            Element property = this.document.createElement("property");
+            property.setAttribute("name", name);
+            property.setAttribute("value", properties.getProperty(name));
+            propertiesElement.appendChild(property);
+        }
+
+        element.appendChild(propertiesElement);
+    }
+
+    private static Properties readProperties(ByteBuffer buffer){
+        Properties properties = new Properties();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++){
+            String name = readString(buffer);
+            properties.setProperty(name, readString(buffer));
+        }
+
+        return properties;
+    }
+
+    private static String readString(ByteBuffer buffer){
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String getDirectory(String path){
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        return parent == null ? "." : parent.getPath().replace('\\', '/');
+    }
+}
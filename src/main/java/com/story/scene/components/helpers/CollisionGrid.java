@@ -0,0 +1,220 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import org.newdawn.slick.tiled.TiledMap;
+
+import java.nio.LongBuffer;
+
+/**
+ * Represent the walkability of tiles on map, packed as one bit per tile.
+ * Set bit means that tile is blocked.
+ */
+public class CollisionGrid implements IDisposable {
+    /**
+     * Shift of tile index to index of word, log2 of count of bits in one word of grid
+     */
+    private static final int WordShift = 6;
+
+    /**
+     * Count of tiles by horizontal
+     */
+    private int width;
+
+    /**
+     * Count of tiles by vertical
+     */
+    private int height;
+
+    /**
+     * The packed bits of blocked tiles, row by row
+     */
+    private long[] bits;
+
+    /**
+     * Initialize new instance of {@link CollisionGrid}, where all tiles are free
+     * @param width count of tiles by horizontal
+     * @param height count of tiles by vertical
+     */
+    public CollisionGrid(int width, int height){
+        this(width, height, true);
+    }
+
+    /**
+     * Initialize new instance of {@link CollisionGrid}
+     * @param width count of tiles by horizontal
+     * @param height count of tiles by vertical
+     * @param allocateBits false, when subclass stores tiles itself
+     */
+    protected CollisionGrid(int width, int height, boolean allocateBits){
+        if ((width < 0) || (height < 0)){
+            throw new IllegalArgumentException("Size of grid shouldn't be negative");
+        }
+
+        this.width = width;
+        this.height = height;
+        if (allocateBits){
+            this.bits = new long[(int)(((long)width * height + 63) >>> WordShift)];
+        }
+    }
+
+    /**
+     * Initialize new instance of {@link CollisionGrid} by packed bits, e.g. from compiled map
+     * @param width count of tiles by horizontal
+     * @param height count of tiles by vertical
+     * @param packedBits the words of grid, row by row
+     */
+    public CollisionGrid(int width, int height, LongBuffer packedBits){
+        this(width, height);
+        if (packedBits.remaining() != this.bits.length){
+            throw new IllegalArgumentException("Count of words doesn't match size of grid");
+        }
+
+        packedBits.get(this.bits);
+    }
+
+    /**
+     * Bake the layer of map to grid. Every not empty tile of layer is blocked.
+     * @param map the tiled map
+     * @param layerName the name of layer
+     * @return new grid, all tiles are free when layer isn't found
+     */
+    public static CollisionGrid createFromLayer(TiledMap map, String layerName){
+        CollisionGrid grid = new CollisionGrid(map.getWidth(), map.getHeight());
+
+        int layerIndex = map.getLayerIndex(layerName);
+        if (layerIndex < 0){
+            return grid;
+        }
+
+        if ((map instanceof BinaryTiledMap) && (((BinaryTiledMap) map).getTileStore() != null)){
+            return createFromLayer(((BinaryTiledMap) map).getTileStore(), layerIndex);
+        }
+
+        for (int y = 0; y < map.getHeight(); y++){
+            for (int x = 0; x < map.getWidth(); x++){
+                if (map.getTileId(x, y, layerIndex) != 0){
+                    grid.setBlocked(x, y, true);
+                }
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Bake the layer of tile store to grid. Every not empty tile of layer is blocked.
+     * @param store the tiles, which are stored outside the heap
+     * @param layerIndex the index of layer
+     * @return new grid
+     */
+    public static CollisionGrid createFromLayer(OffHeapTileStore store, int layerIndex){
+        CollisionGrid grid = new CollisionGrid(store.getWidth(), store.getHeight());
+        for (int y = 0; y < store.getHeight(); y++){
+            for (int x = 0; x < store.getWidth(); x++){
+                if (store.hasTile(x, y, layerIndex)){
+                    grid.setBlocked(x, y, true);
+                }
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Check when tile is placed inside the grid
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return true, when tile is inside
+     */
+    public boolean contains(int x, int y){
+        return (x >= 0) && (y >= 0) && (x < this.width) && (y < this.height);
+    }
+
+    /**
+     * Check when actor can stay on tile. Tiles outside the grid are not free.
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return true, when tile is free
+     */
+    public boolean isFree(int x, int y){
+        if (!this.contains(x, y)){
+            return false;
+        }
+
+        int index = y * this.width + x;
+        return (this.bits[index >>> WordShift] & (1L << index)) == 0;
+    }
+
+    /**
+     * Check when tile is blocked. Tiles outside the grid are blocked.
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return true, when tile is blocked
+     */
+    public boolean isBlocked(int x, int y){
+        return !this.isFree(x, y);
+    }
+
+    /**
+     * Change state of tile
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @param blocked true, when tile should be blocked
+     */
+    public void setBlocked(int x, int y, boolean blocked){
+        if (!this.contains(x, y)){
+            throw new IndexOutOfBoundsException("Tile " + x + ":" + y + " is outside the grid");
+        }
+
+        int index = y * this.width + x;
+        if (blocked){
+            this.bits[index >>> WordShift] |= 1L << index;
+        }
+        else {
+            this.bits[index >>> WordShift] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Gets count of blocked tiles
+     * @return count of tiles
+     */
+    public int getBlockedCount(){
+        int count = 0;
+        for (long word: this.bits){
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets count of packed words
+     * @return count of words
+     */
+    public int getWordCount(){
+        return this.bits.length;
+    }
+
+    /**
+     * Gets packed word of grid
+     * @param index the index of word
+     * @return 64 bits of tiles
+     */
+    public long getWord(int index){
+        return this.bits[index];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void dispose() {
+        this.bits = null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.util.Arrays;
+
+/**
+ * Represent the flow field to one target tile over {@link CollisionGrid}.
+ * The integration field stores count of steps from every tile to target,
+ * the direction field stores the step, which actor should do on every tile.
+ * Many actors with the same target take their steps by one array lookup.
+ */
+public class FlowField implements IDisposable {
+    /**
+     * Cost of tile, from which target can't be reached
+     */
+    public static final int Unreachable = Integer.MAX_VALUE;
+
+    /**
+     * Value of direction field, when there isn't step from tile
+     */
+    private static final byte NoDirection = -1;
+
+    private static final ActorDirection[] Directions = ActorDirection.values();
+    private static final int[] NeighbourOffsetX = {0, 1, 0, -1};
+    private static final int[] NeighbourOffsetY = {-1, 0, 1, 0};
+
+    /**
+     * Direction from neighbour back to the current tile, by index of neighbour offset
+     */
+    private static final byte[] ReverseDirections = {
+            (byte) ActorDirection.DOWN.ordinal(),
+            (byte) ActorDirection.LEFT.ordinal(),
+            (byte) ActorDirection.UP.ordinal(),
+            (byte) ActorDirection.RIGHT.ordinal()};
+
+    /**
+     * The walkability of map
+     */
+    private CollisionGrid grid;
+
+    /**
+     * Count of steps to target by tile index
+     */
+    private int[] costs;
+
+    /**
+     * Ordinal of {@link ActorDirection} by tile index
+     */
+    private byte[] directions;
+
+    /**
+     * Queue of tiles for breadth first search
+     */
+    private int[] queue;
+
+    /**
+     * The target tile
+     */
+    private int targetX;
+    private int targetY;
+
+    /**
+     * Initialize new instance of {@link FlowField}. Field is empty until {@link #build(int, int)} is called.
+     * @param grid the walkability of map
+     */
+    public FlowField(CollisionGrid grid){
+        if (grid == null){
+            throw new IllegalArgumentException("Collision grid shouldn't be null");
+        }
+
+        int tilesCount = grid.getWidth() * grid.getHeight();
+        this.grid = grid;
+        this.costs = new int[tilesCount];
+        this.directions = new byte[tilesCount];
+        this.queue = new int[tilesCount];
+        this.targetX = -1;
+        this.targetY = -1;
+        Arrays.fill(this.costs, Unreachable);
+        Arrays.fill(this.directions, NoDirection);
+    }
+
+    /**
+     * Calculate fields for target. Arrays of previous target are reused.
+     * @param targetX the target tile by horizontal
+     * @param targetY the target tile by vertical
+     */
+    public void build(int targetX, int targetY){
+        Arrays.fill(this.costs, Unreachable);
+        Arrays.fill(this.directions, NoDirection);
+        this.targetX = targetX;
+        this.targetY = targetY;
+
+        if (!this.grid.isFree(targetX, targetY)){
+            return;
+        }
+
+        int width = this.grid.getWidth();
+        int target = targetY * width + targetX;
+        int head = 0;
+        int tail = 0;
+        this.costs[target] = 0;
+        this.queue[tail++] = target;
+
+        //All steps have the same cost, so breadth first search gives the integration field
+        while (head < tail){
+            int current = this.queue[head++];
+            int currentX = current % width;
+            int currentY = current / width;
+            int nextCost = this.costs[current] + 1;
+
+            for (int i = 0; i < NeighbourOffsetX.length; i++){
+                int x = currentX + NeighbourOffsetX[i];
+                int y = currentY + NeighbourOffsetY[i];
+                if (!this.grid.isFree(x, y)){
+                    continue;
+                }
+
+                int neighbour = y * width + x;
+                if (this.costs[neighbour] != Unreachable){
+                    continue;
+                }
+
+                this.costs[neighbour] = nextCost;
+                this.directions[neighbour] = ReverseDirections[i];
+                this.queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    /**
+     * Gets the step, which actor should do from tile to come closer to target
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return the direction or null, when tile is target or target can't be reached
+     */
+    public ActorDirection getDirection(int x, int y){
+        if (!this.grid.contains(x, y)){
+            return null;
+        }
+
+        byte direction = this.directions[y * this.grid.getWidth() + x];
+        return direction == NoDirection ? null : Directions[direction];
+    }
+
+    /**
+     * Gets count of steps from tile to target
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return count of steps or {@link #Unreachable}
+     */
+    public int getCost(int x, int y){
+        if (!this.grid.contains(x, y)){
+            return Unreachable;
+        }
+
+        return this.costs[y * this.grid.getWidth() + x];
+    }
+
+    public int getTargetX() {
+        return targetX;
+    }
+
+    public int getTargetY() {
+        return targetY;
+    }
+
+    @Override
+    public void dispose() {
+        this.grid = null;
+        this.costs = null;
+        this.directions = null;
+        this.queue = null;
+    }
+}
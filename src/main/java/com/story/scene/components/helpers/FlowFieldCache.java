@@ -0,0 +1,186 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represent the cache of flow fields by targets. Target is any object, which actors follow
+ * (player, gate, square), it is identified by key, which is chosen by caller.
+ * Field is rebuilt when its target moves farther than expire distance,
+ * the least recently used field is reused for new target when cache is full.
+ */
+public class FlowFieldCache implements IDisposable {
+    /**
+     * Default count of fields in cache
+     */
+    public static final int DefaultCapacity = 8;
+
+    /**
+     * Default count of tiles, on which target can move before its field is rebuilt
+     */
+    public static final int DefaultExpireDistance = 2;
+
+    /**
+     * The walkability of map
+     */
+    private CollisionGrid grid;
+
+    /**
+     * Max count of fields in cache
+     */
+    private int capacity;
+
+    /**
+     * Count of tiles, on which target can move before its field is rebuilt
+     */
+    private int expireDistance;
+
+    /**
+     * The fields by key of target in order of last access
+     */
+    private LinkedHashMap<Integer, FlowField> fields;
+
+    /**
+     * Fields, which were invalidated and can be built for new targets
+     */
+    private ArrayDeque<FlowField> spareFields;
+
+    /**
+     * Count of fields, which were built
+     */
+    private int buildCount;
+
+    /**
+     * Initialize new instance of {@link FlowFieldCache}
+     * @param grid the walkability of map
+     * @param capacity max count of fields in cache
+     * @param expireDistance count of tiles, on which target can move before its field is rebuilt
+     */
+    public FlowFieldCache(CollisionGrid grid, int capacity, int expireDistance){
+        if (grid == null){
+            throw new IllegalArgumentException("Collision grid shouldn't be null");
+        }
+
+        if ((capacity <= 0) || (expireDistance < 0)){
+            throw new IllegalArgumentException("Capacity should be positive and distance shouldn't be negative");
+        }
+
+        this.grid = grid;
+        this.capacity = capacity;
+        this.expireDistance = expireDistance;
+        this.fields = new LinkedHashMap<>(capacity, 0.75f, true);
+        this.spareFields = new ArrayDeque<>();
+    }
+
+    /**
+     * Initialize new instance of {@link FlowFieldCache} with default capacity and expire distance
+     * @param grid the walkability of map
+     */
+    public FlowFieldCache(CollisionGrid grid){
+        this(grid, DefaultCapacity, DefaultExpireDistance);
+    }
+
+    /**
+     * Gets the field for target, field is built when it isn't cached or target has moved too far
+     * @param targetKey the key of target
+     * @param targetX the current tile of target by horizontal
+     * @param targetY the current tile of target by vertical
+     * @return the flow field
+     */
+    public FlowField getField(int targetKey, int targetX, int targetY){
+        FlowField field = this.fields.get(targetKey);
+        if (field != null){
+            int distance = Math.abs(field.getTargetX() - targetX) + Math.abs(field.getTargetY() - targetY);
+            if (distance > this.expireDistance){
+                this.buildField(field, targetX, targetY);
+            }
+
+            return field;
+        }
+
+        field = this.takeFreeField();
+        this.buildField(field, targetX, targetY);
+        this.fields.put(targetKey, field);
+
+        return field;
+    }
+
+    /**
+     * Remove field of target
+     * @param targetKey the key of target
+     */
+    public void remove(int targetKey){
+        FlowField field = this.fields.remove(targetKey);
+        if (field != null){
+            this.spareFields.push(field);
+        }
+    }
+
+    /**
+     * Drop all fields, should be called when walkability of map is changed.
+     * Arrays of fields are reused for next targets.
+     */
+    public void invalidate(){
+        this.spareFields.addAll(this.fields.values());
+        this.fields.clear();
+    }
+
+    /**
+     * Gets count of fields, which were built by cache
+     * @return count of builds
+     */
+    public int getBuildCount(){
+        return this.buildCount;
+    }
+
+    public CollisionGrid getGrid(){
+        return this.grid;
+    }
+
+    private void buildField(FlowField field, int targetX, int targetY){
+        field.build(targetX, targetY);
+        this.buildCount++;
+    }
+
+    /**
+     * Take spare field, the least recently used field or create new one
+     */
+    private FlowField takeFreeField(){
+        if (!this.spareFields.isEmpty()){
+            return this.spareFields.pop();
+        }
+
+        if (this.fields.size() < this.capacity){
+            return new FlowField(this.grid);
+        }
+
+        Iterator<Map.Entry<Integer, FlowField>> iterator = this.fields.entrySet().iterator();
+        FlowField field = iterator.next().getValue();
+        iterator.remove();
+
+        return field;
+    }
+
+    @Override
+    public void dispose() {
+        if (this.fields != null){
+            for (FlowField field: this.fields.values()) {
+                field.dispose();
+            }
+        }
+
+        if (this.spareFields != null){
+            for (FlowField field: this.spareFields) {
+                field.dispose();
+            }
+        }
+
+        this.grid = null;
+        this.fields = null;
+        this.spareFields = null;
+    }
+}
@@ -0,0 +1,773 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Represent the hierarchical search of path (HPA*) over {@link CollisionGrid}.
+ * Map is split to square sectors. Free tiles on borders of neighbour sectors make entrances,
+ * every entrance is the pair of nodes of abstract graph. Nodes of one sector are linked by
+ * costs of paths inside the sector. Long routes are searched over the abstract graph and
+ * the tiles are searched only inside one sector between two waypoints.
+ */
+public class HierarchicalPathFinder implements IDisposable {
+    /**
+     * Default count of tiles by side of sector
+     */
+    public static final int DefaultSectorSize = 16;
+
+    /**
+     * Start capacity of abstract graph
+     */
+    private static final int DefaultNodeCapacity = 64;
+
+    /**
+     * Start capacity of edges of one node
+     */
+    private static final int DefaultEdgeCapacity = 4;
+
+    /**
+     * Value of node fields, when node isn't used
+     */
+    private static final int NoNode = -1;
+
+    /**
+     * The walkability of map
+     */
+    private CollisionGrid grid;
+
+    /**
+     * The search of tiles inside sectors
+     */
+    private PathFinder localFinder;
+
+    /**
+     * Buffers for local searches
+     */
+    private TilePath localPath;
+    private TilePath waypoints;
+
+    /**
+     * Count of tiles by side of sector
+     */
+    private int sectorSize;
+
+    /**
+     * Count of sectors by horizontal and vertical
+     */
+    private int sectorColumns;
+    private int sectorRows;
+
+    /**
+     * The tile coordinates of nodes
+     */
+    private int[] nodeX;
+    private int[] nodeY;
+
+    /**
+     * Sector of node or {@link #NoNode}, when node is free
+     */
+    private int[] nodeSector;
+
+    /**
+     * The node on other side of entrance
+     */
+    private int[] nodePartner;
+
+    /**
+     * Edges to nodes of the same sector
+     */
+    private int[][] edgeTargets;
+    private int[][] edgeCosts;
+    private int[] edgeCounts;
+
+    /**
+     * Count of created nodes, including free nodes
+     */
+    private int nodeCount;
+
+    /**
+     * Nodes, which can be used again
+     */
+    private int[] freeNodes;
+    private int freeNodeCount;
+
+    /**
+     * Nodes by sectors
+     */
+    private int[][] sectorNodes;
+    private int[] sectorNodeCounts;
+
+    /**
+     * Sectors, which should be rebuilt before next search
+     */
+    private boolean[] dirtySectors;
+    private int[] dirtySectorList;
+    private int dirtySectorCount;
+
+    /**
+     * Buffers of search over abstract graph
+     */
+    private int[] costs;
+    private int[] parents;
+    private int[] searchMarks;
+    private int[] closedMarks;
+    private int searchNumber;
+    private IntMinHeap openSet;
+
+    /**
+     * Initialize new instance of {@link HierarchicalPathFinder} and build the abstract graph
+     * @param grid the walkability of map
+     * @param sectorSize count of tiles by side of sector
+     */
+    public HierarchicalPathFinder(CollisionGrid grid, int sectorSize){
+        if (grid == null){
+            throw new IllegalArgumentException("Collision grid shouldn't be null");
+        }
+
+        if (sectorSize < 2){
+            throw new IllegalArgumentException("Size of sector should be 2 tiles or more");
+        }
+
+        this.grid = grid;
+        this.sectorSize = sectorSize;
+        this.sectorColumns = Math.max(1, (grid.getWidth() + sectorSize - 1) / sectorSize);
+        this.sectorRows = Math.max(1, (grid.getHeight() + sectorSize - 1) / sectorSize);
+        this.localFinder = new PathFinder(grid);
+        this.localPath = new TilePath();
+        this.waypoints = new TilePath();
+        this.openSet = new IntMinHeap();
+
+        int sectorCount = this.sectorColumns * this.sectorRows;
+        this.sectorNodes = new int[sectorCount][];
+        this.sectorNodeCounts = new int[sectorCount];
+        this.dirtySectors = new boolean[sectorCount];
+        this.dirtySectorList = new int[sectorCount];
+        this.freeNodes = new int[DefaultNodeCapacity];
+        this.allocateNodeArrays(DefaultNodeCapacity);
+
+        this.build();
+    }
+
+    /**
+     * Initialize new instance of {@link HierarchicalPathFinder} with default size of sector
+     * @param grid the walkability of map
+     */
+    public HierarchicalPathFinder(CollisionGrid grid){
+        this(grid, DefaultSectorSize);
+    }
+
+    /**
+     * Build entrances and edges for all sectors
+     */
+    private void build(){
+        for (int row = 0; row < this.sectorRows; row++){
+            for (int column = 0; column < this.sectorColumns; column++){
+                int sector = row * this.sectorColumns + column;
+                if (column + 1 < this.sectorColumns){
+                    this.createEntrances(sector, sector + 1, true);
+                }
+
+                if (row + 1 < this.sectorRows){
+                    this.createEntrances(sector, sector + this.sectorColumns, false);
+                }
+            }
+        }
+
+        for (int sector = 0; sector < this.sectorNodes.length; sector++){
+            this.computeSectorEdges(sector);
+        }
+    }
+
+    /**
+     * Mark sector of tile for rebuild. Should be called when tile of {@link CollisionGrid} is changed.
+     * Sectors are rebuilt before next search.
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     */
+    public void onTileChanged(int x, int y){
+        if (!this.grid.contains(x, y)){
+            return;
+        }
+
+        int sector = this.getSector(x, y);
+        if (!this.dirtySectors[sector]){
+            this.dirtySectors[sector] = true;
+            this.dirtySectorList[this.dirtySectorCount++] = sector;
+        }
+    }
+
+    /**
+     * Mark sectors of area for rebuild, e.g. when region of streaming world is loaded or unloaded.
+     * Sectors are rebuilt before next search.
+     * @param area the changed tiles
+     */
+    public void onAreaChanged(Rectangle area){
+        int left = Math.max(area.x, 0);
+        int top = Math.max(area.y, 0);
+        int right = Math.min(area.x + area.width, this.grid.getWidth()) - 1;
+        int bottom = Math.min(area.y + area.height, this.grid.getHeight()) - 1;
+        if ((right < left) || (bottom < top)){
+            return;
+        }
+
+        for (int y = top / this.sectorSize; y <= bottom / this.sectorSize; y++){
+            for (int x = left / this.sectorSize; x <= right / this.sectorSize; x++){
+                this.onTileChanged(x * this.sectorSize, y * this.sectorSize);
+            }
+        }
+    }
+
+    /**
+     * Find the full path between tiles. The abstract route is found first, then every part of it is
+     * refined by search inside one sector.
+     * @param startX the start tile by horizontal
+     * @param startY the start tile by vertical
+     * @param goalX the goal tile by horizontal
+     * @param goalY the goal tile by vertical
+     * @param path the path, which is filled by steps when path is found
+     * @return result of search
+     */
+    public PathFinder.SearchResult findPath(int startX, int startY, int goalX, int goalY, TilePath path){
+        path.clear();
+
+        PathFinder.SearchResult result = this.findWaypoints(startX, startY, goalX, goalY, this.waypoints);
+        if (result != PathFinder.SearchResult.Found){
+            return result;
+        }
+
+        int fromX = startX;
+        int fromY = startY;
+        for (int i = 0; i < this.waypoints.getLength(); i++){
+            int toX = this.waypoints.getX(i);
+            int toY = this.waypoints.getY(i);
+
+            result = this.refine(fromX, fromY, toX, toY, this.localPath);
+            if (result != PathFinder.SearchResult.Found){
+                path.clear();
+                return result;
+            }
+
+            for (int step = 0; step < this.localPath.getLength(); step++){
+                path.add(this.localPath.getX(step), this.localPath.getY(step));
+            }
+
+            fromX = toX;
+            fromY = toY;
+        }
+
+        return PathFinder.SearchResult.Found;
+    }
+
+    /**
+     * Find the abstract route between tiles. Every two neighbour waypoints are placed in one sector
+     * or on two sides of entrance, so they can be joined by {@link #refine(int, int, int, int, TilePath)}
+     * when actor comes to the first of them.
+     * @param startX the start tile by horizontal
+     * @param startY the start tile by vertical
+     * @param goalX the goal tile by horizontal
+     * @param goalY the goal tile by vertical
+     * @param route the path, which is filled by waypoints, the last waypoint is the goal
+     * @return result of search
+     */
+    public PathFinder.SearchResult findWaypoints(int startX, int startY, int goalX, int goalY, TilePath route){
+        route.clear();
+        this.rebuildDirtySectors();
+
+        if (!this.grid.contains(startX, startY) || this.grid.isBlocked(goalX, goalY)){
+            return PathFinder.SearchResult.NotFound;
+        }
+
+        if ((startX == goalX) && (startY == goalY)){
+            return PathFinder.SearchResult.Found;
+        }
+
+        int startSector = this.getSector(startX, startY);
+        int goalSector = this.getSector(goalX, goalY);
+        if ((startSector == goalSector)
+                && (this.searchInSector(startSector, startX, startY, goalX, goalY) == PathFinder.SearchResult.Found)){
+            route.add(goalX, goalY);
+            return PathFinder.SearchResult.Found;
+        }
+
+        int startNode = this.createNode(startX, startY, startSector, false);
+        int goalNode = this.createNode(goalX, goalY, goalSector, false);
+        this.connectToSector(startNode, true);
+        this.connectToSector(goalNode, false);
+
+        PathFinder.SearchResult result = this.searchAbstract(startNode, goalNode, route);
+
+        this.disconnectFromSector(startNode);
+        this.disconnectFromSector(goalNode);
+        this.freeNode(startNode);
+        this.freeNode(goalNode);
+
+        return result;
+    }
+
+    /**
+     * Find tiles between two neighbour waypoints
+     * @param fromX the tile, where actor stays now, by horizontal
+     * @param fromY the tile, where actor stays now, by vertical
+     * @param toX the next waypoint by horizontal
+     * @param toY the next waypoint by vertical
+     * @param steps the path, which is filled by steps
+     * @return result of search
+     */
+    public PathFinder.SearchResult refine(int fromX, int fromY, int toX, int toY, TilePath steps){
+        if (Math.abs(fromX - toX) + Math.abs(fromY - toY) == 1){
+            steps.clear();
+            if (this.grid.isBlocked(toX, toY)){
+                return PathFinder.SearchResult.NotFound;
+            }
+
+            steps.add(toX, toY);
+            return PathFinder.SearchResult.Found;
+        }
+
+        int fromSector = this.getSector(fromX, fromY);
+        int toSector = this.getSector(toX, toY);
+        int left = Math.min(fromSector % this.sectorColumns, toSector % this.sectorColumns) * this.sectorSize;
+        int top = Math.min(fromSector / this.sectorColumns, toSector / this.sectorColumns) * this.sectorSize;
+        int right = (Math.max(fromSector % this.sectorColumns, toSector % this.sectorColumns) + 1) * this.sectorSize;
+        int bottom = (Math.max(fromSector / this.sectorColumns, toSector / this.sectorColumns) + 1) * this.sectorSize;
+
+        this.localFinder.setSearchArea(left, top, right - left, bottom - top);
+        PathFinder.SearchResult result = this.localFinder.findPath(fromX, fromY, toX, toY,
+                (right - left) * (bottom - top), steps);
+        this.localFinder.resetSearchArea();
+
+        return result;
+    }
+
+    /**
+     * Gets count of nodes of abstract graph
+     * @return count of nodes
+     */
+    public int getNodeCount(){
+        return this.nodeCount - this.freeNodeCount;
+    }
+
+    /**
+     * Gets the walkability of map, which is used by search
+     * @return instance of {@link CollisionGrid}
+     */
+    public CollisionGrid getGrid(){
+        return this.grid;
+    }
+
+    /**
+     * Search over abstract graph
+     */
+    private PathFinder.SearchResult searchAbstract(int startNode, int goalNode, TilePath route){
+        this.openSet.clear();
+        this.searchNumber++;
+        if (this.searchNumber == Integer.MAX_VALUE){
+            Arrays.fill(this.searchMarks, 0);
+            Arrays.fill(this.closedMarks, 0);
+            this.searchNumber = 1;
+        }
+
+        this.costs[startNode] = 0;
+        this.parents[startNode] = NoNode;
+        this.searchMarks[startNode] = this.searchNumber;
+        this.openSet.push(startNode, this.estimate(startNode, goalNode));
+
+        while (!this.openSet.isEmpty()){
+            int current = this.openSet.pop();
+            if (this.closedMarks[current] == this.searchNumber){
+                continue;
+            }
+
+            if (current == goalNode){
+                for (int node = goalNode; node != startNode; node = this.parents[node]){
+                    route.add(this.nodeX[node], this.nodeY[node]);
+                }
+
+                route.reverse();
+                return PathFinder.SearchResult.Found;
+            }
+
+            this.closedMarks[current] = this.searchNumber;
+
+            for (int i = 0; i < this.edgeCounts[current]; i++){
+                this.relax(current, this.edgeTargets[current][i], this.edgeCosts[current][i], goalNode);
+            }
+
+            if (this.nodePartner[current] != NoNode){
+                this.relax(current, this.nodePartner[current], 1, goalNode);
+            }
+        }
+
+        return PathFinder.SearchResult.NotFound;
+    }
+
+    /**
+     * Update the cost of neighbour node
+     */
+    private void relax(int current, int neighbour, int edgeCost, int goalNode){
+        if (this.closedMarks[neighbour] == this.searchNumber){
+            return;
+        }
+
+        int cost = this.costs[current] + edgeCost;
+        if ((this.searchMarks[neighbour] == this.searchNumber) && (this.costs[neighbour] <= cost)){
+            return;
+        }
+
+        this.searchMarks[neighbour] = this.searchNumber;
+        this.costs[neighbour] = cost;
+        this.parents[neighbour] = current;
+        this.openSet.push(neighbour, cost + this.estimate(neighbour, goalNode));
+    }
+
+    private int estimate(int node, int goalNode){
+        return Math.abs(this.nodeX[node] - this.nodeX[goalNode]) + Math.abs(this.nodeY[node] - this.nodeY[goalNode]);
+    }
+
+    /**
+     * Link temporary node of start or goal with nodes of its sector
+     * @param node the temporary node
+     * @param isStart true, when edges should be directed from node, else to node
+     */
+    private void connectToSector(int node, boolean isStart){
+        int sector = this.nodeSector[node];
+        for (int i = 0; i < this.sectorNodeCounts[sector]; i++){
+            int other = this.sectorNodes[sector][i];
+            if (this.searchInSector(sector, this.nodeX[node], this.nodeY[node], this.nodeX[other], this.nodeY[other])
+                    != PathFinder.SearchResult.Found){
+                continue;
+            }
+
+            if (isStart){
+                this.addEdge(node, other, this.localPath.getLength());
+            }
+            else {
+                this.addEdge(other, node, this.localPath.getLength());
+            }
+        }
+    }
+
+    /**
+     * Remove edges from nodes of sector to temporary node
+     */
+    private void disconnectFromSector(int node){
+        int sector = this.nodeSector[node];
+        for (int i = 0; i < this.sectorNodeCounts[sector]; i++){
+            this.removeEdge(this.sectorNodes[sector][i], node);
+        }
+    }
+
+    /**
+     * Search path between tiles inside one sector, steps are written to localPath
+     */
+    private PathFinder.SearchResult searchInSector(int sector, int startX, int startY, int goalX, int goalY){
+        int left = (sector % this.sectorColumns) * this.sectorSize;
+        int top = (sector / this.sectorColumns) * this.sectorSize;
+
+        this.localFinder.setSearchArea(left, top, this.sectorSize, this.sectorSize);
+        PathFinder.SearchResult result = this.localFinder.findPath(startX, startY, goalX, goalY,
+                this.sectorSize * this.sectorSize, this.localPath);
+        this.localFinder.resetSearchArea();
+
+        return result;
+    }
+
+    /**
+     * Rebuild sectors, which were marked by {@link #onTileChanged(int, int)}
+     */
+    private void rebuildDirtySectors(){
+        for (int i = 0; i < this.dirtySectorCount; i++){
+            int sector = this.dirtySectorList[i];
+            this.dirtySectors[sector] = false;
+            this.rebuildSector(sector);
+        }
+
+        this.dirtySectorCount = 0;
+    }
+
+    /**
+     * Recreate entrances on all borders of sector and recompute edges of sector and its neighbours
+     */
+    private void rebuildSector(int sector){
+        while (this.sectorNodeCounts[sector] > 0){
+            int node = this.sectorNodes[sector][0];
+            if (this.nodePartner[node] != NoNode){
+                this.freeNode(this.nodePartner[node]);
+            }
+
+            this.freeNode(node);
+        }
+
+        int column = sector % this.sectorColumns;
+        int row = sector / this.sectorColumns;
+        if (column > 0){
+            this.createEntrances(sector - 1, sector, true);
+        }
+
+        if (column + 1 < this.sectorColumns){
+            this.createEntrances(sector, sector + 1, true);
+        }
+
+        if (row > 0){
+            this.createEntrances(sector - this.sectorColumns, sector, false);
+        }
+
+        if (row + 1 < this.sectorRows){
+            this.createEntrances(sector, sector + this.sectorColumns, false);
+        }
+
+        this.computeSectorEdges(sector);
+        if (column > 0){
+            this.computeSectorEdges(sector - 1);
+        }
+
+        if (column + 1 < this.sectorColumns){
+            this.computeSectorEdges(sector + 1);
+        }
+
+        if (row > 0){
+            this.computeSectorEdges(sector - this.sectorColumns);
+        }
+
+        if (row + 1 < this.sectorRows){
+            this.computeSectorEdges(sector + this.sectorColumns);
+        }
+    }
+
+    /**
+     * Create entrances on border between two sectors. One entrance is created for every
+     * continuous run of free tiles, in the middle of run.
+     * @param first the left or top sector
+     * @param second the right or bottom sector
+     * @param isVertical true, when sectors are placed side by side and border between them is vertical
+     */
+    private void createEntrances(int first, int second, boolean isVertical){
+        int firstColumn = first % this.sectorColumns;
+        int firstRow = first / this.sectorColumns;
+
+        int borderLength;
+        int borderStart;
+        if (isVertical){
+            borderStart = firstRow * this.sectorSize;
+            borderLength = Math.min(this.sectorSize, this.grid.getHeight() - borderStart);
+        }
+        else {
+            borderStart = firstColumn * this.sectorSize;
+            borderLength = Math.min(this.sectorSize, this.grid.getWidth() - borderStart);
+        }
+
+        int firstLine = isVertical ? (firstColumn + 1) * this.sectorSize - 1 : (firstRow + 1) * this.sectorSize - 1;
+        int runStart = -1;
+        for (int i = 0; i <= borderLength; i++){
+            boolean isFree = false;
+            if (i < borderLength){
+                int position = borderStart + i;
+                isFree = isVertical
+                        ? this.grid.isFree(firstLine, position) && this.grid.isFree(firstLine + 1, position)
+                        : this.grid.isFree(position, firstLine) && this.grid.isFree(position, firstLine + 1);
+            }
+
+            if (isFree && (runStart < 0)){
+                runStart = i;
+            }
+            else if (!isFree && (runStart >= 0)){
+                int position = borderStart + (runStart + i - 1) / 2;
+                int firstNode = isVertical
+                        ? this.createNode(firstLine, position, first, true)
+                        : this.createNode(position, firstLine, first, true);
+                int secondNode = isVertical
+                        ? this.createNode(firstLine + 1, position, second, true)
+                        : this.createNode(position, firstLine + 1, second, true);
+
+                this.nodePartner[firstNode] = secondNode;
+                this.nodePartner[secondNode] = firstNode;
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Recompute edges between all nodes of sector
+     */
+    private void computeSectorEdges(int sector){
+        int count = this.sectorNodeCounts[sector];
+        int[] nodes = this.sectorNodes[sector];
+        for (int i = 0; i < count; i++){
+            this.edgeCounts[nodes[i]] = 0;
+        }
+
+        for (int i = 0; i < count; i++){
+            for (int j = i + 1; j < count; j++){
+                int first = nodes[i];
+                int second = nodes[j];
+                if (this.searchInSector(sector, this.nodeX[first], this.nodeY[first],
+                        this.nodeX[second], this.nodeY[second]) != PathFinder.SearchResult.Found){
+                    continue;
+                }
+
+                this.addEdge(first, second, this.localPath.getLength());
+                this.addEdge(second, first, this.localPath.getLength());
+            }
+        }
+    }
+
+    private int getSector(int x, int y){
+        return (y / this.sectorSize) * this.sectorColumns + (x / this.sectorSize);
+    }
+
+    /**
+     * Create node of abstract graph
+     * @param isSectorMember false for temporary nodes of start and goal
+     * @return id of node
+     */
+    private int createNode(int x, int y, int sector, boolean isSectorMember){
+        int node;
+        if (this.freeNodeCount > 0){
+            node = this.freeNodes[--this.freeNodeCount];
+        }
+        else {
+            if (this.nodeCount == this.nodeX.length){
+                this.allocateNodeArrays(this.nodeCount * 2);
+            }
+
+            node = this.nodeCount++;
+        }
+
+        this.nodeX[node] = x;
+        this.nodeY[node] = y;
+        this.nodeSector[node] = sector;
+        this.nodePartner[node] = NoNode;
+        this.edgeCounts[node] = 0;
+
+        if (isSectorMember){
+            int[] nodes = this.sectorNodes[sector];
+            if (nodes == null){
+                nodes = new int[DefaultEdgeCapacity];
+            }
+            else if (this.sectorNodeCounts[sector] == nodes.length){
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+
+            this.sectorNodes[sector] = nodes;
+            nodes[this.sectorNodeCounts[sector]++] = node;
+        }
+
+        return node;
+    }
+
+    /**
+     * Remove node from its sector and put it to list of free nodes
+     */
+    private void freeNode(int node){
+        int sector = this.nodeSector[node];
+        int[] nodes = this.sectorNodes[sector];
+        for (int i = 0; i < this.sectorNodeCounts[sector]; i++){
+            if (nodes[i] == node){
+                nodes[i] = nodes[--this.sectorNodeCounts[sector]];
+                break;
+            }
+        }
+
+        this.nodeSector[node] = NoNode;
+        this.nodePartner[node] = NoNode;
+        this.edgeCounts[node] = 0;
+
+        if (this.freeNodeCount == this.freeNodes.length){
+            this.freeNodes = Arrays.copyOf(this.freeNodes, this.freeNodeCount * 2);
+        }
+
+        this.freeNodes[this.freeNodeCount++] = node;
+    }
+
+    private void addEdge(int from, int to, int cost){
+        int count = this.edgeCounts[from];
+        if (this.edgeTargets[from] == null){
+            this.edgeTargets[from] = new int[DefaultEdgeCapacity];
+            this.edgeCosts[from] = new int[DefaultEdgeCapacity];
+        }
+        else if (count == this.edgeTargets[from].length){
+            this.edgeTargets[from] = Arrays.copyOf(this.edgeTargets[from], count * 2);
+            this.edgeCosts[from] = Arrays.copyOf(this.edgeCosts[from], count * 2);
+        }
+
+        this.edgeTargets[from][count] = to;
+        this.edgeCosts[from][count] = cost;
+        this.edgeCounts[from] = count + 1;
+    }
+
+    private void removeEdge(int from, int to){
+        for (int i = 0; i < this.edgeCounts[from]; i++){
+            if (this.edgeTargets[from][i] == to){
+                int last = --this.edgeCounts[from];
+                this.edgeTargets[from][i] = this.edgeTargets[from][last];
+                this.edgeCosts[from][i] = this.edgeCosts[from][last];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Grow arrays of nodes
+     */
+    private void allocateNodeArrays(int capacity){
+        int oldCapacity = this.nodeX == null ? 0 : this.nodeX.length;
+        if (oldCapacity == 0){
+            this.nodeX = new int[capacity];
+            this.nodeY = new int[capacity];
+            this.nodeSector = new int[capacity];
+            this.nodePartner = new int[capacity];
+            this.edgeTargets = new int[capacity][];
+            this.edgeCosts = new int[capacity][];
+            this.edgeCounts = new int[capacity];
+            this.costs = new int[capacity];
+            this.parents = new int[capacity];
+            this.searchMarks = new int[capacity];
+            this.closedMarks = new int[capacity];
+            return;
+        }
+
+        this.nodeX = Arrays.copyOf(this.nodeX, capacity);
+        this.nodeY = Arrays.copyOf(this.nodeY, capacity);
+        this.nodeSector = Arrays.copyOf(this.nodeSector, capacity);
+        this.nodePartner = Arrays.copyOf(this.nodePartner, capacity);
+        this.edgeTargets = Arrays.copyOf(this.edgeTargets, capacity);
+        this.edgeCosts = Arrays.copyOf(this.edgeCosts, capacity);
+        this.edgeCounts = Arrays.copyOf(this.edgeCounts, capacity);
+        this.costs = Arrays.copyOf(this.costs, capacity);
+        this.parents = Arrays.copyOf(this.parents, capacity);
+        this.searchMarks = Arrays.copyOf(this.searchMarks, capacity);
+        this.closedMarks = Arrays.copyOf(this.closedMarks, capacity);
+    }
+
+    @Override
+    public void dispose() {
+        if (this.localFinder != null){
+            this.localFinder.dispose();
+        }
+
+        this.grid = null;
+        this.localFinder = null;
+        this.localPath = null;
+        this.waypoints = null;
+        this.nodeX = null;
+        this.nodeY = null;
+        this.nodeSector = null;
+        this.nodePartner = null;
+        this.edgeTargets = null;
+        this.edgeCosts = null;
+        this.edgeCounts = null;
+        this.freeNodes = null;
+        this.sectorNodes = null;
+        this.sectorNodeCounts = null;
+        this.dirtySectors = null;
+        this.dirtySectorList = null;
+        this.costs = null;
+        this.parents = null;
+        this.searchMarks = null;
+        this.closedMarks = null;
+        this.openSet = null;
+    }
+}
@@ -0,0 +1,96 @@
+package com.story.scene.components.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Represent the binary heap of int values sorted by int score.
+ * Used as open set by searches of path, so boxed nodes aren't created.
+ */
+class IntMinHeap {
+    /**
+     * Start capacity of heap
+     */
+    private static final int DefaultCapacity = 256;
+
+    private int[] values;
+    private int[] scores;
+    private int size;
+
+    /**
+     * Initialize new instance of {@link IntMinHeap}
+     */
+    IntMinHeap(){
+        this.values = new int[DefaultCapacity];
+        this.scores = new int[DefaultCapacity];
+        this.size = 0;
+    }
+
+    void clear(){
+        this.size = 0;
+    }
+
+    boolean isEmpty(){
+        return this.size == 0;
+    }
+
+    /**
+     * Add value to heap
+     * @param value the value
+     * @param score the score of value, value with the least score is taken first
+     */
+    void push(int value, int score){
+        if (this.size == this.values.length){
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+            this.scores = Arrays.copyOf(this.scores, this.size * 2);
+        }
+
+        int index = this.size++;
+        while (index > 0){
+            int parent = (index - 1) >>> 1;
+            if (this.scores[parent] <= score){
+                break;
+            }
+
+            this.values[index] = this.values[parent];
+            this.scores[index] = this.scores[parent];
+            index = parent;
+        }
+
+        this.values[index] = value;
+        this.scores[index] = score;
+    }
+
+    /**
+     * Take value with the least score
+     * @return the value
+     */
+    int pop(){
+        int result = this.values[0];
+        int lastValue = this.values[--this.size];
+        int lastScore = this.scores[this.size];
+
+        int index = 0;
+        while (true){
+            int child = index * 2 + 1;
+            if (child >= this.size){
+                break;
+            }
+
+            if ((child + 1 < this.size) && (this.scores[child + 1] < this.scores[child])){
+                child++;
+            }
+
+            if (this.scores[child] >= lastScore){
+                break;
+            }
+
+            this.values[index] = this.values[child];
+            this.scores[index] = this.scores[child];
+            index = child;
+        }
+
+        this.values[index] = lastValue;
+        this.scores[index] = lastScore;
+        return result;
+    }
+}
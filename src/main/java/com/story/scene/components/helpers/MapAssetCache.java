@@ -0,0 +1,308 @@
+package com.story.scene.components.helpers;
+
+import com.story.dataAccessLayer.dataDescriptors.MapDescriptor;
+import com.story.system.IDisposable;
+import com.story.utils.log.Trace;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.tiled.TileSet;
+import org.newdawn.slick.tiled.TiledMap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represent the cache of loaded tiled maps by id of map. Uses pattern singleton.
+ * Maps are evicted in order of last access, when count of maps or their memory exceeds the limit.
+ * Pinned maps (e.g. the shown map) are never evicted.
+ * Methods should be called from thread of OpenGL context, because textures are destroyed on eviction.
+ */
+public class MapAssetCache {
+    /**
+     * Default max count of maps in cache
+     */
+    public static final int DefaultCapacity = 4;
+
+    /**
+     * Default max count of bytes, which maps in cache can use
+     */
+    public static final long DefaultMemoryLimit = 64L * 1024 * 1024;
+
+    /**
+     * Represent the cached map
+     */
+    private static class Entry {
+        private String name;
+        private String description;
+        private String path;
+        private TiledMap map;
+        private long size;
+    }
+
+    /**
+     * The instance of {@link MapAssetCache}
+     */
+    private static MapAssetCache instance;
+
+    /**
+     * Max count of maps in cache
+     */
+    private int capacity;
+
+    /**
+     * Max count of bytes, which maps in cache can use
+     */
+    private long memoryLimit;
+
+    /**
+     * Count of bytes, which maps in cache use
+     */
+    private long memoryUsage;
+
+    /**
+     * The maps by id in order of last access
+     */
+    private LinkedHashMap<Integer, Entry> entries;
+
+    /**
+     * Ids of maps, which can't be evicted
+     */
+    private HashSet<Integer> pinnedMaps;
+
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * Initialize new instance of {@link MapAssetCache}
+     */
+    private MapAssetCache(){
+        this.capacity = DefaultCapacity;
+        this.memoryLimit = DefaultMemoryLimit;
+        this.entries = new LinkedHashMap<>(DefaultCapacity, 0.75f, true);
+        this.pinnedMaps = new HashSet<>();
+    }
+
+    /**
+     * Get instance of {@link MapAssetCache}
+     */
+    public static MapAssetCache getInstance(){
+        if (instance == null){
+            instance = new MapAssetCache();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Gets map from cache or loads it. Compiled streaming world or binary map is preferred, when it exists near TMX.
+     * @param descriptor the descriptor of map
+     * @return the map with textures
+     * @throws SlickException indicated when map can't be loaded
+     */
+    public TiledMap getOrLoad(MapDescriptor descriptor) throws SlickException {
+        Entry entry = this.entries.get(descriptor.getId());
+        if ((entry != null) && entry.path.equals(descriptor.getPathToTMX())){
+            this.hitCount++;
+            return entry.map;
+        }
+
+        this.missCount++;
+        String path = descriptor.getPathToTMX();
+        TiledMap map;
+        if (BinaryMapFormat.hasWorld(path)){
+            map = new StreamingTiledMap(BinaryMapFormat.getWorldPath(path));
+        }
+        else if (BinaryMapFormat.hasBinary(path)){
+            map = new BinaryTiledMap(BinaryMapFormat.getBinaryPath(path));
+        }
+        else {
+            map = new TiledMap(path);
+        }
+        this.put(descriptor, map);
+
+        return map;
+    }
+
+    /**
+     * Put loaded map to cache, e.g. map, which was prefetched
+     * @param descriptor the descriptor of map
+     * @param map the map with textures
+     */
+    public void put(MapDescriptor descriptor, TiledMap map){
+        Entry old = this.entries.remove(descriptor.getId());
+        if ((old != null) && (old.map != map)){
+            this.destroyEntry(old);
+        }
+        else if (old != null){
+            this.memoryUsage -= old.size;
+        }
+
+        Entry entry = new Entry();
+        entry.name = descriptor.getName();
+        entry.description = descriptor.getDescription();
+        entry.path = descriptor.getPathToTMX();
+        entry.map = map;
+        entry.size = estimateSize(map);
+        this.entries.put(descriptor.getId(), entry);
+        this.memoryUsage += entry.size;
+
+        this.evict();
+    }
+
+    /**
+     * Create descriptor of cached map, so database isn't queried again
+     * @param mapId the id of map
+     * @return new descriptor or null, when map isn't cached
+     */
+    public MapDescriptor createDescriptor(int mapId){
+        Entry entry = this.entries.get(mapId);
+        if (entry == null){
+            return null;
+        }
+
+        MapDescriptor descriptor = new MapDescriptor(mapId);
+        descriptor.setName(entry.name);
+        descriptor.setDescription(entry.description);
+        descriptor.setPathToTMX(entry.path);
+
+        return descriptor;
+    }
+
+    /**
+     * Check when map is stored in cache
+     * @param mapId the id of map
+     * @return true, when map is present
+     */
+    public boolean contains(int mapId){
+        return this.entries.containsKey(mapId);
+    }
+
+    /**
+     * Forbid eviction of map
+     * @param mapId the id of map
+     */
+    public void pin(int mapId){
+        this.pinnedMaps.add(mapId);
+    }
+
+    /**
+     * Allow eviction of map
+     * @param mapId the id of map
+     */
+    public void unpin(int mapId){
+        if (this.pinnedMaps.remove(mapId)){
+            this.evict();
+        }
+    }
+
+    /**
+     * Set limits of cache, maps over limits are evicted
+     * @param capacity max count of maps
+     * @param memoryLimit max count of bytes
+     */
+    public void setLimits(int capacity, long memoryLimit){
+        if ((capacity <= 0) || (memoryLimit <= 0)){
+            throw new IllegalArgumentException("Limits of cache should be positive");
+        }
+
+        this.capacity = capacity;
+        this.memoryLimit = memoryLimit;
+        this.evict();
+    }
+
+    /**
+     * Remove all not pinned maps
+     */
+    public void clear(){
+        Iterator<Map.Entry<Integer, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()){
+            Map.Entry<Integer, Entry> item = iterator.next();
+            if (!this.pinnedMaps.contains(item.getKey())){
+                this.destroyEntry(item.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public int getSize(){
+        return this.entries.size();
+    }
+
+    /**
+     * Evict the least recently used maps, which aren't pinned, while cache is over limits
+     */
+    private void evict(){
+        Iterator<Map.Entry<Integer, Entry>> iterator = this.entries.entrySet().iterator();
+        while (((this.entries.size() > this.capacity) || (this.memoryUsage > this.memoryLimit))
+                && iterator.hasNext()){
+            Map.Entry<Integer, Entry> item = iterator.next();
+            if (this.pinnedMaps.contains(item.getKey())){
+                continue;
+            }
+
+            Trace.info("Map " + item.getKey() + " is evicted from cache");
+            this.destroyEntry(item.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Destroy textures of tile sets
+     */
+    private void destroyEntry(Entry entry){
+        this.memoryUsage -= entry.size;
+        if (entry.map instanceof IDisposable){
+            ((IDisposable) entry.map).dispose();
+        }
+
+        for (int i = 0; i < entry.map.getTileSetCount(); i++){
+            TileSet tileSet = entry.map.getTileSet(i);
+            if (tileSet.tiles == null){
+                continue;
+            }
+
+            try {
+                tileSet.tiles.destroy();
+            } catch (SlickException e) {
+                Trace.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Count of bytes of textures and decoded layers
+     */
+    private static long estimateSize(TiledMap map){
+        long size = 0;
+        for (int i = 0; i < map.getTileSetCount(); i++){
+            TileSet tileSet = map.getTileSet(i);
+            if ((tileSet.tiles != null) && (tileSet.tiles.getTexture() != null)){
+                size += 4L * tileSet.tiles.getTexture().getTextureWidth() * tileSet.tiles.getTexture().getTextureHeight();
+            }
+        }
+
+        //Compiled map stores 16-bit ids outside the heap, layer of TMX stores three int values for every tile.
+        //Regions of streaming world aren't counted.
+        if (map instanceof BinaryTiledMap){
+            OffHeapTileStore tileStore = ((BinaryTiledMap) map).getTileStore();
+            size += tileStore == null ? 0 : tileStore.getByteSize();
+        } else {
+            size += 12L * map.getWidth() * map.getHeight() * map.getLayerCount();
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,247 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import com.story.utils.log.Trace;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.tiled.TiledMap;
+
+import java.awt.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represent the cache of prerendered blocks of static map layers.
+ * Every block (chunk) is drawn to offscreen image once and then it is drawn as single quad by {@link RenderCommandBuffer}.
+ */
+public class MapChunkCache implements IDisposable {
+    /**
+     * Default count of tiles by side of chunk
+     */
+    public static final int DefaultChunkSize = 16;
+
+    /**
+     * Default count of chunks, which are stored in cache
+     */
+    public static final int DefaultCapacity = 32;
+
+    /**
+     * The map, which layers are cached
+     */
+    private TiledMap map;
+
+    /**
+     * Indexes of layers, which are drawn to chunks
+     */
+    private int[] staticLayers;
+
+    /**
+     * Count of tiles by side of chunk
+     */
+    private int chunkSize;
+
+    /**
+     * Max count of chunks in cache
+     */
+    private int capacity;
+
+    /**
+     * The chunks in order of last access
+     */
+    private LinkedHashMap<Long, Image> chunks;
+
+    /**
+     * Variable have false value when offscreen rendering isn't supported
+     */
+    private boolean isAvailable;
+
+    /**
+     * Initialize new instance of {@link MapChunkCache}
+     * @param map the tiled map
+     * @param staticLayers indexes of layers, which are not changed while map is shown
+     * @param chunkSize count of tiles by side of chunk
+     * @param capacity max count of chunks in cache
+     */
+    public MapChunkCache(TiledMap map, int[] staticLayers, int chunkSize, int capacity){
+        if ((map == null) || (staticLayers == null)){
+            throw new IllegalArgumentException("Map and layers shouldn't be null");
+        }
+
+        if ((chunkSize <= 0) || (capacity <= 0)){
+            throw new IllegalArgumentException("Size of chunk and capacity should be positive");
+        }
+
+        this.map = map;
+        this.staticLayers = staticLayers;
+        this.chunkSize = chunkSize;
+        this.capacity = capacity;
+        this.isAvailable = true;
+        this.chunks = new LinkedHashMap<Long, Image>(capacity, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Image> eldest) {
+                if (this.size() <= MapChunkCache.this.capacity){
+                    return false;
+                }
+
+                destroyChunk(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Initialize new instance of {@link MapChunkCache} with default size of chunk and capacity
+     * @param map the tiled map
+     * @param staticLayers indexes of layers, which are not changed while map is shown
+     */
+    public MapChunkCache(TiledMap map, int[] staticLayers){
+        this(map, staticLayers, DefaultChunkSize, DefaultCapacity);
+    }
+
+    /**
+     * Check when cache can be used for render
+     * @return true, when chunks can be drawn to offscreen images
+     */
+    public boolean isAvailable(){
+        return this.isAvailable;
+    }
+
+    /**
+     * Add the chunks, which cover the visible area, to ground layer of buffer
+     * @param graphics the graphics context of screen, missed chunks are drawn to offscreen images with it
+     * @param globalCoordinates the global point, from which map is drawn
+     * @param visibleArea the tiles, which are visible on screen
+     * @param buffer the buffer of commands of scene
+     * @param sortKey the order of chunks inside ground layer
+     * @return false, when chunks can't be drawn and the layers should be drawn by tiles
+     */
+    public boolean render(Graphics graphics, Point globalCoordinates, Rectangle visibleArea,
+                          RenderCommandBuffer buffer, int sortKey){
+        if (!this.isAvailable){
+            return false;
+        }
+
+        int firstChunkX = visibleArea.x / this.chunkSize;
+        int firstChunkY = visibleArea.y / this.chunkSize;
+        int lastChunkX = (visibleArea.x + visibleArea.width - 1) / this.chunkSize;
+        int lastChunkY = (visibleArea.y + visibleArea.height - 1) / this.chunkSize;
+
+        //All visible chunks should be stayed in cache, else they will be rebuilt every frame
+        this.capacity = Math.max(this.capacity, (lastChunkX - firstChunkX + 1) * (lastChunkY - firstChunkY + 1));
+
+        int chunkWidth = this.chunkSize * this.map.getTileWidth();
+        int chunkHeight = this.chunkSize * this.map.getTileHeight();
+
+        for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++){
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++){
+                Image chunk = this.getChunk(graphics, chunkX, chunkY);
+                if (chunk == null){
+                    return false;
+                }
+
+                buffer.add(RenderCommandBuffer.Layer.Ground, sortKey, chunk,
+                        globalCoordinates.x + chunkX * chunkWidth, globalCoordinates.y + chunkY * chunkHeight);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the chunk from cache or draws it
+     * @param graphics the graphics context of screen
+     * @param chunkX the chunk coordinate by horizontal
+     * @param chunkY the chunk coordinate by vertical
+     * @return the image of chunk or null, when offscreen rendering isn't supported
+     */
+    private Image getChunk(Graphics graphics, int chunkX, int chunkY){
+        long key = ((long)chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+        Image chunk = this.chunks.get(key);
+        if (chunk != null){
+            return chunk;
+        }
+
+        chunk = this.createChunk(graphics, chunkX, chunkY);
+        if (chunk != null){
+            this.chunks.put(key, chunk);
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Draw static layers of chunk to offscreen image
+     * @param graphics the graphics context of screen, which is restored after drawing
+     * @param chunkX the chunk coordinate by horizontal
+     * @param chunkY the chunk coordinate by vertical
+     * @return the image of chunk or null, when offscreen rendering isn't supported
+     */
+    private Image createChunk(Graphics graphics, int chunkX, int chunkY){
+        int startX = chunkX * this.chunkSize;
+        int startY = chunkY * this.chunkSize;
+        int width = Math.min(this.chunkSize, this.map.getWidth() - startX);
+        int height = Math.min(this.chunkSize, this.map.getHeight() - startY);
+
+        try {
+            Image chunk = new Image(width * this.map.getTileWidth(), height * this.map.getTileHeight());
+            Graphics chunkGraphics = chunk.getGraphics();
+            Graphics.setCurrent(chunkGraphics);
+            chunkGraphics.setBackground(Color.transparent);
+            chunkGraphics.clear();
+
+            for (int layer: this.staticLayers){
+                this.map.render(0, 0, startX, startY, width, height, layer, false);
+            }
+
+            chunkGraphics.flush();
+            return chunk;
+        }
+        catch (SlickException e){
+            Trace.error("Offscreen rendering of map chunks isn't supported", e);
+            this.isAvailable = false;
+            this.invalidate();
+            return null;
+        }
+        finally {
+            Graphics.setCurrent(graphics);
+        }
+    }
+
+    /**
+     * Remove all chunks from cache. Chunks will be drawn again on next render.
+     */
+    public void invalidate(){
+        if (this.chunks == null){
+            return;
+        }
+
+        for (Image chunk: this.chunks.values()){
+            this.destroyChunk(chunk);
+        }
+
+        this.chunks.clear();
+    }
+
+    /**
+     * Release the texture of chunk
+     * @param chunk the image of chunk
+     */
+    private void destroyChunk(Image chunk){
+        try {
+            chunk.destroy();
+        } catch (SlickException e) {
+            Trace.error(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        this.invalidate();
+
+        this.map = null;
+        this.staticLayers = null;
+        this.chunks = null;
+    }
+}
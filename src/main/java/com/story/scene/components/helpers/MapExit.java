@@ -0,0 +1,49 @@
+package com.story.scene.components.helpers;
+
+import java.awt.*;
+
+/**
+ * Represent the area of map, from which player goes to other map.
+ * Exits are objects of TMX with type "Exit" and property "mapId".
+ */
+public class MapExit {
+    /**
+     * The tiles of exit
+     */
+    private Rectangle area;
+
+    /**
+     * The id of target map in database
+     */
+    private int mapId;
+
+    /**
+     * Initialize new instance of {@link MapExit}
+     * @param area the tiles of exit
+     * @param mapId the id of target map
+     */
+    public MapExit(Rectangle area, int mapId){
+        this.area = area;
+        this.mapId = mapId;
+    }
+
+    /**
+     * Gets count of tiles between point and the nearest tile of exit
+     * @param p the tile coordinates
+     * @return count of steps by four directions
+     */
+    public int getDistance(Point p){
+        int dx = Math.max(Math.max(this.area.x - p.x, p.x - (this.area.x + this.area.width - 1)), 0);
+        int dy = Math.max(Math.max(this.area.y - p.y, p.y - (this.area.y + this.area.height - 1)), 0);
+
+        return dx + dy;
+    }
+
+    public Rectangle getArea() {
+        return area;
+    }
+
+    public int getMapId() {
+        return mapId;
+    }
+}
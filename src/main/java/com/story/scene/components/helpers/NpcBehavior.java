@@ -0,0 +1,20 @@
+package com.story.scene.components.helpers;
+
+/**
+ * Represent the decision of npc about next step. Decisions of several npc are made in parallel,
+ * so implementation should only read the snapshot and shouldn't change shared state.
+ */
+public interface NpcBehavior {
+    /**
+     * The behavior of npc, which always stays on its tile
+     */
+    NpcBehavior Stay = (index, snapshot) -> null;
+
+    /**
+     * Decide where npc goes on this step
+     * @param index the index of npc in {@link ActorStore}
+     * @param snapshot the state of world at start of step
+     * @return direction of step, null when npc stays
+     */
+    ActorDirection decide(int index, NpcSimulation.Snapshot snapshot);
+}
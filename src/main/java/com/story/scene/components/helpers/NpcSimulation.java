@@ -0,0 +1,409 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Represent the simulation phase of npc. Every step has three parts:
+ * positions of npc are copied to snapshot, decisions of all npc or of given batch are made in parallel on {@link ForkJoinPool}
+ * by reading the snapshot only, then steps are applied one by one in order of npc indexes.
+ * When several npc go to the same tile, npc with the least index takes it, so result doesn't depend on threads.
+ * Methods should be called from one thread, collision grid and grid of actors shouldn't be changed during step.
+ */
+public class NpcSimulation implements IDisposable {
+    /**
+     * Default time between steps of npc in milliseconds
+     */
+    public static final int DefaultStepDuration = 1000;
+
+    /**
+     * Max count of npc, which are decided by one task. Larger ranges are split.
+     */
+    public static final int TaskSize = 256;
+
+    /**
+     * Value of decision, when npc stays
+     */
+    private static final byte Stay = -1;
+
+    /**
+     * Offsets of tile by ordinal of {@link ActorDirection}
+     */
+    private static final int[] OffsetX = {0, 0, -1, 1};
+    private static final int[] OffsetY = {-1, 1, 0, 0};
+
+    private static final ActorDirection[] Directions = ActorDirection.values();
+
+    /**
+     * Represent the state of world at start of step. It isn't changed while decisions are made.
+     */
+    public static class Snapshot {
+        private int step;
+        private int count;
+        private int[] ids;
+        private int[] tileX;
+        private int[] tileY;
+        private int playerX;
+        private int playerY;
+        private CollisionGrid collisionGrid;
+        private ActorSpatialGrid actorGrid;
+        private OccupancyGrid occupancyGrid;
+
+        /**
+         * Gets number of step
+         * @return number, which is increased by every step
+         */
+        public int getStep() {
+            return step;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getId(int index){
+            return this.ids[index];
+        }
+
+        public int getTileX(int index){
+            return this.tileX[index];
+        }
+
+        public int getTileY(int index){
+            return this.tileY[index];
+        }
+
+        /**
+         * Check when tile can be taken, it isn't blocked and there isn't actor or player on it.
+         * When occupancy grid is given, tiles reserved by moving actors aren't free too.
+         * @param x the tile coordinate by horizontal
+         * @param y the tile coordinate by vertical
+         * @return true, when tile is free
+         */
+        public boolean isFree(int x, int y){
+            if (this.occupancyGrid != null){
+                return this.collisionGrid.isFree(x, y) && this.occupancyGrid.isFree(x, y);
+            }
+
+            return this.collisionGrid.isFree(x, y)
+                    && (this.actorGrid.getActorAt(x, y) == ActorSpatialGrid.NoActor)
+                    && ((x != this.playerX) || (y != this.playerY));
+        }
+
+        public CollisionGrid getCollisionGrid() {
+            return collisionGrid;
+        }
+    }
+
+    /**
+     * Represent the decisions of range of npc
+     */
+    private class DecisionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int from;
+        private int to;
+
+        DecisionTask(int from, int to){
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= TaskSize){
+                NpcSimulation.this.decide(this.from, this.to);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new DecisionTask(this.from, middle), new DecisionTask(middle, this.to));
+        }
+    }
+
+    /**
+     * The data of npc
+     */
+    private ActorStore store;
+
+    /**
+     * The grid of npc positions, id of npc is its index in store
+     */
+    private ActorSpatialGrid actorGrid;
+
+    /**
+     * The behavior of npc, which don't have own behavior
+     */
+    private NpcBehavior behavior;
+
+    /**
+     * Own behaviors of npc by index, null when npc has common behavior
+     */
+    private NpcBehavior[] behaviors;
+
+    /**
+     * The pool, where decisions are made
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The state of world for current step
+     */
+    private Snapshot snapshot;
+
+    /**
+     * Decisions of npc by index, ordinal of direction or {@link #Stay}
+     */
+    private byte[] decisions;
+
+    /**
+     * Indexes of npc, which decide on current step
+     */
+    private int[] stepIndexes;
+    private int stepCount;
+
+    /**
+     * Id of the first npc in occupancy grid, id of npc is this id plus its index
+     */
+    private int firstOccupantId;
+
+    /**
+     * Time between steps and time since last step in milliseconds
+     */
+    private int stepDuration;
+    private int elapsedTime;
+
+    /**
+     * Initialize new instance of {@link NpcSimulation}
+     * @param store the data of npc
+     * @param actorGrid the grid of npc positions
+     * @param collisionGrid the walkability of map
+     * @param behavior the behavior of npc, which don't have own behavior
+     * @param pool the pool, where decisions are made
+     */
+    public NpcSimulation(ActorStore store, ActorSpatialGrid actorGrid, CollisionGrid collisionGrid,
+                         NpcBehavior behavior, ForkJoinPool pool){
+        if ((store == null) || (actorGrid == null) || (collisionGrid == null) || (behavior == null) || (pool == null)){
+            throw new IllegalArgumentException("Arguments of simulation shouldn't be null");
+        }
+
+        this.store = store;
+        this.actorGrid = actorGrid;
+        this.behavior = behavior;
+        this.behaviors = new NpcBehavior[0];
+        this.pool = pool;
+        this.snapshot = new Snapshot();
+        this.snapshot.collisionGrid = collisionGrid;
+        this.snapshot.actorGrid = actorGrid;
+        this.snapshot.ids = new int[0];
+        this.snapshot.tileX = new int[0];
+        this.snapshot.tileY = new int[0];
+        this.decisions = new byte[0];
+        this.stepIndexes = new int[0];
+        this.stepDuration = DefaultStepDuration;
+    }
+
+    /**
+     * Initialize new instance of {@link NpcSimulation}, decisions are made on common pool
+     * @see #NpcSimulation(ActorStore, ActorSpatialGrid, CollisionGrid, NpcBehavior, ForkJoinPool)
+     */
+    public NpcSimulation(ActorStore store, ActorSpatialGrid actorGrid, CollisionGrid collisionGrid, NpcBehavior behavior){
+        this(store, actorGrid, collisionGrid, behavior, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Make step, when time of step has come. Only one step is made by call, missed steps are skipped.
+     * @param delta the amount of time thats passed since last update in milliseconds
+     * @param playerPoint the tile of player, npc don't go to it
+     * @return count of npc, which were moved
+     */
+    public int update(int delta, Point playerPoint){
+        this.elapsedTime += delta;
+        if (this.elapsedTime < this.stepDuration){
+            return 0;
+        }
+
+        this.elapsedTime %= this.stepDuration;
+        return this.step(playerPoint);
+    }
+
+    /**
+     * Make one step of all npc
+     * @param playerPoint the tile of player, npc don't go to it
+     * @return count of npc, which were moved
+     */
+    public int step(Point playerPoint){
+        this.takeSnapshot(playerPoint);
+        for (int i = 0; i < this.snapshot.count; i++){
+            this.stepIndexes[i] = i;
+        }
+
+        return this.decideAndMerge(this.snapshot.count);
+    }
+
+    /**
+     * Make one step of part of npc, e.g. batch of {@link AiScheduler}
+     * @param indexes the indexes of npc, which decide on this step. Array is sorted by the method.
+     * @param indexCount count of indexes
+     * @param playerPoint the tile of player, npc don't go to it
+     * @return count of npc, which were moved
+     */
+    public int step(int[] indexes, int indexCount, Point playerPoint){
+        this.takeSnapshot(playerPoint);
+        Arrays.sort(indexes, 0, indexCount);
+        System.arraycopy(indexes, 0, this.stepIndexes, 0, indexCount);
+
+        return this.decideAndMerge(indexCount);
+    }
+
+    private int decideAndMerge(int indexCount){
+        this.stepCount = indexCount;
+        this.pool.invoke(new DecisionTask(0, indexCount));
+        int movedCount = this.merge();
+        this.snapshot.step++;
+
+        return movedCount;
+    }
+
+    /**
+     * Set occupancy grid, which is shared with player and other actors. Npc take tiles of grid on every step
+     * and don't go to tiles, which are taken or reserved by others.
+     * @param occupancyGrid the occupancy grid, null to check only grid of npc and tile of player
+     * @param firstOccupantId id of the first npc in occupancy grid
+     */
+    public void setOccupancyGrid(OccupancyGrid occupancyGrid, int firstOccupantId){
+        this.snapshot.occupancyGrid = occupancyGrid;
+        this.firstOccupantId = firstOccupantId;
+    }
+
+    /**
+     * Set own behavior of npc instead of common behavior
+     * @param index the index of npc in {@link ActorStore}
+     * @param behavior the behavior of npc, null to use common behavior
+     */
+    public void setBehavior(int index, NpcBehavior behavior){
+        if (index >= this.behaviors.length){
+            this.behaviors = Arrays.copyOf(this.behaviors, Math.max(this.behaviors.length * 2, index + 1));
+        }
+
+        this.behaviors[index] = behavior;
+    }
+
+    public void setStepDuration(int stepDuration) {
+        if (stepDuration <= 0){
+            throw new IllegalArgumentException("Duration of step should be positive");
+        }
+
+        this.stepDuration = stepDuration;
+    }
+
+    /**
+     * Gets count of made steps
+     * @return number of next step
+     */
+    public int getStep(){
+        return this.snapshot.step;
+    }
+
+    /**
+     * Gets offset of tile by horizontal for direction
+     * @param direction the direction of step
+     * @return -1, 0 or 1
+     */
+    public static int getOffsetX(ActorDirection direction){
+        return OffsetX[direction.ordinal()];
+    }
+
+    /**
+     * Gets offset of tile by vertical for direction
+     * @param direction the direction of step
+     * @return -1, 0 or 1
+     */
+    public static int getOffsetY(ActorDirection direction){
+        return OffsetY[direction.ordinal()];
+    }
+
+    /**
+     * Copy positions of npc, arrays are reused between steps
+     */
+    private void takeSnapshot(Point playerPoint){
+        int count = this.store.getCount();
+        if (this.decisions.length < count){
+            this.snapshot.ids = new int[count];
+            this.snapshot.tileX = new int[count];
+            this.snapshot.tileY = new int[count];
+            this.decisions = new byte[count];
+            this.stepIndexes = new int[count];
+        }
+
+        for (int i = 0; i < count; i++){
+            this.snapshot.ids[i] = this.store.getId(i);
+            this.snapshot.tileX[i] = this.store.getTileX(i);
+            this.snapshot.tileY[i] = this.store.getTileY(i);
+        }
+
+        this.snapshot.count = count;
+        this.snapshot.playerX = playerPoint == null ? Integer.MIN_VALUE : playerPoint.x;
+        this.snapshot.playerY = playerPoint == null ? Integer.MIN_VALUE : playerPoint.y;
+    }
+
+    /**
+     * Make decisions of range of step indexes, every task writes only its part of decisions
+     */
+    private void decide(int from, int to){
+        for (int i = from; i < to; i++){
+            int index = this.stepIndexes[i];
+            NpcBehavior behavior = (index < this.behaviors.length) && (this.behaviors[index] != null)
+                    ? this.behaviors[index] : this.behavior;
+            ActorDirection direction = behavior.decide(index, this.snapshot);
+            this.decisions[index] = direction == null ? Stay : (byte) direction.ordinal();
+        }
+    }
+
+    /**
+     * Apply decisions in order of indexes. Tile is checked again, because it can be taken by previous npc.
+     */
+    private int merge(){
+        int movedCount = 0;
+        for (int step = 0; step < this.stepCount; step++){
+            int i = this.stepIndexes[step];
+            if (this.decisions[i] == Stay){
+                continue;
+            }
+
+            ActorDirection direction = Directions[this.decisions[i]];
+            int x = this.store.getTileX(i) + OffsetX[direction.ordinal()];
+            int y = this.store.getTileY(i) + OffsetY[direction.ordinal()];
+            this.store.setDirection(i, direction);
+            if (!this.snapshot.isFree(x, y)){
+                continue;
+            }
+
+            if ((this.snapshot.occupancyGrid != null) && !this.snapshot.occupancyGrid.moveTo(this.firstOccupantId + i, x, y)){
+                continue;
+            }
+
+            this.store.setPosition(i, x, y);
+            this.actorGrid.move(i, x, y);
+            movedCount++;
+        }
+
+        return movedCount;
+    }
+
+    @Override
+    public void dispose() {
+        this.store = null;
+        this.actorGrid = null;
+        this.behavior = null;
+        this.behaviors = null;
+        this.pool = null;
+        this.snapshot = null;
+        this.decisions = null;
+        this.stepIndexes = null;
+    }
+}
@@ -0,0 +1,386 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.util.Arrays;
+
+/**
+ * Represent the occupancy of map tiles by actors, every tile keeps id of actor, which is staying on it,
+ * and id of actor, which has reserved it. Only taken tiles are stored, in hash table by index of tile,
+ * so memory depends on count of actors and doesn't depend on size of map, e.g. streaming world.
+ * Check of tile costs constant time and doesn't depend on count of actors.
+ * Move of actor takes the target tile at start and keeps its previous tile reserved until the move is finished,
+ * so two actors can't enter the same tile and actor can't enter tile, which is left by other actor right now.
+ * Actor ids are small not negative numbers, usually index of actor in list.
+ */
+public class OccupancyGrid implements IDisposable {
+    /**
+     * Value of tile without actor
+     */
+    public static final int NoActor = -1;
+
+    /**
+     * Default count of actors, arrays grow when id is larger
+     */
+    private static final int DefaultActorCapacity = 16;
+
+    /**
+     * Default count of slots of table, it is power of two
+     */
+    private static final int DefaultTileCapacity = 64;
+
+    /**
+     * Key of slot without tile
+     */
+    private static final long NoTile = -1;
+
+    /**
+     * Size of map in tiles
+     */
+    private int width;
+    private int height;
+
+    /**
+     * Slots of hash table with linear probing: index of tile, id of actor, which is staying on tile,
+     * and id of actor, which has reserved tile. Slot is released, when tile doesn't have actors.
+     */
+    private long[] tileKeys;
+    private int[] occupants;
+    private int[] reservations;
+    private int tileCount;
+
+    /**
+     * Index of tile of actor and index of tile reserved by actor, by actor id. {@link #NoTile} when there is no tile.
+     */
+    private long[] actorTiles;
+    private long[] reservedTiles;
+
+    /**
+     * Initialize new instance of {@link OccupancyGrid}
+     * @param width width of map in tiles
+     * @param height height of map in tiles
+     */
+    public OccupancyGrid(int width, int height){
+        if ((width <= 0) || (height <= 0)){
+            throw new IllegalArgumentException("Size of grid should be positive");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.tileKeys = new long[DefaultTileCapacity];
+        this.occupants = new int[DefaultTileCapacity];
+        this.reservations = new int[DefaultTileCapacity];
+        this.actorTiles = new long[DefaultActorCapacity];
+        this.reservedTiles = new long[DefaultActorCapacity];
+
+        Arrays.fill(this.tileKeys, NoTile);
+        Arrays.fill(this.actorTiles, NoTile);
+        Arrays.fill(this.reservedTiles, NoTile);
+    }
+
+    /**
+     * Put actor to tile, e.g. on map load. Tile shouldn't be taken by other actor.
+     * @param actorId the id of actor
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return true, when actor is placed
+     */
+    public boolean place(int actorId, int x, int y){
+        this.ensureActorCapacity(actorId);
+        if (!this.isFreeFor(actorId, x, y)){
+            return false;
+        }
+
+        this.remove(actorId);
+        this.occupy(actorId, this.getTileIndex(x, y));
+        return true;
+    }
+
+    /**
+     * Start move of actor. Actor takes target tile and previous tile stays reserved till {@link #finishMove(int)}.
+     * Previous reservation of actor is released.
+     * @param actorId the id of actor
+     * @param x the target tile by horizontal
+     * @param y the target tile by vertical
+     * @return true, when target tile is taken, false when it is outside the map or taken by other actor
+     */
+    public boolean beginMove(int actorId, int x, int y){
+        this.ensureActorCapacity(actorId);
+        if (!this.isFreeFor(actorId, x, y)){
+            return false;
+        }
+
+        this.finishMove(actorId);
+
+        long previousTile = this.actorTiles[actorId];
+        if (previousTile != NoTile){
+            int slot = this.findSlot(previousTile);
+            this.occupants[slot] = NoActor;
+            this.reservations[slot] = actorId;
+            this.reservedTiles[actorId] = previousTile;
+        }
+
+        this.occupy(actorId, this.getTileIndex(x, y));
+        return true;
+    }
+
+    /**
+     * Finish move of actor, tile, which actor has left, is released
+     * @param actorId the id of actor
+     */
+    public void finishMove(int actorId){
+        if ((actorId >= this.reservedTiles.length) || (this.reservedTiles[actorId] == NoTile)){
+            return;
+        }
+
+        int slot = this.findSlot(this.reservedTiles[actorId]);
+        this.reservations[slot] = NoActor;
+        this.releaseSlotIfEmpty(slot);
+        this.reservedTiles[actorId] = NoTile;
+    }
+
+    /**
+     * Move actor to tile at once
+     * @param actorId the id of actor
+     * @param x the target tile by horizontal
+     * @param y the target tile by vertical
+     * @return true, when actor is moved
+     */
+    public boolean moveTo(int actorId, int x, int y){
+        if (!this.beginMove(actorId, x, y)){
+            return false;
+        }
+
+        this.finishMove(actorId);
+        return true;
+    }
+
+    /**
+     * Remove actor and its reservation from grid
+     * @param actorId the id of actor
+     */
+    public void remove(int actorId){
+        if (actorId >= this.actorTiles.length){
+            return;
+        }
+
+        this.finishMove(actorId);
+        if (this.actorTiles[actorId] != NoTile){
+            int slot = this.findSlot(this.actorTiles[actorId]);
+            this.occupants[slot] = NoActor;
+            this.releaseSlotIfEmpty(slot);
+            this.actorTiles[actorId] = NoTile;
+        }
+    }
+
+    /**
+     * Check when tile isn't taken or reserved by actors
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return true, when tile is inside the map and free
+     */
+    public boolean isFree(int x, int y){
+        return this.isFreeFor(NoActor, x, y);
+    }
+
+    /**
+     * Check when actor can enter tile, tile can be taken or reserved by the actor itself
+     * @param actorId the id of actor
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return true, when tile is inside the map and isn't taken by other actors
+     */
+    public boolean isFreeFor(int actorId, int x, int y){
+        if (!this.contains(x, y)){
+            return false;
+        }
+
+        int slot = this.findSlot(this.getTileIndex(x, y));
+        if (slot < 0){
+            return true;
+        }
+
+        int occupant = this.occupants[slot];
+        int reservation = this.reservations[slot];
+        return ((occupant == NoActor) || (occupant == actorId))
+                && ((reservation == NoActor) || (reservation == actorId));
+    }
+
+    /**
+     * Find actor, which is staying on tile
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @return id of actor or {@link #NoActor}
+     */
+    public int getActorAt(int x, int y){
+        if (!this.contains(x, y)){
+            return NoActor;
+        }
+
+        int slot = this.findSlot(this.getTileIndex(x, y));
+        return slot < 0 ? NoActor : this.occupants[slot];
+    }
+
+    public boolean contains(int x, int y){
+        return (x >= 0) && (y >= 0) && (x < this.width) && (y < this.height);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets count of tiles, which are taken or reserved
+     * @return count of tiles in table
+     */
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    private void occupy(int actorId, long tileIndex){
+        //Slot is taken before the array is read, because table can be resized
+        int slot = this.takeSlot(tileIndex);
+        this.occupants[slot] = actorId;
+        this.actorTiles[actorId] = tileIndex;
+    }
+
+    private long getTileIndex(int x, int y){
+        return (long) y * this.width + x;
+    }
+
+    /**
+     * Find slot of tile
+     * @return index of slot or -1, when tile doesn't have actors
+     */
+    private int findSlot(long tileIndex){
+        int mask = this.tileKeys.length - 1;
+        for (int slot = hash(tileIndex) & mask; this.tileKeys[slot] != NoTile; slot = (slot + 1) & mask){
+            if (this.tileKeys[slot] == tileIndex){
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Find slot of tile or add new slot
+     * @return index of slot
+     */
+    private int takeSlot(long tileIndex){
+        int slot = this.findSlot(tileIndex);
+        if (slot >= 0){
+            return slot;
+        }
+
+        //Table is kept half empty, so chains of linear probing stay short
+        if ((this.tileCount + 1) * 2 > this.tileKeys.length){
+            this.resizeTable(this.tileKeys.length * 2);
+        }
+
+        int mask = this.tileKeys.length - 1;
+        slot = hash(tileIndex) & mask;
+        while (this.tileKeys[slot] != NoTile){
+            slot = (slot + 1) & mask;
+        }
+
+        this.tileKeys[slot] = tileIndex;
+        this.occupants[slot] = NoActor;
+        this.reservations[slot] = NoActor;
+        this.tileCount++;
+        return slot;
+    }
+
+    /**
+     * Remove slot, when tile doesn't have actors. Next slots of chain are moved back, so search doesn't stop on hole.
+     */
+    private void releaseSlotIfEmpty(int slot){
+        if ((this.occupants[slot] != NoActor) || (this.reservations[slot] != NoActor)){
+            return;
+        }
+
+        int mask = this.tileKeys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (this.tileKeys[next] != NoTile){
+            int home = hash(this.tileKeys[next]) & mask;
+            //Slot is moved, when its home isn't placed between hole and slot by cycle
+            if (((next - home) & mask) >= ((next - hole) & mask)){
+                this.tileKeys[hole] = this.tileKeys[next];
+                this.occupants[hole] = this.occupants[next];
+                this.reservations[hole] = this.reservations[next];
+                hole = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        this.tileKeys[hole] = NoTile;
+        this.tileCount--;
+    }
+
+    private void resizeTable(int capacity){
+        long[] keys = this.tileKeys;
+        int[] occupants = this.occupants;
+        int[] reservations = this.reservations;
+
+        this.tileKeys = new long[capacity];
+        this.occupants = new int[capacity];
+        this.reservations = new int[capacity];
+        Arrays.fill(this.tileKeys, NoTile);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < keys.length; i++){
+            if (keys[i] == NoTile){
+                continue;
+            }
+
+            int slot = hash(keys[i]) & mask;
+            while (this.tileKeys[slot] != NoTile){
+                slot = (slot + 1) & mask;
+            }
+
+            this.tileKeys[slot] = keys[i];
+            this.occupants[slot] = occupants[i];
+            this.reservations[slot] = reservations[i];
+        }
+    }
+
+    /**
+     * Spread bits of tile index, neighbour tiles get distant slots
+     */
+    private static int hash(long tileIndex){
+        long value = tileIndex * 0x9E3779B97F4A7C15L;
+        return (int) (value ^ (value >>> 32));
+    }
+
+    private void ensureActorCapacity(int actorId){
+        if (actorId < 0){
+            throw new IllegalArgumentException("Id of actor shouldn't be negative");
+        }
+
+        if (actorId < this.actorTiles.length){
+            return;
+        }
+
+        int oldSize = this.actorTiles.length;
+        int size = Math.max(oldSize * 2, actorId + 1);
+        this.actorTiles = Arrays.copyOf(this.actorTiles, size);
+        this.reservedTiles = Arrays.copyOf(this.reservedTiles, size);
+        Arrays.fill(this.actorTiles, oldSize, size, NoTile);
+        Arrays.fill(this.reservedTiles, oldSize, size, NoTile);
+    }
+
+    @Override
+    public void dispose() {
+        this.tileKeys = null;
+        this.occupants = null;
+        this.reservations = null;
+        this.actorTiles = null;
+        this.reservedTiles = null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import org.newdawn.slick.tiled.TiledMap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Represent the tiles of layers, which are stored outside the heap as 16-bit global tile ids.
+ * Buffers are direct or memory mapped, so heap doesn't depend on size of map.
+ * Read only layer, e.g. part of mapped file, is copied to direct memory on the first change.
+ * Ids are unsigned, the largest id is {@link #MaxTileId}.
+ */
+public class OffHeapTileStore implements IDisposable {
+    /**
+     * The largest global tile id, which can be stored
+     */
+    public static final int MaxTileId = 0xFFFF;
+
+    /**
+     * Tiles of layers by rows, one buffer for every layer
+     */
+    private ShortBuffer[] layers;
+
+    /**
+     * Count of tiles by horizontal and vertical
+     */
+    private int width;
+    private int height;
+
+    /**
+     * Initialize new instance of {@link OffHeapTileStore} in direct memory, all tiles are empty
+     * @param width count of tiles by horizontal
+     * @param height count of tiles by vertical
+     * @param layerCount count of layers
+     */
+    public OffHeapTileStore(int width, int height, int layerCount){
+        if ((width < 0) || (height < 0) || (layerCount < 0)){
+            throw new IllegalArgumentException("Size of tile store shouldn't be negative");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.layers = new ShortBuffer[layerCount];
+        for (int i = 0; i < layerCount; i++){
+            this.layers[i] = allocateLayer(width * height);
+        }
+    }
+
+    /**
+     * Initialize new instance of {@link OffHeapTileStore} over existing buffers, e.g. parts of mapped file
+     * @param width count of tiles by horizontal
+     * @param height count of tiles by vertical
+     * @param layers the tiles of layers by rows, every buffer has width * height ids
+     */
+    public OffHeapTileStore(int width, int height, ShortBuffer[] layers){
+        for (ShortBuffer layer: layers) {
+            if (layer.capacity() != width * height){
+                throw new IllegalArgumentException("Count of tiles in layer doesn't match size of store");
+            }
+        }
+
+        this.width = width;
+        this.height = height;
+        this.layers = layers;
+    }
+
+    /**
+     * Copy tiles of all layers of map to new store
+     * @param map the tiled map
+     * @return new instance of {@link OffHeapTileStore}
+     */
+    public static OffHeapTileStore createFromMap(TiledMap map){
+        OffHeapTileStore store = new OffHeapTileStore(map.getWidth(), map.getHeight(), map.getLayerCount());
+        for (int layer = 0; layer < map.getLayerCount(); layer++){
+            for (int y = 0; y < map.getHeight(); y++){
+                for (int x = 0; x < map.getWidth(); x++){
+                    store.setTileId(x, y, layer, map.getTileId(x, y, layer));
+                }
+            }
+        }
+
+        return store;
+    }
+
+    /**
+     * Gets global id of tile
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @param layerIndex the index of layer
+     * @return the global tile id, 0 for empty tile
+     */
+    public int getTileId(int x, int y, int layerIndex){
+        return this.layers[layerIndex].get(y * this.width + x) & MaxTileId;
+    }
+
+    /**
+     * Change global id of tile
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @param layerIndex the index of layer
+     * @param tileId the global tile id, 0 for empty tile
+     */
+    public void setTileId(int x, int y, int layerIndex, int tileId){
+        if ((tileId < 0) || (tileId > MaxTileId)){
+            throw new IllegalArgumentException("Tile id " + tileId + " doesn't fit to 16 bits");
+        }
+
+        if (this.layers[layerIndex].isReadOnly()){
+            ShortBuffer layer = allocateLayer(this.width * this.height);
+            layer.put(this.layers[layerIndex].duplicate());
+            this.layers[layerIndex] = layer;
+        }
+
+        this.layers[layerIndex].put(y * this.width + x, (short) tileId);
+    }
+
+    /**
+     * Check when tile of layer isn't empty
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     * @param layerIndex the index of layer
+     * @return true, when layer has tile
+     */
+    public boolean hasTile(int x, int y, int layerIndex){
+        return this.layers[layerIndex].get(y * this.width + x) != 0;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLayerCount() {
+        return this.layers.length;
+    }
+
+    /**
+     * Gets count of bytes, which are used by tiles outside the heap
+     * @return count of bytes
+     */
+    public long getByteSize(){
+        return 2L * this.width * this.height * this.layers.length;
+    }
+
+    private static ShortBuffer allocateLayer(int tileCount){
+        return ByteBuffer.allocateDirect(tileCount * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+
+    @Override
+    public void dispose() {
+        this.layers = null;
+    }
+}
@@ -0,0 +1,291 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+
+import java.util.Arrays;
+
+/**
+ * Represent the A* search of path over {@link CollisionGrid}. Actors are moved by four directions.
+ * Search buffers are allocated once for map and reused between searches,
+ * so instance shouldn't be used from several threads at the same time.
+ */
+public class PathFinder implements IDisposable {
+    /**
+     * Represent the result of search
+     */
+    public enum SearchResult {Found, NotFound, BudgetExceeded}
+
+    /**
+     * Default max count of expanded tiles for one search
+     */
+    public static final int DefaultNodeBudget = 4096;
+
+    private static final int[] NeighbourOffsetX = {0, 1, 0, -1};
+    private static final int[] NeighbourOffsetY = {-1, 0, 1, 0};
+
+    /**
+     * The walkability of map
+     */
+    private CollisionGrid grid;
+
+    /**
+     * The tiles taken by actors, null when actors aren't obstacles
+     */
+    private OccupancyGrid occupancyGrid;
+
+    /**
+     * Cost of path from start by tile index. Valid only when searchMarks has current search number.
+     */
+    private int[] costs;
+
+    /**
+     * Index of previous tile in path by tile index
+     */
+    private int[] parents;
+
+    /**
+     * Number of search, which has visited the tile
+     */
+    private int[] searchMarks;
+
+    /**
+     * Number of search, which has closed the tile
+     */
+    private int[] closedMarks;
+
+    /**
+     * Number of current search
+     */
+    private int searchNumber;
+
+    /**
+     * The open set of tile indexes sorted by estimated cost
+     */
+    private IntMinHeap openSet;
+
+    /**
+     * The area, where search is allowed. Whole map by default.
+     */
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    /**
+     * Count of tiles, which were expanded by last search
+     */
+    private int expandedCount;
+
+    /**
+     * Initialize new instance of {@link PathFinder}
+     * @param grid the walkability of map
+     */
+    public PathFinder(CollisionGrid grid){
+        if (grid == null){
+            throw new IllegalArgumentException("Collision grid shouldn't be null");
+        }
+
+        int tilesCount = grid.getWidth() * grid.getHeight();
+        this.grid = grid;
+        this.costs = new int[tilesCount];
+        this.parents = new int[tilesCount];
+        this.searchMarks = new int[tilesCount];
+        this.closedMarks = new int[tilesCount];
+        this.openSet = new IntMinHeap();
+        this.resetSearchArea();
+    }
+
+    /**
+     * Limit the search by rectangle of tiles. Limit is used by all next searches.
+     * @param x the left tile of area
+     * @param y the top tile of area
+     * @param width count of tiles by horizontal
+     * @param height count of tiles by vertical
+     */
+    public void setSearchArea(int x, int y, int width, int height){
+        this.minX = Math.max(x, 0);
+        this.minY = Math.max(y, 0);
+        this.maxX = Math.min(x + width, this.grid.getWidth()) - 1;
+        this.maxY = Math.min(y + height, this.grid.getHeight()) - 1;
+    }
+
+    /**
+     * Allow the search on whole map
+     */
+    public void resetSearchArea(){
+        this.setSearchArea(0, 0, this.grid.getWidth(), this.grid.getHeight());
+    }
+
+    /**
+     * Set tiles of actors, which are obstacles for next searches. Goal tile can be taken by actor.
+     * @param occupancyGrid the occupancy grid, null when actors aren't obstacles
+     */
+    public void setOccupancyGrid(OccupancyGrid occupancyGrid){
+        this.occupancyGrid = occupancyGrid;
+    }
+
+    public OccupancyGrid getOccupancyGrid() {
+        return occupancyGrid;
+    }
+
+    /**
+     * Find the shortest path between tiles with default budget
+     * @see #findPath(int, int, int, int, int, TilePath)
+     */
+    public SearchResult findPath(int startX, int startY, int goalX, int goalY, TilePath path){
+        return this.findPath(startX, startY, goalX, goalY, DefaultNodeBudget, path);
+    }
+
+    /**
+     * Find the shortest path between tiles
+     * @param startX the start tile by horizontal
+     * @param startY the start tile by vertical
+     * @param goalX the goal tile by horizontal
+     * @param goalY the goal tile by vertical
+     * @param nodeBudget max count of tiles, which can be expanded
+     * @param path the path, which is filled by steps when path is found
+     * @return result of search
+     */
+    public SearchResult findPath(int startX, int startY, int goalX, int goalY, int nodeBudget, TilePath path){
+        path.clear();
+        this.expandedCount = 0;
+
+        if (!this.isInsideArea(startX, startY) || !this.isInsideArea(goalX, goalY)
+                || this.grid.isBlocked(goalX, goalY)){
+            return SearchResult.NotFound;
+        }
+
+        if ((startX == goalX) && (startY == goalY)){
+            return SearchResult.Found;
+        }
+
+        this.startSearch();
+
+        int width = this.grid.getWidth();
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+
+        this.costs[start] = 0;
+        this.parents[start] = -1;
+        this.searchMarks[start] = this.searchNumber;
+        this.openSet.push(start, this.estimate(startX, startY, goalX, goalY));
+
+        while (!this.openSet.isEmpty()){
+            int current = this.openSet.pop();
+            if (this.closedMarks[current] == this.searchNumber){
+                continue;
+            }
+
+            if (current == goal){
+                this.collectPath(goal, path);
+                return SearchResult.Found;
+            }
+
+            if (this.expandedCount == nodeBudget){
+                return SearchResult.BudgetExceeded;
+            }
+
+            this.closedMarks[current] = this.searchNumber;
+            this.expandedCount++;
+
+            int currentX = current % width;
+            int currentY = current / width;
+            int nextCost = this.costs[current] + 1;
+
+            for (int i = 0; i < NeighbourOffsetX.length; i++){
+                int x = currentX + NeighbourOffsetX[i];
+                int y = currentY + NeighbourOffsetY[i];
+                if (!this.isInsideArea(x, y) || this.grid.isBlocked(x, y) || this.isOccupied(x, y, goalX, goalY)){
+                    continue;
+                }
+
+                int neighbour = y * width + x;
+                if (this.closedMarks[neighbour] == this.searchNumber){
+                    continue;
+                }
+
+                if ((this.searchMarks[neighbour] == this.searchNumber) && (this.costs[neighbour] <= nextCost)){
+                    continue;
+                }
+
+                this.searchMarks[neighbour] = this.searchNumber;
+                this.costs[neighbour] = nextCost;
+                this.parents[neighbour] = current;
+                this.openSet.push(neighbour, nextCost + this.estimate(x, y, goalX, goalY));
+            }
+        }
+
+        return SearchResult.NotFound;
+    }
+
+    /**
+     * Gets count of tiles, which were expanded by last search
+     * @return count of tiles
+     */
+    public int getExpandedCount(){
+        return this.expandedCount;
+    }
+
+    /**
+     * Gets the walkability of map, which is used by search
+     * @return instance of {@link CollisionGrid}
+     */
+    public CollisionGrid getGrid(){
+        return this.grid;
+    }
+
+    /**
+     * Prepare buffers for new search
+     */
+    private void startSearch(){
+        this.openSet.clear();
+        this.searchNumber++;
+
+        if (this.searchNumber == Integer.MAX_VALUE){
+            Arrays.fill(this.searchMarks, 0);
+            Arrays.fill(this.closedMarks, 0);
+            this.searchNumber = 1;
+        }
+    }
+
+    private boolean isInsideArea(int x, int y){
+        return (x >= this.minX) && (x <= this.maxX) && (y >= this.minY) && (y <= this.maxY);
+    }
+
+    /**
+     * Manhattan distance between tiles
+     */
+    private int estimate(int x, int y, int goalX, int goalY){
+        return Math.abs(x - goalX) + Math.abs(y - goalY);
+    }
+
+    /**
+     * Fill the path by parents from goal to start
+     */
+    private void collectPath(int goal, TilePath path){
+        int width = this.grid.getWidth();
+        for (int tile = goal; this.parents[tile] >= 0; tile = this.parents[tile]){
+            path.add(tile % width, tile / width);
+        }
+
+        path.reverse();
+    }
+
+    /**
+     * Check when tile is taken by actor, goal tile isn't counted
+     */
+    private boolean isOccupied(int x, int y, int goalX, int goalY){
+        return (this.occupancyGrid != null) && ((x != goalX) || (y != goalY)) && !this.occupancyGrid.isFree(x, y);
+    }
+
+    @Override
+    public void dispose() {
+        this.grid = null;
+        this.occupancyGrid = null;
+        this.costs = null;
+        this.parents = null;
+        this.searchMarks = null;
+        this.closedMarks = null;
+        this.openSet = null;
+    }
+}
@@ -0,0 +1,157 @@
+package com.story.scene.components.helpers;
+
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.opengl.ImageDataFactory;
+import org.newdawn.slick.opengl.LoadableImageData;
+import org.newdawn.slick.tiled.Layer;
+import org.newdawn.slick.tiled.TileSet;
+import org.newdawn.slick.tiled.TiledMap;
+import org.newdawn.slick.util.ResourceLoader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+/**
+ * Represent the tiled map, which is loaded in two steps. The constructor parses TMX, decodes layers and
+ * decodes pixels of tile sets, so it can be called from any thread. The textures are created by
+ * {@link #uploadTextures()}, which should be called from thread of OpenGL context.
+ */
+public class PrefetchedTiledMap extends TiledMap {
+    private static final String TileSetTagName = "tileset";
+    private static final String ImageTagName = "image";
+    private static final String SourceAttributeName = "source";
+    private static final String TransparentAttributeName = "trans";
+
+    /**
+     * Tile sets without images in order of TMX
+     */
+    private ArrayList<TileSet> pendingTileSets;
+
+    /**
+     * Decoded pixels of tile sets in order of TMX
+     */
+    private ArrayList<LoadableImageData> pendingImages;
+
+    /**
+     * Variable have true value, when textures are created
+     */
+    private boolean isUploaded;
+
+    /**
+     * Initialize new instance of {@link PrefetchedTiledMap}. Textures aren't created.
+     * @param ref the path to TMX file
+     * @throws SlickException indicated when map or images of tile sets can't be read
+     */
+    public PrefetchedTiledMap(String ref) throws SlickException {
+        super(ref, false);
+        this.pendingTileSets = new ArrayList<>();
+        this.pendingImages = new ArrayList<>();
+        this.isUploaded = false;
+        this.loadTileSets(ref);
+    }
+
+    /**
+     * Create textures of tile sets and link tiles of layers with tile sets
+     * @return this map, which is ready for render
+     * @throws SlickException indicated when texture can't be created
+     */
+    @SuppressWarnings("unchecked")
+    public TiledMap uploadTextures() throws SlickException {
+        if (this.isUploaded){
+            return this;
+        }
+
+        for (int i = 0; i < this.pendingTileSets.size(); i++){
+            TileSet tileSet = this.pendingTileSets.get(i);
+            tileSet.setTileSetImage(new Image(this.pendingImages.get(i), Image.FILTER_NEAREST));
+            if (i > 0){
+                this.pendingTileSets.get(i - 1).setLimit(tileSet.firstGID - 1);
+            }
+
+            this.tileSets.add(tileSet);
+        }
+
+        //Layers were decoded without tile sets, only global ids of tiles are known
+        for (Object layer: this.layers) {
+            TileSetLinker.link(this, (Layer) layer);
+        }
+
+        this.pendingTileSets = null;
+        this.pendingImages = null;
+        this.isUploaded = true;
+
+        return this;
+    }
+
+    public boolean isUploaded() {
+        return isUploaded;
+    }
+
+    /**
+     * Read tile sets without images and decode pixels of their images
+     */
+    private void loadTileSets(String ref) throws SlickException {
+        NodeList tileSetElements = this.parse(ref).getDocumentElement().getElementsByTagName(TileSetTagName);
+        for (int i = 0; i < tileSetElements.getLength(); i++){
+            Element element = (Element) tileSetElements.item(i);
+            TileSet tileSet = new TileSet(this, element, false);
+            tileSet.index = i;
+
+            //External tile set stores its image in own file
+            String source = element.getAttribute(SourceAttributeName);
+            if ((source != null) && !source.isEmpty()){
+                element = this.parse(this.tilesLocation + "/" + source).getDocumentElement();
+            }
+
+            Element imageElement = (Element) element.getElementsByTagName(ImageTagName).item(0);
+            this.pendingTileSets.add(tileSet);
+            this.pendingImages.add(this.decodeImage(this.tilesLocation + "/" + imageElement.getAttribute(SourceAttributeName),
+                    imageElement.getAttribute(TransparentAttributeName)));
+        }
+    }
+
+    /**
+     * Decode pixels of image without creating the texture
+     * @param path the path to image
+     * @param transparent the color in hex, which should be transparent, or empty string
+     */
+    private LoadableImageData decodeImage(String path, String transparent) throws SlickException {
+        int[] transparentColor = null;
+        if ((transparent != null) && !transparent.isEmpty()){
+            int color = Integer.parseInt(transparent, 16);
+            transparentColor = new int[]{(color >> 16) & 0xFF, (color >> 8) & 0xFF, color & 0xFF};
+        }
+
+        LoadableImageData imageData = ImageDataFactory.getImageDataFor(path);
+        try (InputStream stream = new BufferedInputStream(ResourceLoader.getResourceAsStream(path))) {
+            imageData.loadImage(stream, false, transparentColor);
+        } catch (Exception e) {
+            throw new SlickException("Unable to decode image of tile set: " + path, e);
+        }
+
+        return imageData;
+    }
+
+    private Document parse(String ref) throws SlickException {
+        try (InputStream stream = ResourceLoader.getResourceAsStream(ref)) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setValidating(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            //DTD of TMX isn't loaded
+            builder.setEntityResolver((publicId, systemId) -> new InputSource(new ByteArrayInputStream(new byte[0])));
+
+            return builder.parse(stream);
+        } catch (Exception e) {
+            throw new SlickException("Unable to parse tiled map: " + ref, e);
+        }
+    }
+}
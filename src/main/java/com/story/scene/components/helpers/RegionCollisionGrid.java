@@ -0,0 +1,79 @@
+package com.story.scene.components.helpers;
+
+/**
+ * Represent the walkability of streaming world. Tiles are taken from grids of loaded regions,
+ * tiles of not loaded regions are blocked.
+ */
+class RegionCollisionGrid extends CollisionGrid {
+    /**
+     * The world, which stores regions
+     */
+    private StreamingTiledMap world;
+
+    RegionCollisionGrid(StreamingTiledMap world){
+        super(world.getWidth(), world.getHeight(), false);
+        this.world = world;
+    }
+
+    @Override
+    public boolean isFree(int x, int y) {
+        return this.contains(x, y) && (this.world != null) && !this.world.isTileBlocked(x, y);
+    }
+
+    /**
+     * Change state of tile. Change is lost, when region of tile is unloaded.
+     */
+    @Override
+    public void setBlocked(int x, int y, boolean blocked) {
+        if (!this.contains(x, y)){
+            throw new IndexOutOfBoundsException("Tile " + x + ":" + y + " is outside the grid");
+        }
+
+        this.world.setTileBlocked(x, y, blocked);
+    }
+
+    /**
+     * Gets count of blocked tiles in loaded regions
+     */
+    @Override
+    public int getBlockedCount() {
+        return this.world.getLoadedBlockedCount();
+    }
+
+    /**
+     * Gets count of packed words of whole world
+     */
+    @Override
+    public int getWordCount() {
+        return (int)(((long)this.getWidth() * this.getHeight() + 63) >>> 6);
+    }
+
+    /**
+     * Gets packed word, which is built from loaded regions. Tiles of not loaded regions are blocked.
+     */
+    @Override
+    public long getWord(int index) {
+        long tileCount = (long)this.getWidth() * this.getHeight();
+        long word = 0;
+        for (int bit = 0; bit < 64; bit++){
+            long tileIndex = ((long)index << 6) + bit;
+            if (tileIndex >= tileCount){
+                break;
+            }
+
+            int x = (int)(tileIndex % this.getWidth());
+            int y = (int)(tileIndex / this.getWidth());
+            if (!this.isFree(x, y)){
+                word |= 1L << bit;
+            }
+        }
+
+        return word;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        this.world = null;
+    }
+}
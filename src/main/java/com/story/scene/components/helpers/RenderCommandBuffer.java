@@ -0,0 +1,259 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import com.story.utils.log.Trace;
+import org.newdawn.slick.Image;
+
+import java.util.Arrays;
+
+/**
+ * Represent the buffer of draw commands of scene, components write commands to it during render.
+ * Every command has layer, sort key and texture. Buffer is sorted once per frame by layer, then by sort key,
+ * then by texture, and it is drawn by {@link SpriteBatch}, which merges neighbour commands of one texture.
+ * Commands outside the screen are culled, statistic of the last flush is kept for profiling.
+ */
+public class RenderCommandBuffer implements IDisposable {
+    /**
+     * Represent the layer of scene, layers are drawn from first to last.
+     * Ground is map under actors in order of layers, Actors are actors and foreground tiles in order of depth.
+     */
+    public enum Layer {Ground, Actors}
+
+    /**
+     * Default count of commands, arrays grow when it isn't enough
+     */
+    public static final int DefaultCapacity = 512;
+
+    /**
+     * Max count of commands per frame, number of command is kept in low bits of key
+     */
+    public static final int MaxCommands = 1 << 20;
+
+    /**
+     * Id of texture of image without texture
+     */
+    private static final int NoTexture = 0;
+
+    /**
+     * Bits of key: layer, sort key, texture, number of command
+     */
+    private static final int SortKeyShift = 35;
+    private static final int TextureShift = 20;
+    private static final int LayerShift = 59;
+    private static final long SortKeyMask = 0xFFFFFF;
+    private static final long TextureMask = 0x7FFF;
+    private static final long IndexMask = MaxCommands - 1;
+
+    /**
+     * The images of commands and their screen positions
+     */
+    private Image[] images;
+    private float[] x;
+    private float[] y;
+
+    /**
+     * Keys for sorting
+     */
+    private long[] keys;
+
+    /**
+     * Count of commands
+     */
+    private int count;
+
+    /**
+     * Size of screen for culling, 0 when commands aren't culled
+     */
+    private int screenWidth;
+    private int screenHeight;
+
+    /**
+     * Statistic of the last flush
+     */
+    private int commandCount;
+    private int culledCount;
+    private int drawCallCount;
+
+    /**
+     * Count of culled commands of current frame
+     */
+    private int frameCulledCount;
+
+    /**
+     * Initialize new instance of {@link RenderCommandBuffer}
+     * @param capacity initial count of commands
+     * @param screenWidth width of screen for culling, 0 disables culling
+     * @param screenHeight height of screen for culling, 0 disables culling
+     */
+    public RenderCommandBuffer(int capacity, int screenWidth, int screenHeight){
+        int size = Math.min(Math.max(capacity, 1), MaxCommands);
+        this.images = new Image[size];
+        this.x = new float[size];
+        this.y = new float[size];
+        this.keys = new long[size];
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+    }
+
+    /**
+     * Initialize new instance of {@link RenderCommandBuffer} with {@link #DefaultCapacity}
+     * @param screenWidth width of screen for culling
+     * @param screenHeight height of screen for culling
+     */
+    public RenderCommandBuffer(int screenWidth, int screenHeight){
+        this(DefaultCapacity, screenWidth, screenHeight);
+    }
+
+    /**
+     * Add command to buffer
+     * @param layer the layer of command
+     * @param sortKey the order of command inside layer, from 0 to 16777215. Commands with equal key are sorted by texture.
+     * @param image the image for drawing
+     * @param x draw position by horizontal
+     * @param y draw position by vertical
+     */
+    public void add(Layer layer, int sortKey, Image image, float x, float y){
+        if (image == null){
+            return;
+        }
+
+        if (this.isOutsideScreen(image, x, y)){
+            this.frameCulledCount++;
+            return;
+        }
+
+        if (this.count == this.images.length){
+            if (this.count == MaxCommands){
+                Trace.error("Count of render commands is more than " + MaxCommands);
+                return;
+            }
+
+            this.grow();
+        }
+
+        long textureId = image.getTexture() == null ? NoTexture : image.getTexture().getTextureID();
+        this.images[this.count] = image;
+        this.x[this.count] = x;
+        this.y[this.count] = y;
+        this.keys[this.count] = ((long) layer.ordinal() << LayerShift)
+                | ((Math.max(sortKey, 0) & SortKeyMask) << SortKeyShift)
+                | ((textureId & TextureMask) << TextureShift)
+                | this.count;
+        this.count++;
+    }
+
+    /**
+     * Sort commands of current frame, commands are available by {@link #getImage(int)} till flush
+     * @return count of commands
+     */
+    public int sort(){
+        Arrays.sort(this.keys, 0, this.count);
+        return this.count;
+    }
+
+    /**
+     * Draw commands in sorted order and clear buffer
+     * @param batch the batch, which keeps order of sprites and merges neighbour sprites of one texture
+     */
+    public void flush(SpriteBatch batch){
+        int size = this.sort();
+        for (int i = 0; i < size; i++){
+            batch.add(this.getImage(i), this.getX(i), this.getY(i));
+        }
+
+        batch.flush();
+        this.commandCount = size;
+        this.culledCount = this.frameCulledCount;
+        this.drawCallCount = batch.getBindCount();
+        this.clear();
+    }
+
+    /**
+     * Remove commands without drawing
+     */
+    public void clear(){
+        Arrays.fill(this.images, 0, this.count, null);
+        this.count = 0;
+        this.frameCulledCount = 0;
+    }
+
+    /**
+     * Gets image of sorted command
+     * @param index the position of command after {@link #sort()}
+     * @return the image
+     */
+    public Image getImage(int index){
+        return this.images[(int) (this.keys[index] & IndexMask)];
+    }
+
+    public float getX(int index){
+        return this.x[(int) (this.keys[index] & IndexMask)];
+    }
+
+    public float getY(int index){
+        return this.y[(int) (this.keys[index] & IndexMask)];
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets count of drawn commands of the last flush
+     * @return count of commands
+     */
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Gets count of commands outside the screen of the last flush
+     * @return count of commands
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+
+    /**
+     * Gets count of texture binds of the last flush
+     * @return count of draw calls
+     */
+    public int getDrawCallCount() {
+        return drawCallCount;
+    }
+
+    /**
+     * Change size of screen for culling
+     * @param screenWidth width of screen, 0 disables culling
+     * @param screenHeight height of screen, 0 disables culling
+     */
+    public void setScreenSize(int screenWidth, int screenHeight){
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+    }
+
+    private boolean isOutsideScreen(Image image, float x, float y){
+        if ((this.screenWidth <= 0) || (this.screenHeight <= 0)){
+            return false;
+        }
+
+        return (x >= this.screenWidth) || (y >= this.screenHeight)
+                || (x + image.getWidth() <= 0) || (y + image.getHeight() <= 0);
+    }
+
+    private void grow(){
+        int size = Math.min(this.images.length * 2, MaxCommands);
+        this.images = Arrays.copyOf(this.images, size);
+        this.x = Arrays.copyOf(this.x, size);
+        this.y = Arrays.copyOf(this.y, size);
+        this.keys = Arrays.copyOf(this.keys, size);
+    }
+
+    @Override
+    public void dispose() {
+        this.images = null;
+        this.x = null;
+        this.y = null;
+        this.keys = null;
+    }
+}
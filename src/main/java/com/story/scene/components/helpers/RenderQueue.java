@@ -0,0 +1,325 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import org.newdawn.slick.Image;
+
+import java.util.Arrays;
+
+/**
+ * Represent the queue of sprites, which are drawn in order of their depth, bottom of sprite on screen.
+ * Sprites of actors are identified by key, their order is kept between frames and is corrected
+ * by insertion sort, so it costs close to linear time while actors move a little every frame.
+ * Sprites of tiles are added row by row and they are sorted already, they are merged with actors on drawing.
+ * When depth is equal, actors are drawn before tiles and actor with the least key is drawn first.
+ */
+public class RenderQueue implements IDisposable {
+    /**
+     * Default count of sprites, arrays grow when it isn't enough
+     */
+    public static final int DefaultCapacity = 256;
+
+    /**
+     * Sprites of actors by key
+     */
+    private Image[] actorImages;
+    private float[] actorX;
+    private float[] actorY;
+    private int[] actorDepths;
+
+    /**
+     * Number of frame, when actor was added, by key
+     */
+    private int[] actorFrames;
+
+    /**
+     * True, when key is in order of previous frames
+     */
+    private boolean[] isOrdered;
+
+    /**
+     * Keys of actors sorted by depth, order is kept between frames
+     */
+    private int[] order;
+    private int orderCount;
+
+    /**
+     * Keys of actors, which were added first time or after pause
+     */
+    private int[] addedKeys;
+    private int addedCount;
+
+    /**
+     * Sprites of tiles in order of adding
+     */
+    private Image[] tileImages;
+    private float[] tileX;
+    private float[] tileY;
+    private int[] tileDepths;
+    private int tileCount;
+
+    /**
+     * Sprites of both kinds in order of drawing, they are filled by {@link #sort()}
+     */
+    private Image[] images;
+    private float[] x;
+    private float[] y;
+    private int count;
+
+    /**
+     * Number of current frame
+     */
+    private int frame;
+
+    /**
+     * Count of moves of keys by insertion sort on the last frame
+     */
+    private int shiftCount;
+
+    /**
+     * Initialize new instance of {@link RenderQueue}
+     * @param capacity initial count of actors and tiles
+     */
+    public RenderQueue(int capacity){
+        int size = Math.max(capacity, 1);
+        this.actorImages = new Image[size];
+        this.actorX = new float[size];
+        this.actorY = new float[size];
+        this.actorDepths = new int[size];
+        this.actorFrames = new int[size];
+        this.isOrdered = new boolean[size];
+        this.order = new int[size];
+        this.addedKeys = new int[size];
+        this.tileImages = new Image[size];
+        this.tileX = new float[size];
+        this.tileY = new float[size];
+        this.tileDepths = new int[size];
+        this.images = new Image[size * 2];
+        this.x = new float[size * 2];
+        this.y = new float[size * 2];
+
+        //No actor is added on the first frame yet
+        Arrays.fill(this.actorFrames, -1);
+    }
+
+    /**
+     * Initialize new instance of {@link RenderQueue} with {@link #DefaultCapacity}
+     */
+    public RenderQueue(){
+        this(DefaultCapacity);
+    }
+
+    /**
+     * Add sprite of actor. Actor is drawn on this frame only, it should be added every frame.
+     * @param key the key of actor, it should be the same on every frame and small, because it is index of arrays
+     * @param image the image of sprite
+     * @param x draw position by horizontal
+     * @param y draw position by vertical
+     */
+    public void addActor(int key, Image image, float x, float y){
+        if (image == null){
+            return;
+        }
+
+        if (key >= this.actorImages.length){
+            this.growActors(key + 1);
+        }
+
+        if ((this.actorFrames[key] != this.frame) && !this.isOrdered[key]){
+            this.addedKeys[this.addedCount++] = key;
+        }
+
+        this.actorImages[key] = image;
+        this.actorX[key] = x;
+        this.actorY[key] = y;
+        this.actorDepths[key] = (int) y + image.getHeight();
+        this.actorFrames[key] = this.frame;
+    }
+
+    /**
+     * Add sprite of tile. Tiles should be added in order of depth, e.g. row by row from top to bottom.
+     * @param image the image of sprite
+     * @param x draw position by horizontal
+     * @param y draw position by vertical
+     * @param depth the bottom of tile on screen
+     */
+    public void addTile(Image image, float x, float y, int depth){
+        if (image == null){
+            return;
+        }
+
+        if (this.tileCount == this.tileImages.length){
+            int size = this.tileImages.length * 2;
+            this.tileImages = Arrays.copyOf(this.tileImages, size);
+            this.tileX = Arrays.copyOf(this.tileX, size);
+            this.tileY = Arrays.copyOf(this.tileY, size);
+            this.tileDepths = Arrays.copyOf(this.tileDepths, size);
+        }
+
+        this.tileImages[this.tileCount] = image;
+        this.tileX[this.tileCount] = x;
+        this.tileY[this.tileCount] = y;
+        this.tileDepths[this.tileCount] = depth;
+        this.tileCount++;
+    }
+
+    /**
+     * Sort sprites of current frame, sprites are available by {@link #getImage(int)} till next frame
+     * @return count of sprites
+     */
+    public int sort(){
+        this.updateOrder();
+
+        int size = this.orderCount + this.tileCount;
+        if (this.images.length < size){
+            this.images = new Image[size];
+            this.x = new float[size];
+            this.y = new float[size];
+        }
+
+        int actor = 0;
+        int tile = 0;
+        this.count = 0;
+        while ((actor < this.orderCount) || (tile < this.tileCount)){
+            boolean isActor = (tile == this.tileCount)
+                    || ((actor < this.orderCount) && (this.actorDepths[this.order[actor]] <= this.tileDepths[tile]));
+            if (isActor){
+                int key = this.order[actor++];
+                this.images[this.count] = this.actorImages[key];
+                this.x[this.count] = this.actorX[key];
+                this.y[this.count] = this.actorY[key];
+            }
+            else {
+                this.images[this.count] = this.tileImages[tile];
+                this.x[this.count] = this.tileX[tile];
+                this.y[this.count] = this.tileY[tile];
+                tile++;
+            }
+
+            this.count++;
+        }
+
+        return this.count;
+    }
+
+    /**
+     * Sort sprites, write them to buffer of commands and start next frame
+     * @param buffer the buffer of commands of scene
+     * @param layer the layer of commands, position of sprite in queue is its sort key,
+     *              so buffer keeps order of depth and rule of equal depth, when actors are drawn before tiles
+     */
+    public void flush(RenderCommandBuffer buffer, RenderCommandBuffer.Layer layer){
+        int size = this.sort();
+        for (int i = 0; i < size; i++){
+            buffer.add(layer, i, this.images[i], this.x[i], this.y[i]);
+        }
+
+        this.nextFrame();
+    }
+
+    /**
+     * Clear sprites of current frame. Order of actors is kept for next frame.
+     */
+    public void nextFrame(){
+        Arrays.fill(this.tileImages, 0, this.tileCount, null);
+        Arrays.fill(this.images, 0, this.count, null);
+        this.tileCount = 0;
+        this.count = 0;
+        this.frame++;
+    }
+
+    public Image getImage(int index){
+        return this.images[index];
+    }
+
+    public float getX(int index){
+        return this.x[index];
+    }
+
+    public float getY(int index){
+        return this.y[index];
+    }
+
+    /**
+     * Gets count of moves of actors by insertion sort on the last sorting
+     * @return count of moves, it is close to zero, when order of actors isn't changed
+     */
+    public int getShiftCount() {
+        return shiftCount;
+    }
+
+    /**
+     * Remove actors, which weren't added on this frame, append new actors and sort by insertion
+     */
+    private void updateOrder(){
+        int kept = 0;
+        for (int i = 0; i < this.orderCount; i++){
+            int key = this.order[i];
+            if (this.actorFrames[key] == this.frame){
+                this.order[kept++] = key;
+            }
+            else {
+                this.isOrdered[key] = false;
+                this.actorImages[key] = null;
+            }
+        }
+
+        for (int i = 0; i < this.addedCount; i++){
+            this.order[kept++] = this.addedKeys[i];
+            this.isOrdered[this.addedKeys[i]] = true;
+        }
+
+        this.orderCount = kept;
+        this.addedCount = 0;
+        this.shiftCount = 0;
+
+        for (int i = 1; i < this.orderCount; i++){
+            int key = this.order[i];
+            int j = i - 1;
+            while ((j >= 0) && this.isAfter(this.order[j], key)){
+                this.order[j + 1] = this.order[j];
+                this.shiftCount++;
+                j--;
+            }
+
+            this.order[j + 1] = key;
+        }
+    }
+
+    private boolean isAfter(int first, int second){
+        return (this.actorDepths[first] > this.actorDepths[second])
+                || ((this.actorDepths[first] == this.actorDepths[second]) && (first > second));
+    }
+
+    private void growActors(int minSize){
+        int size = Math.max(this.actorImages.length * 2, minSize);
+        int oldSize = this.actorImages.length;
+        this.actorImages = Arrays.copyOf(this.actorImages, size);
+        this.actorX = Arrays.copyOf(this.actorX, size);
+        this.actorY = Arrays.copyOf(this.actorY, size);
+        this.actorDepths = Arrays.copyOf(this.actorDepths, size);
+        this.actorFrames = Arrays.copyOf(this.actorFrames, size);
+        this.isOrdered = Arrays.copyOf(this.isOrdered, size);
+        this.order = Arrays.copyOf(this.order, size);
+        this.addedKeys = Arrays.copyOf(this.addedKeys, size);
+        Arrays.fill(this.actorFrames, oldSize, size, -1);
+    }
+
+    @Override
+    public void dispose() {
+        this.actorImages = null;
+        this.actorX = null;
+        this.actorY = null;
+        this.actorDepths = null;
+        this.actorFrames = null;
+        this.isOrdered = null;
+        this.order = null;
+        this.addedKeys = null;
+        this.tileImages = null;
+        this.tileX = null;
+        this.tileY = null;
+        this.tileDepths = null;
+        this.images = null;
+        this.x = null;
+        this.y = null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import org.newdawn.slick.Image;
+
+import java.util.Arrays;
+
+/**
+ * Represent the batch of sprites, which are collected during render and drawn together.
+ * Sprites are grouped by texture, every group is drawn by one bind of texture
+ * with {@link Image#startUse()}, {@link Image#drawEmbedded(float, float, float, float)} and {@link Image#endUse()}.
+ * Sprites of one texture keep order of adding, groups are drawn in order of texture ids.
+ * When batch keeps order of sprites, e.g. they are sorted by depth, only neighbour sprites of one texture are grouped.
+ * Methods should be called from thread of OpenGL context.
+ */
+public class SpriteBatch implements IDisposable {
+    /**
+     * Default count of sprites, arrays grow when it isn't enough
+     */
+    public static final int DefaultCapacity = 256;
+
+    /**
+     * The images of sprites and their screen positions
+     */
+    private Image[] images;
+    private float[] x;
+    private float[] y;
+
+    /**
+     * Keys for grouping, id of texture in high bits and number of sprite in low bits
+     */
+    private long[] keys;
+
+    /**
+     * Count of collected sprites
+     */
+    private int count;
+
+    /**
+     * True, when sprites are sorted by texture on flush, otherwise order of adding is kept
+     */
+    private boolean isSortedByTexture;
+
+    /**
+     * Count of texture binds and sprites of the last flush
+     */
+    private int bindCount;
+    private int drawCount;
+
+    /**
+     * Initialize new instance of {@link SpriteBatch}
+     * @param capacity initial count of sprites
+     * @param isSortedByTexture true, when sprites can be reordered to make less binds of texture
+     */
+    public SpriteBatch(int capacity, boolean isSortedByTexture){
+        this.isSortedByTexture = isSortedByTexture;
+        int size = Math.max(capacity, 1);
+        this.images = new Image[size];
+        this.x = new float[size];
+        this.y = new float[size];
+        this.keys = new long[size];
+    }
+
+    /**
+     * Initialize new instance of {@link SpriteBatch} with {@link #DefaultCapacity}, which sorts sprites by texture
+     */
+    public SpriteBatch(){
+        this(DefaultCapacity, true);
+    }
+
+    /**
+     * Add sprite to batch, it is drawn on next {@link #flush()}
+     * @param image the image of sprite
+     * @param x draw position by horizontal
+     * @param y draw position by vertical
+     */
+    public void add(Image image, float x, float y){
+        if (image == null){
+            return;
+        }
+
+        if (this.count == this.images.length){
+            this.grow();
+        }
+
+        this.images[this.count] = image;
+        this.x[this.count] = x;
+        this.y[this.count] = y;
+        this.keys[this.count] = ((long) image.getTexture().getTextureID() << 32) | this.count;
+        this.count++;
+    }
+
+    /**
+     * Draw collected sprites by groups of texture and clear batch
+     */
+    public void flush(){
+        this.bindCount = 0;
+        this.drawCount = this.count;
+        if (this.count == 0){
+            return;
+        }
+
+        if (this.isSortedByTexture){
+            Arrays.sort(this.keys, 0, this.count);
+        }
+
+        int start = 0;
+        while (start < this.count){
+            int textureId = (int) (this.keys[start] >>> 32);
+            Image first = this.images[(int) this.keys[start]];
+            first.startUse();
+
+            int i = start;
+            for (; (i < this.count) && ((int) (this.keys[i] >>> 32) == textureId); i++){
+                int index = (int) this.keys[i];
+                Image image = this.images[index];
+                image.drawEmbedded(this.x[index], this.y[index], image.getWidth(), image.getHeight());
+            }
+
+            first.endUse();
+            this.bindCount++;
+            start = i;
+        }
+
+        this.clear();
+    }
+
+    /**
+     * Remove collected sprites without drawing
+     */
+    public void clear(){
+        Arrays.fill(this.images, 0, this.count, null);
+        this.count = 0;
+    }
+
+    /**
+     * Gets count of collected sprites
+     * @return count of sprites, which wait for flush
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets count of texture binds of the last flush
+     * @return count of groups
+     */
+    public int getBindCount() {
+        return bindCount;
+    }
+
+    /**
+     * Gets count of sprites of the last flush
+     * @return count of sprites
+     */
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    private void grow(){
+        int size = this.images.length * 2;
+        this.images = Arrays.copyOf(this.images, size);
+        this.x = Arrays.copyOf(this.x, size);
+        this.y = Arrays.copyOf(this.y, size);
+        this.keys = Arrays.copyOf(this.keys, size);
+    }
+
+    @Override
+    public void dispose() {
+        this.images = null;
+        this.x = null;
+        this.y = null;
+        this.keys = null;
+    }
+}
@@ -0,0 +1,211 @@
+package com.story.scene.components.helpers;
+
+import com.story.utils.GlobalHelper;
+import com.story.utils.Size;
+import com.story.utils.log.Trace;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.SpriteSheet;
+
+import java.io.FileNotFoundException;
+import java.util.HashMap;
+
+/**
+ * Represent the cache of sprite sheets of actors by path and size of frame. Uses pattern singleton.
+ * Sprite sheet is loaded and sliced to frames once, actors share frames and keep only their playback state.
+ * Sprite sheet is counted by references, its texture is destroyed when the last actor releases it.
+ * When atlas of actors is created, sprite sheets from it are cut from pages of atlas and share their textures.
+ * Methods should be called from thread of OpenGL context.
+ */
+public class SpriteSheetCache {
+    /**
+     * Represent the frames of sprite sheet, which are shared by actors. Every line of sheet is one animation.
+     */
+    public static class Template {
+        private String key;
+        private SpriteSheet spriteSheet;
+        private Image[][] lines;
+        private int referenceCount;
+
+        /**
+         * True, when texture belongs to atlas and isn't destroyed with template
+         */
+        private boolean isFromAtlas;
+
+        /**
+         * Gets frames of line
+         * @param lineNumber the number of line
+         * @return array of frames, null when sheet doesn't have the line
+         */
+        public Image[] getFrames(int lineNumber){
+            return lineNumber < this.lines.length ? this.lines[lineNumber] : null;
+        }
+
+        public int getReferenceCount() {
+            return referenceCount;
+        }
+
+        public boolean isFromAtlas() {
+            return isFromAtlas;
+        }
+    }
+
+    /**
+     * The instance of {@link SpriteSheetCache}
+     */
+    private static SpriteSheetCache instance;
+
+    /**
+     * The templates by key of path and size of frame
+     */
+    private HashMap<String, Template> templates;
+
+    /**
+     * The atlas of all sprite sheets of actors, null when it isn't created
+     */
+    private TextureAtlas atlas;
+
+    /**
+     * Initialize new instance of {@link SpriteSheetCache}
+     */
+    private SpriteSheetCache(){
+        this.templates = new HashMap<>();
+    }
+
+    /**
+     * Get instance of {@link SpriteSheetCache}
+     */
+    public static SpriteSheetCache getInstance(){
+        if (instance == null){
+            instance = new SpriteSheetCache();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Pack sprite sheets to atlas, sprite sheets are taken from atlas after that.
+     * Atlas is created once, next calls are ignored.
+     * @param pathsToSpriteSheets paths to sprite sheets of all actors
+     */
+    public void createAtlas(String[] pathsToSpriteSheets){
+        if ((this.atlas != null) || (pathsToSpriteSheets == null) || (pathsToSpriteSheets.length == 0)){
+            return;
+        }
+
+        try {
+            this.atlas = new TextureAtlas(pathsToSpriteSheets);
+        } catch (SlickException e) {
+            Trace.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check when atlas of actors is created
+     * @return true, when atlas is created
+     */
+    public boolean hasAtlas(){
+        return this.atlas != null;
+    }
+
+    /**
+     * Gets template from cache or loads it, count of references is increased
+     * @param pathToSpriteSheet path to sprite sheet
+     * @param frameSize the size of frame
+     * @return the shared template, should be released by {@link #release(Template)}
+     * @throws SlickException indicated when sprite sheet can't be loaded
+     * @throws FileNotFoundException indicated when file of sprite sheet doesn't exist
+     */
+    public Template acquire(String pathToSpriteSheet, Size frameSize) throws SlickException, FileNotFoundException {
+        String key = createKey(pathToSpriteSheet, frameSize);
+        Template template = this.templates.get(key);
+        if (template == null){
+            template = this.load(key, pathToSpriteSheet, frameSize);
+            this.templates.put(key, template);
+        }
+
+        template.referenceCount++;
+        return template;
+    }
+
+    /**
+     * Decrease count of references, texture is destroyed when template isn't used
+     * @param template the template, which was taken by {@link #acquire(String, Size)}
+     */
+    public void release(Template template){
+        if ((template == null) || (template.referenceCount == 0)){
+            return;
+        }
+
+        template.referenceCount--;
+        if (template.referenceCount == 0){
+            this.templates.remove(template.key);
+            destroy(template);
+        }
+    }
+
+    /**
+     * Gets count of loaded sprite sheets
+     * @return count of templates
+     */
+    public int getSize(){
+        return this.templates.size();
+    }
+
+    /**
+     * Destroy all templates and atlas, e.g. when OpenGL context is closed
+     */
+    public void clear(){
+        for (Template template: this.templates.values()) {
+            template.referenceCount = 0;
+            destroy(template);
+        }
+
+        this.templates.clear();
+        if (this.atlas != null){
+            this.atlas.dispose();
+            this.atlas = null;
+        }
+    }
+
+    private Template load(String key, String pathToSpriteSheet, Size frameSize) throws SlickException, FileNotFoundException {
+        if (!GlobalHelper.isFileExists(pathToSpriteSheet)) {
+            throw new FileNotFoundException("File " + pathToSpriteSheet + " doesn't exists");
+        }
+
+        Image region = this.atlas == null ? null : this.atlas.getRegion(pathToSpriteSheet);
+
+        Template template = new Template();
+        template.key = key;
+        template.isFromAtlas = region != null;
+        template.spriteSheet = template.isFromAtlas
+                ? new SpriteSheet(region, frameSize.getWidth(), frameSize.getHeight())
+                : new SpriteSheet(pathToSpriteSheet, frameSize.getWidth(), frameSize.getHeight());
+        template.lines = new Image[template.spriteSheet.getVerticalCount()][];
+        for (int line = 0; line < template.lines.length; line++){
+            template.lines[line] = new Image[template.spriteSheet.getHorizontalCount()];
+            for (int i = 0; i < template.lines[line].length; i++){
+                template.lines[line][i] = template.spriteSheet.getSubImage(i, line);
+            }
+        }
+
+        return template;
+    }
+
+    private static void destroy(Template template){
+        if (!template.isFromAtlas) {
+            try {
+                template.spriteSheet.destroy();
+            } catch (SlickException e) {
+                Trace.error(e.getMessage(), e);
+            }
+        }
+
+        template.spriteSheet = null;
+        template.lines = null;
+    }
+
+    private static String createKey(String pathToSpriteSheet, Size frameSize){
+        return pathToSpriteSheet + "@" + frameSize.getWidth() + "x" + frameSize.getHeight();
+    }
+}
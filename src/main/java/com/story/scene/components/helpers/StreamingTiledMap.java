@@ -0,0 +1,363 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import com.story.utils.log.Trace;
+import org.newdawn.slick.SlickException;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Represent the world, which is split to regions and loaded by parts. Only regions near
+ * the visible area are stored in memory, so memory doesn't depend on size of world.
+ * Regions are loaded on worker thread, other methods should be called from thread of OpenGL context.
+ * Tiles of not loaded regions are empty and blocked.
+ */
+public class StreamingTiledMap extends BinaryTiledMap implements IDisposable {
+    /**
+     * Count of regions around the visible area, which are loaded
+     */
+    public static final int LoadMargin = 1;
+
+    /**
+     * Count of regions around the visible area, which are kept after load.
+     * It is larger than {@link #LoadMargin}, so regions aren't reloaded when viewer moves on border.
+     */
+    public static final int UnloadMargin = 2;
+
+    /**
+     * The path to world file
+     */
+    private String worldPath;
+
+    /**
+     * Count of regions by horizontal and vertical
+     */
+    private int regionColumns;
+    private int regionRows;
+
+    /**
+     * Loaded regions and their walkability by key of region
+     */
+    private HashMap<Integer, BinaryTiledMap> regions;
+    private HashMap<Integer, CollisionGrid> regionGrids;
+
+    /**
+     * Started loads by key of region
+     */
+    private HashMap<Integer, Future<BinaryTiledMap>> loadingRegions;
+
+    /**
+     * Regions, which can't be loaded. They aren't requested again.
+     */
+    private HashSet<Integer> failedRegions;
+
+    /**
+     * Tiles of regions, which were loaded or unloaded by the last update
+     */
+    private ArrayList<Rectangle> changedAreas;
+
+    /**
+     * The worker thread
+     */
+    private ExecutorService executor;
+
+    /**
+     * Initialize new instance of {@link StreamingTiledMap}. Images of tile sets are loaded, regions aren't loaded.
+     * @param worldPath the path to world file
+     * @throws SlickException indicated when world file can't be read
+     */
+    public StreamingTiledMap(String worldPath) throws SlickException {
+        super(worldPath, true);
+        if (this.regionSize <= 0){
+            throw new SlickException("File isn't streaming world: " + worldPath);
+        }
+
+        this.worldPath = worldPath;
+        this.regionColumns = (this.width + this.regionSize - 1) / this.regionSize;
+        this.regionRows = (this.height + this.regionSize - 1) / this.regionSize;
+        this.regions = new HashMap<>();
+        this.regionGrids = new HashMap<>();
+        this.loadingRegions = new HashMap<>();
+        this.failedRegions = new HashSet<>();
+        this.changedAreas = new ArrayList<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RegionLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load regions around the visible area and unload far regions
+     * @param visibleArea the tiles, which are visible on screen
+     * @param wait true, when method should wait for loads, e.g. before the first frame
+     * @return true, when set of loaded regions is changed
+     */
+    public boolean updateRegions(Rectangle visibleArea, boolean wait){
+        this.changedAreas.clear();
+        if ((visibleArea.width <= 0) || (visibleArea.height <= 0)){
+            return this.acceptLoadedRegions(wait);
+        }
+
+        int firstColumn = Math.max(visibleArea.x / this.regionSize - LoadMargin, 0);
+        int firstRow = Math.max(visibleArea.y / this.regionSize - LoadMargin, 0);
+        int lastColumn = Math.min((visibleArea.x + visibleArea.width - 1) / this.regionSize + LoadMargin, this.regionColumns - 1);
+        int lastRow = Math.min((visibleArea.y + visibleArea.height - 1) / this.regionSize + LoadMargin, this.regionRows - 1);
+
+        for (int row = firstRow; row <= lastRow; row++){
+            for (int column = firstColumn; column <= lastColumn; column++){
+                this.requestRegion(column, row);
+            }
+        }
+
+        boolean isChanged = this.unloadFarRegions(firstColumn - (UnloadMargin - LoadMargin),
+                firstRow - (UnloadMargin - LoadMargin),
+                lastColumn + (UnloadMargin - LoadMargin),
+                lastRow + (UnloadMargin - LoadMargin));
+
+        return this.acceptLoadedRegions(wait) || isChanged;
+    }
+
+    /**
+     * Gets count of loaded regions
+     * @return count of regions
+     */
+    public int getLoadedRegionCount(){
+        return this.regions.size();
+    }
+
+    /**
+     * Gets tiles of regions, which were loaded or unloaded by the last update, e.g. to rebuild data of path search
+     * @return array of areas, can be empty
+     */
+    public Rectangle[] getChangedAreas(){
+        return this.changedAreas.toArray(new Rectangle[this.changedAreas.size()]);
+    }
+
+    public int getRegionSize() {
+        return regionSize;
+    }
+
+    /**
+     * Create walkability of world, which reads tiles from loaded regions
+     * @return new instance of {@link CollisionGrid}
+     */
+    @Override
+    public CollisionGrid createCollisionGrid() {
+        return new RegionCollisionGrid(this);
+    }
+
+    @Override
+    public int getTileId(int x, int y, int layerIndex) {
+        BinaryTiledMap region = this.getRegion(x, y);
+        if (region == null){
+            return 0;
+        }
+
+        return region.getTileId(x % this.regionSize, y % this.regionSize, layerIndex);
+    }
+
+    /**
+     * Change tile of loaded region. Change is lost, when region is unloaded.
+     */
+    @Override
+    public void setTileId(int x, int y, int layerIndex, int tileId) {
+        BinaryTiledMap region = this.getRegion(x, y);
+        if (region != null){
+            region.setTileId(x % this.regionSize, y % this.regionSize, layerIndex, tileId);
+        }
+    }
+
+    /**
+     * Draw the layer by parts of loaded regions, which are placed inside the area
+     */
+    @Override
+    public void render(int x, int y, int sx, int sy, int width, int height, int layer, boolean lineByLine) {
+        int left = Math.max(sx, 0);
+        int top = Math.max(sy, 0);
+        int right = Math.min(sx + width, this.width);
+        int bottom = Math.min(sy + height, this.height);
+        if ((left >= right) || (top >= bottom)){
+            return;
+        }
+
+        for (int row = top / this.regionSize; row <= (bottom - 1) / this.regionSize; row++){
+            for (int column = left / this.regionSize; column <= (right - 1) / this.regionSize; column++){
+                BinaryTiledMap region = this.regions.get(this.getRegionKey(column, row));
+                if (region == null){
+                    continue;
+                }
+
+                int regionX = column * this.regionSize;
+                int regionY = row * this.regionSize;
+                int partLeft = Math.max(left, regionX);
+                int partTop = Math.max(top, regionY);
+                int partRight = Math.min(right, regionX + region.getWidth());
+                int partBottom = Math.min(bottom, regionY + region.getHeight());
+
+                region.render(x + (partLeft - sx) * this.tileWidth, y + (partTop - sy) * this.tileHeight,
+                        partLeft - regionX, partTop - regionY,
+                        partRight - partLeft, partBottom - partTop, layer, false);
+            }
+        }
+    }
+
+    /**
+     * Check when tile is blocked. Tiles of not loaded regions are blocked.
+     */
+    boolean isTileBlocked(int x, int y){
+        CollisionGrid grid = this.regionGrids.get(this.getRegionKey(x / this.regionSize, y / this.regionSize));
+        return (grid == null) || grid.isBlocked(x % this.regionSize, y % this.regionSize);
+    }
+
+    /**
+     * Change state of tile in loaded region
+     */
+    void setTileBlocked(int x, int y, boolean blocked){
+        CollisionGrid grid = this.regionGrids.get(this.getRegionKey(x / this.regionSize, y / this.regionSize));
+        if (grid != null){
+            grid.setBlocked(x % this.regionSize, y % this.regionSize, blocked);
+        }
+    }
+
+    /**
+     * Gets count of blocked tiles in loaded regions
+     */
+    int getLoadedBlockedCount(){
+        int count = 0;
+        for (CollisionGrid grid: this.regionGrids.values()) {
+            count += grid.getBlockedCount();
+        }
+
+        return count;
+    }
+
+    private BinaryTiledMap getRegion(int x, int y){
+        if ((x < 0) || (y < 0) || (x >= this.width) || (y >= this.height)){
+            return null;
+        }
+
+        return this.regions.get(this.getRegionKey(x / this.regionSize, y / this.regionSize));
+    }
+
+    private int getRegionKey(int column, int row){
+        return row * this.regionColumns + column;
+    }
+
+    /**
+     * Start load of region, when it isn't loaded yet
+     */
+    private void requestRegion(int column, int row){
+        int key = this.getRegionKey(column, row);
+        if (this.regions.containsKey(key) || this.loadingRegions.containsKey(key) || this.failedRegions.contains(key)){
+            return;
+        }
+
+        String path = BinaryMapFormat.getRegionPath(this.worldPath, column, row);
+        this.loadingRegions.put(key, this.executor.submit(() -> new BinaryTiledMap(path, false)));
+    }
+
+    /**
+     * Take regions, which were loaded by worker
+     */
+    private boolean acceptLoadedRegions(boolean wait){
+        boolean isChanged = false;
+        Iterator<Map.Entry<Integer, Future<BinaryTiledMap>>> iterator = this.loadingRegions.entrySet().iterator();
+        while (iterator.hasNext()){
+            Map.Entry<Integer, Future<BinaryTiledMap>> load = iterator.next();
+            if (!wait && !load.getValue().isDone()){
+                continue;
+            }
+
+            iterator.remove();
+            try {
+                BinaryTiledMap region = load.getValue().get();
+                region.shareTileSets(this);
+                this.regions.put(load.getKey(), region);
+                this.regionGrids.put(load.getKey(), region.createCollisionGrid());
+                this.changedAreas.add(this.getRegionArea(load.getKey()));
+                isChanged = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return isChanged;
+            } catch (ExecutionException e) {
+                Trace.error("Region " + load.getKey() + " of world " + this.worldPath + " can't be loaded", e);
+                this.failedRegions.add(load.getKey());
+            }
+        }
+
+        return isChanged;
+    }
+
+    /**
+     * Remove regions and cancel loads outside the range of regions
+     */
+    private boolean unloadFarRegions(int firstColumn, int firstRow, int lastColumn, int lastRow){
+        boolean isChanged = false;
+        Iterator<Integer> iterator = this.regions.keySet().iterator();
+        while (iterator.hasNext()){
+            int key = iterator.next();
+            if (!this.isInsideRange(key, firstColumn, firstRow, lastColumn, lastRow)){
+                iterator.remove();
+                this.regionGrids.remove(key).dispose();
+                this.changedAreas.add(this.getRegionArea(key));
+                isChanged = true;
+            }
+        }
+
+        Iterator<Map.Entry<Integer, Future<BinaryTiledMap>>> loads = this.loadingRegions.entrySet().iterator();
+        while (loads.hasNext()){
+            Map.Entry<Integer, Future<BinaryTiledMap>> load = loads.next();
+            if (!this.isInsideRange(load.getKey(), firstColumn, firstRow, lastColumn, lastRow)){
+                load.getValue().cancel(false);
+                loads.remove();
+            }
+        }
+
+        return isChanged;
+    }
+
+    /**
+     * Gets tiles of region, region on border of world can be smaller
+     */
+    private Rectangle getRegionArea(int key){
+        int x = (key % this.regionColumns) * this.regionSize;
+        int y = (key / this.regionColumns) * this.regionSize;
+        return new Rectangle(x, y, Math.min(this.regionSize, this.width - x), Math.min(this.regionSize, this.height - y));
+    }
+
+    private boolean isInsideRange(int key, int firstColumn, int firstRow, int lastColumn, int lastRow){
+        int column = key % this.regionColumns;
+        int row = key / this.regionColumns;
+        return (column >= firstColumn) && (column <= lastColumn) && (row >= firstRow) && (row <= lastRow);
+    }
+
+    @Override
+    public void dispose() {
+        if (this.executor != null){
+            this.executor.shutdownNow();
+        }
+
+        if (this.regionGrids != null){
+            for (CollisionGrid grid: this.regionGrids.values()) {
+                grid.dispose();
+            }
+        }
+
+        this.executor = null;
+        this.regions = null;
+        this.regionGrids = null;
+        this.loadingRegions = null;
+        this.failedRegions = null;
+        this.changedAreas = null;
+    }
+}
@@ -0,0 +1,167 @@
+package com.story.scene.components.helpers;
+
+import com.story.system.IDisposable;
+import com.story.utils.GlobalHelper;
+import com.story.utils.Size;
+import com.story.utils.log.Trace;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.util.BufferedImageUtil;
+import org.newdawn.slick.util.ResourceLoader;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Represent the texture atlas, which keeps several images in one or a few large textures.
+ * Images are packed by {@link TextureAtlasPacker} once at load time, regions of atlas share texture of their page,
+ * so images from one page are drawn without switching of texture.
+ * Atlas should be created and disposed in thread of OpenGL context.
+ */
+public class TextureAtlas implements IDisposable {
+    private static final String PageName = "atlas_page_";
+
+    /**
+     * The textures of pages
+     */
+    private Image[] pages;
+
+    /**
+     * The regions of atlas by path of image
+     */
+    private HashMap<String, Image> regions;
+
+    /**
+     * Initialize new instance of {@link TextureAtlas}. Images, which can't be loaded, are skipped.
+     * @param paths paths to images
+     * @param pageSize size of square page
+     * @throws SlickException indicated when texture of page can't be created
+     */
+    public TextureAtlas(String[] paths, int pageSize) throws SlickException {
+        this.regions = new HashMap<>();
+
+        ArrayList<String> loadedPaths = new ArrayList<>();
+        ArrayList<BufferedImage> images = new ArrayList<>();
+        for (String path: paths) {
+            if (loadedPaths.contains(path)){
+                continue;
+            }
+
+            BufferedImage image = loadImage(path, pageSize);
+            if (image != null){
+                loadedPaths.add(path);
+                images.add(image);
+            }
+        }
+
+        Size[] sizes = new Size[images.size()];
+        for (int i = 0; i < sizes.length; i++){
+            sizes[i] = new Size(images.get(i).getWidth(), images.get(i).getHeight());
+        }
+
+        TextureAtlasPacker packer = new TextureAtlasPacker(pageSize);
+        TextureAtlasPacker.Region[] packedRegions = packer.pack(sizes);
+
+        BufferedImage[] pageImages = new BufferedImage[packer.getPageCount()];
+        for (int page = 0; page < pageImages.length; page++){
+            pageImages[page] = new BufferedImage(pageSize, packer.getPageHeight(page), BufferedImage.TYPE_INT_ARGB);
+        }
+
+        for (int i = 0; i < packedRegions.length; i++){
+            Graphics2D graphics = pageImages[packedRegions[i].getPage()].createGraphics();
+            graphics.drawImage(images.get(i), packedRegions[i].getX(), packedRegions[i].getY(), null);
+            graphics.dispose();
+        }
+
+        this.pages = new Image[pageImages.length];
+        try {
+            for (int page = 0; page < pageImages.length; page++){
+                this.pages[page] = new Image(BufferedImageUtil.getTexture(PageName + page, pageImages[page]));
+                this.pages[page].setFilter(Image.FILTER_NEAREST);
+            }
+        } catch (IOException e) {
+            this.dispose();
+            throw new SlickException("Texture of atlas can't be created", e);
+        }
+
+        for (int i = 0; i < packedRegions.length; i++){
+            TextureAtlasPacker.Region region = packedRegions[i];
+            this.regions.put(loadedPaths.get(i), this.pages[region.getPage()].getSubImage(
+                    region.getX(), region.getY(), region.getWidth(), region.getHeight()));
+        }
+    }
+
+    /**
+     * Initialize new instance of {@link TextureAtlas} with {@link TextureAtlasPacker#DefaultPageSize}
+     * @see #TextureAtlas(String[], int)
+     */
+    public TextureAtlas(String[] paths) throws SlickException {
+        this(paths, TextureAtlasPacker.DefaultPageSize);
+    }
+
+    /**
+     * Gets region of image in atlas
+     * @param path path to image
+     * @return image, which is drawn from texture of page, null when atlas doesn't have the image
+     */
+    public Image getRegion(String path){
+        return this.regions.get(path);
+    }
+
+    /**
+     * Gets count of textures of atlas
+     * @return count of pages
+     */
+    public int getPageCount(){
+        return this.pages.length;
+    }
+
+    /**
+     * Load image, which fits to page
+     * @return image or null, when it can't be loaded
+     */
+    private static BufferedImage loadImage(String path, int pageSize){
+        if (!GlobalHelper.isFileExists(path)){
+            Trace.error("File " + path + " doesn't exists");
+            return null;
+        }
+
+        try (InputStream stream = ResourceLoader.getResourceAsStream(path)) {
+            BufferedImage image = ImageIO.read(stream);
+            if ((image == null) || (image.getWidth() > pageSize) || (image.getHeight() > pageSize)){
+                Trace.error("Image " + path + " can't be placed to atlas");
+                return null;
+            }
+
+            return image;
+        } catch (IOException e) {
+            Trace.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (this.pages != null){
+            for (Image page: this.pages) {
+                if (page == null){
+                    continue;
+                }
+
+                try {
+                    page.destroy();
+                } catch (SlickException e) {
+                    Trace.error(e.getMessage(), e);
+                }
+            }
+        }
+
+        this.pages = null;
+        this.regions = null;
+    }
+}
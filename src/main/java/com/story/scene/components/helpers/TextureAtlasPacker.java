@@ -0,0 +1,163 @@
+package com.story.scene.components.helpers;
+
+import com.story.utils.Size;
+
+import java.util.Arrays;
+
+/**
+ * Represent the packing of rectangles to pages of texture atlas by shelves.
+ * Rectangles are placed from highest to lowest, every shelf is filled from left to right,
+ * new shelf is started under the previous one and new page is started when shelf doesn't fit.
+ */
+public class TextureAtlasPacker {
+    /**
+     * Default size of page, it is supported by video cards of most computers
+     */
+    public static final int DefaultPageSize = 2048;
+
+    /**
+     * Count of empty pixels between rectangles, so neighbour frames don't bleed by filtering
+     */
+    public static final int Padding = 1;
+
+    /**
+     * Represent the place of rectangle in atlas
+     */
+    public static class Region {
+        private int page;
+        private int x;
+        private int y;
+        private int width;
+        private int height;
+
+        public int getPage() {
+            return page;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    /**
+     * Size of page by horizontal and vertical
+     */
+    private int pageSize;
+
+    /**
+     * Count of pages and used height of every page
+     */
+    private int pageCount;
+    private int[] pageHeights;
+
+    /**
+     * Initialize new instance of {@link TextureAtlasPacker}
+     * @param pageSize size of square page
+     */
+    public TextureAtlasPacker(int pageSize){
+        if (pageSize <= 0){
+            throw new IllegalArgumentException("Size of page should be positive");
+        }
+
+        this.pageSize = pageSize;
+        this.pageHeights = new int[0];
+    }
+
+    /**
+     * Initialize new instance of {@link TextureAtlasPacker} with {@link #DefaultPageSize}
+     */
+    public TextureAtlasPacker(){
+        this(DefaultPageSize);
+    }
+
+    /**
+     * Place rectangles to pages, previous packing is discarded
+     * @param sizes the sizes of rectangles
+     * @return regions in order of sizes
+     */
+    public Region[] pack(Size[] sizes){
+        Integer[] order = new Integer[sizes.length];
+        for (int i = 0; i < sizes.length; i++){
+            if ((sizes[i].getWidth() > this.pageSize) || (sizes[i].getHeight() > this.pageSize)){
+                throw new IllegalArgumentException("Rectangle " + sizes[i].getWidth() + "x" + sizes[i].getHeight()
+                        + " is larger than page");
+            }
+
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (first, second) -> sizes[second].getHeight() - sizes[first].getHeight());
+
+        Region[] regions = new Region[sizes.length];
+        this.pageHeights = new int[Math.max(sizes.length, 1)];
+        this.pageCount = sizes.length == 0 ? 0 : 1;
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+
+        for (int index: order) {
+            int width = sizes[index].getWidth();
+            int height = sizes[index].getHeight();
+
+            if (shelfX + width > this.pageSize){
+                shelfY += shelfHeight + Padding;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+
+            if (shelfY + height > this.pageSize){
+                this.pageCount++;
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+            }
+
+            Region region = new Region();
+            region.page = this.pageCount - 1;
+            region.x = shelfX;
+            region.y = shelfY;
+            region.width = width;
+            region.height = height;
+            regions[index] = region;
+
+            shelfX += width + Padding;
+            shelfHeight = Math.max(shelfHeight, height);
+            this.pageHeights[region.page] = Math.max(this.pageHeights[region.page], shelfY + height);
+        }
+
+        return regions;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets count of pages after the last packing
+     * @return count of pages
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Gets used height of page, texture of page can be cut by it
+     * @param page the number of page
+     * @return height in pixels
+     */
+    public int getPageHeight(int page){
+        return this.pageHeights[page];
+    }
+}
@@ -0,0 +1,96 @@
+package com.story.scene.components.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Represent the sequence of tiles, which actor should pass.
+ * The start tile isn't included, the last tile is the goal.
+ * Instance can be reused for many searches to avoid allocations.
+ */
+public class TilePath {
+    /**
+     * Start capacity of path
+     */
+    private static final int DefaultCapacity = 32;
+
+    /**
+     * The tile coordinates of steps
+     */
+    private int[] stepsX;
+    private int[] stepsY;
+
+    /**
+     * Count of steps
+     */
+    private int length;
+
+    /**
+     * Initialize new instance of {@link TilePath}
+     */
+    public TilePath(){
+        this.stepsX = new int[DefaultCapacity];
+        this.stepsY = new int[DefaultCapacity];
+        this.length = 0;
+    }
+
+    /**
+     * Remove all steps
+     */
+    public void clear(){
+        this.length = 0;
+    }
+
+    /**
+     * Add step to the end of path
+     * @param x the tile coordinate by horizontal
+     * @param y the tile coordinate by vertical
+     */
+    public void add(int x, int y){
+        if (this.length == this.stepsX.length){
+            this.stepsX = Arrays.copyOf(this.stepsX, this.length * 2);
+            this.stepsY = Arrays.copyOf(this.stepsY, this.length * 2);
+        }
+
+        this.stepsX[this.length] = x;
+        this.stepsY[this.length] = y;
+        this.length++;
+    }
+
+    /**
+     * Reverse order of steps. Used when path is collected from goal to start.
+     */
+    public void reverse(){
+        this.reverse(0);
+    }
+
+    /**
+     * Reverse order of steps, which are placed after selected step
+     * @param fromStep number of first step for reverse
+     */
+    public void reverse(int fromStep){
+        for (int i = fromStep, j = this.length - 1; i < j; i++, j--){
+            int x = this.stepsX[i];
+            int y = this.stepsY[i];
+            this.stepsX[i] = this.stepsX[j];
+            this.stepsY[i] = this.stepsY[j];
+            this.stepsX[j] = x;
+            this.stepsY[j] = y;
+        }
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public boolean isEmpty(){
+        return this.length == 0;
+    }
+
+    public int getX(int step){
+        return this.stepsX[step];
+    }
+
+    public int getY(int step){
+        return this.stepsY[step];
+    }
+}
@@ -0,0 +1,30 @@
+package com.story.scene.components.helpers;
+
+import org.newdawn.slick.tiled.Layer;
+import org.newdawn.slick.tiled.TileSet;
+import org.newdawn.slick.tiled.TiledMap;
+
+/**
+ * Link tiles of layers with tile sets, when layers were created before tile sets of map.
+ * Layer stores index of tile set and local id of tile near the global id.
+ */
+final class TileSetLinker {
+    private TileSetLinker(){}
+
+    static void link(TiledMap map, Layer layer){
+        for (int x = 0; x < layer.width; x++){
+            for (int y = 0; y < layer.height; y++){
+                int tileId = layer.data[x][y][2];
+                TileSet tileSet = tileId == 0 ? null : map.findTileSet(tileId);
+                if (tileSet != null){
+                    layer.data[x][y][0] = tileSet.index;
+                    layer.data[x][y][1] = tileId - tileSet.firstGID;
+                }
+                else {
+                    layer.data[x][y][0] = -1;
+                    layer.data[x][y][1] = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.story.scene.components.helpers;
+
+/**
+ * Represent npc, which walks by random free tiles. Random values are calculated from number of step
+ * and id of npc, so result doesn't depend on order of decisions.
+ */
+public class WanderBehavior implements NpcBehavior {
+    /**
+     * Chance of step in percents, npc stays on other steps
+     */
+    public static final int DefaultMoveChance = 50;
+
+    private static final ActorDirection[] Directions = ActorDirection.values();
+
+    /**
+     * Chance of step in percents
+     */
+    private int moveChance;
+
+    /**
+     * Initialize new instance of {@link WanderBehavior}
+     * @param moveChance chance of step in percents
+     */
+    public WanderBehavior(int moveChance){
+        this.moveChance = moveChance;
+    }
+
+    /**
+     * Initialize new instance of {@link WanderBehavior} with default chance of step
+     */
+    public WanderBehavior(){
+        this(DefaultMoveChance);
+    }
+
+    @Override
+    public ActorDirection decide(int index, NpcSimulation.Snapshot snapshot) {
+        int random = mix(snapshot.getStep() * 0x9E3779B1 + snapshot.getId(index) * 0x85EBCA6B + index);
+        if (Integer.remainderUnsigned(random, 100) >= this.moveChance){
+            return null;
+        }
+
+        ActorDirection direction = Directions[(random >>> 16) & 3];
+        int x = snapshot.getTileX(index) + NpcSimulation.getOffsetX(direction);
+        int y = snapshot.getTileY(index) + NpcSimulation.getOffsetY(direction);
+        return snapshot.isFree(x, y) ? direction : null;
+    }
+
+    /**
+     * Finalizer of murmur hash, spreads bits of value
+     */
+    private static int mix(int value){
+        value ^= value >>> 16;
+        value *= 0x85EBCA6B;
+        value ^= value >>> 13;
+        value *= 0xC2B2AE35;
+        value ^= value >>> 16;
+        return value;
+    }
+}
@@ -3,6 +3,7 @@ package com.story.scene.components.managers;
 import com.story.scene.components.descriptors.PlayerDescriptor;
 import com.story.scene.components.helpers.ActorAnimationHelper;
 import com.story.scene.components.helpers.ActorDirection;
+import com.story.scene.components.helpers.RenderQueue;
 import com.story.scene.components.helpers.ComponentCommonVariable;
 import com.story.system.IDisposable;
 
@@ -95,6 +96,19 @@ public class PlayerComponentManager implements IDisposable {
         this.playerAnimation.draw(this.currentDirection, renderPoint.x, renderPoint.y);
     }
 
+    /**
+     * Add player component animation to queue of sprites
+     * @param queue the queue of sprites
+     * @param key the key of player in queue
+     * @param offsetX shift of drawing by horizontal
+     * @param offsetY shift of drawing by vertical
+     */
+    public void drawPlayerAnimation(RenderQueue queue, int key, int offsetX, int offsetY){
+        Point renderPoint = this.playerDescriptor.getCenterPosition();
+        queue.addActor(key, this.playerAnimation.getCurrentImage(this.currentDirection),
+                renderPoint.x + offsetX, renderPoint.y + offsetY);
+    }
+
     /**
      * Gets current point of player
      * @return instance of {@link Point}
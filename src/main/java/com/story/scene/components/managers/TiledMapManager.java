@@ -1,6 +1,10 @@
 package com.story.scene.components.managers;
 
+import com.story.scene.components.helpers.BinaryTiledMap;
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.MapExit;
 import com.story.scene.components.helpers.MapViewer;
+import com.story.scene.components.helpers.StreamingTiledMap;
 import com.story.scene.components.descriptors.ViewerDescriptor;
 import com.story.system.IDisposable;
 import com.story.utils.Converter;
@@ -8,6 +12,8 @@ import com.story.utils.Size;
 import org.newdawn.slick.tiled.TiledMap;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Created by alex on 18.07.16.
@@ -34,6 +40,26 @@ public class TiledMapManager implements IDisposable {
      * Property name on the tiled map
      */
     private static final String InaccessibleCountPropertyName = "inaccessibleCount";
+    /**
+     * Property name on the tiled map. Speed of viewer scrolling, tiles per second.
+     */
+    private static final String ScrollSpeedPropertyName = "scrollSpeed";
+    /**
+     * Layer property name on the tiled map. Layers with "true" value are changed while map is shown.
+     */
+    private static final String DynamicLayerPropertyName = "dynamic";
+    /**
+     * Layer property name on the tiled map. Tiles of layers with "true" value are drawn together with actors by depth.
+     */
+    private static final String ForegroundLayerPropertyName = "foreground";
+    /**
+     * Type of objects on the tiled map, which lead to other map
+     */
+    private static final String ExitObjectType = "Exit";
+    /**
+     * Object property name on the tiled map. Id of map, where exit leads.
+     */
+    private static final String ExitMapIdPropertyName = "mapId";
 
     /**
      * The tile map
@@ -55,11 +81,40 @@ public class TiledMapManager implements IDisposable {
      */
     private Point viewerStartPosition;
 
+    /**
+     * The walkability of tiles, baked from barrier layer
+     */
+    private CollisionGrid collisionGrid;
+
+    /**
+     * The tiles, which were visible on last render. Reused between frames.
+     */
+    private Rectangle visibleArea;
+
+    /**
+     * The global coordinates of viewer. Reused between frames.
+     */
+    private Point currentCoordinate;
+
+    /**
+     * The exits to other maps
+     */
+    private MapExit[] exits;
+
     public TiledMapManager(TiledMap map, Size screenSize, Point startPosition){
         this.map = map;
         this.screenSize = screenSize;
         this.viewerStartPosition = startPosition;
+        this.visibleArea = new Rectangle();
+        this.currentCoordinate = new Point();
         this.loadViewer();
+        this.loadCollisionGrid();
+        this.loadExits();
+
+        //Regions of the first frame are loaded before the map is shown
+        if (this.map instanceof StreamingTiledMap){
+            ((StreamingTiledMap) this.map).updateRegions(this.getVisibleTileArea(this.getCurrentCoordinate()), true);
+        }
     }
 
     private void loadViewer(){
@@ -72,9 +127,55 @@ public class TiledMapManager implements IDisposable {
         descriptor.setScreenSize(this.screenSize);
         descriptor.setStartCoordinates(this.calculateCoordinatesByCentralPoint(this.viewerStartPosition));
         descriptor.setTileSize(new Size(this.map.getTileWidth(), this.map.getTileHeight()));
+        descriptor.setScrollSpeed(Converter.toFloat(
+                this.map.getMapProperty(ScrollSpeedPropertyName, String.valueOf(MapViewer.DefaultScrollSpeed)),
+                MapViewer.DefaultScrollSpeed));
         this.viewer = new MapViewer(descriptor);
     }
 
+    /**
+     * Bake the barrier layer to collision grid. Compiled map stores grid already.
+     */
+    private void loadCollisionGrid(){
+        if (this.map instanceof BinaryTiledMap){
+            this.collisionGrid = ((BinaryTiledMap) this.map).createCollisionGrid();
+            return;
+        }
+
+        this.collisionGrid = CollisionGrid.createFromLayer(this.map, BarrierLayerName);
+    }
+
+    /**
+     * Read exits from objects of map
+     */
+    private void loadExits(){
+        ArrayList<MapExit> exits = new ArrayList<>();
+        for (int group = 0; group < this.map.getObjectGroupCount(); group++){
+            for (int i = 0; i < this.map.getObjectCount(group); i++){
+                if (!ExitObjectType.equals(this.map.getObjectType(group, i))){
+                    continue;
+                }
+
+                int mapId = Converter.toInt(this.map.getObjectProperty(group, i, ExitMapIdPropertyName, "0"));
+                int x = this.map.getObjectX(group, i) / this.map.getTileWidth();
+                int y = this.map.getObjectY(group, i) / this.map.getTileHeight();
+                int width = Math.max(1, this.map.getObjectWidth(group, i) / this.map.getTileWidth());
+                int height = Math.max(1, this.map.getObjectHeight(group, i) / this.map.getTileHeight());
+                exits.add(new MapExit(new Rectangle(x, y, width, height), mapId));
+            }
+        }
+
+        this.exits = exits.toArray(new MapExit[exits.size()]);
+    }
+
+    /**
+     * Gets exits to other maps
+     * @return array of exits, can be empty
+     */
+    public MapExit[] getExits(){
+        return this.exits;
+    }
+
     public TiledMap getMap() {
         return map;
     }
@@ -95,20 +196,133 @@ public class TiledMapManager implements IDisposable {
         this.viewer.moveDown();
     }
 
+    /**
+     * Move the viewer by elapsed time
+     * @param delta the amount of time thats passed since last update in milliseconds
+     */
+    public void updateViewer(int delta){
+        this.viewer.update(delta);
+    }
+
+    /**
+     * Load regions of streaming world around the viewer
+     * @return true, when regions are changed and prerendered parts of map should be redrawn
+     */
+    public boolean updateStreamingRegions(){
+        if (!(this.map instanceof StreamingTiledMap)){
+            return false;
+        }
+
+        return ((StreamingTiledMap) this.map).updateRegions(this.getVisibleTileArea(this.getCurrentCoordinate()), false);
+    }
+
+    /**
+     * Gets tiles of streaming world, which were loaded or unloaded by the last update of regions
+     * @return array of areas, empty for map without streaming
+     */
+    public Rectangle[] getChangedStreamingAreas(){
+        if (!(this.map instanceof StreamingTiledMap)){
+            return new Rectangle[0];
+        }
+
+        return ((StreamingTiledMap) this.map).getChangedAreas();
+    }
+
     /**
      * Call method of gets global coordinates from viewer
-     * @return the point of global coordinates
+     * @return the point of global coordinates, the instance is reused on next call
      */
     public Point getCurrentCoordinate(){
-        return this.viewer.getGlobalCoordinates(true);
+        return this.viewer.getGlobalCoordinates(this.currentCoordinate);
+    }
+
+    /**
+     * Gets global coordinates of viewer between previous and current updates
+     * @param alpha part of the last update from 0 to 1
+     * @param result the point, which is filled by coordinates
+     * @return the filled point
+     */
+    public Point getInterpolatedCoordinate(float alpha, Point result){
+        return this.viewer.getInterpolatedCoordinates(alpha, result);
+    }
+
+    /**
+     * Gets layers except foreground in order of map. Consecutive layers with the same dynamic state are grouped,
+     * so group of static layers can be prerendered without change of order of layers.
+     * @return array of groups of layer indexes
+     */
+    public int[][] getGroundLayerRuns(){
+        ArrayList<int[]> runs = new ArrayList<>();
+        int[] run = new int[this.map.getLayerCount()];
+        int count = 0;
+        boolean isRunDynamic = false;
+        for (int i = 0; i < this.map.getLayerCount(); i++){
+            if (this.isForegroundLayer(i)){
+                continue;
+            }
+
+            boolean isDynamic = this.isDynamicLayer(i);
+            if ((count > 0) && (isDynamic != isRunDynamic)){
+                runs.add(Arrays.copyOf(run, count));
+                count = 0;
+            }
+
+            isRunDynamic = isDynamic;
+            run[count++] = i;
+        }
+
+        if (count > 0){
+            runs.add(Arrays.copyOf(run, count));
+        }
+
+        return runs.toArray(new int[runs.size()][]);
     }
 
     /**
-     * Call method of gets global coordinates from viewer without remove element from queue of frames
-     * @return the point of global coordinates
+     * Check when layer can be changed while map is shown
+     * @param layerIndex the index of layer
+     * @return true, when layer has dynamic property with "true" value
      */
-    public Point getCurrentCoordinateWithoutRemove(){
-        return this.viewer.getGlobalCoordinates(false);
+    public boolean isDynamicLayer(int layerIndex){
+        return Converter.toBoolean(this.map.getLayerProperty(layerIndex, DynamicLayerPropertyName, "false"));
+    }
+
+    /**
+     * Gets indexes of layers, which tiles are sorted with actors by depth
+     * @return array of layer indexes
+     */
+    public int[] getForegroundLayers(){
+        int[] layers = new int[this.map.getLayerCount()];
+        int count = 0;
+        for (int i = 0; i < this.map.getLayerCount(); i++){
+            if (this.isForegroundLayer(i)){
+                layers[count++] = i;
+            }
+        }
+
+        return Arrays.copyOf(layers, count);
+    }
+
+    private boolean isForegroundLayer(int layerIndex){
+        return Converter.toBoolean(this.map.getLayerProperty(layerIndex, ForegroundLayerPropertyName, "false"));
+    }
+
+    /**
+     * Calculate the tiles of map, which are visible on screen. Area is limited by borders of map.
+     * @param globalCoordinates the global point, from which map is drawn
+     * @return rectangle of visible tiles, the instance is reused on next call
+     */
+    public Rectangle getVisibleTileArea(Point globalCoordinates){
+        this.viewer.calculateVisibleTileArea(globalCoordinates, this.visibleArea);
+
+        int right = Math.min(this.visibleArea.x + this.visibleArea.width, this.map.getWidth());
+        int bottom = Math.min(this.visibleArea.y + this.visibleArea.height, this.map.getHeight());
+        this.visibleArea.x = Math.max(this.visibleArea.x, 0);
+        this.visibleArea.y = Math.max(this.visibleArea.y, 0);
+        this.visibleArea.width = Math.max(right - this.visibleArea.x, 0);
+        this.visibleArea.height = Math.max(bottom - this.visibleArea.y, 0);
+
+        return this.visibleArea;
     }
 
     /**
@@ -139,7 +353,24 @@ public class TiledMapManager implements IDisposable {
     }
 
     public boolean isFreeSpace(Point p){
-        return this.map.getTileId(p.x, p.y, this.map.getLayerIndex(BarrierLayerName)) == 0;
+        return this.collisionGrid.isFree(p.x, p.y);
+    }
+
+    /**
+     * Change the walkability of tile
+     * @param p the tile coordinates
+     * @param blocked true, when tile can't be passed
+     */
+    public void setBarrier(Point p, boolean blocked){
+        this.collisionGrid.setBlocked(p.x, p.y, blocked);
+    }
+
+    /**
+     * Gets the collision grid of map
+     * @return instance of {@link CollisionGrid}
+     */
+    public CollisionGrid getCollisionGrid(){
+        return this.collisionGrid;
     }
 
     /**
@@ -151,11 +382,11 @@ public class TiledMapManager implements IDisposable {
     }
 
     /**
-     * Gets count of frames which should be draw
-     * @return count of frames
+     * Check when viewer is scrolled now
+     * @return true, when viewer is moved
      */
-    public int getCountFramesInViewer(){
-        return this.viewer.getCountFrames();
+    public boolean isViewerMoving(){
+        return this.viewer.isMoving();
     }
 
     @Override
@@ -164,7 +395,15 @@ public class TiledMapManager implements IDisposable {
             this.viewer.dispose();
         }
 
+        if (this.collisionGrid != null){
+            this.collisionGrid.dispose();
+        }
+
         this.map = null;
         this.viewer = null;
+        this.collisionGrid = null;
+        this.exits = null;
+        this.visibleArea = null;
+        this.currentCoordinate = null;
     }
 }
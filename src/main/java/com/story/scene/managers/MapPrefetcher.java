@@ -0,0 +1,157 @@
+package com.story.scene.managers;
+
+import com.story.dataAccessLayer.dataActions.RetrieveMapsAction;
+import com.story.dataAccessLayer.dataDescriptors.MapDescriptor;
+import com.story.scene.components.helpers.BinaryMapFormat;
+import com.story.scene.components.helpers.PrefetchedTiledMap;
+import com.story.system.IDisposable;
+import com.story.utils.log.Trace;
+import org.newdawn.slick.SlickException;
+
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Represent the loader of maps, which player can visit soon. Query to database, parse of TMX
+ * and decode of tile set images are executed on worker thread. The textures are created later
+ * by {@link PrefetchedTiledMap#uploadTextures()} on thread of OpenGL context.
+ */
+public class MapPrefetcher implements IDisposable {
+    /**
+     * Represent the result of prefetch
+     */
+    public static class PrefetchedMap {
+        private MapDescriptor descriptor;
+        private PrefetchedTiledMap map;
+
+        PrefetchedMap(MapDescriptor descriptor, PrefetchedTiledMap map){
+            this.descriptor = descriptor;
+            this.map = map;
+        }
+
+        public MapDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        /**
+         * Gets the parsed map
+         * @return the map or null, when map is compiled and should be loaded from binary file
+         */
+        public PrefetchedTiledMap getMap() {
+            return map;
+        }
+    }
+
+    /**
+     * The worker thread
+     */
+    private ExecutorService executor;
+
+    /**
+     * Started and finished loads by map id
+     */
+    private HashMap<Integer, Future<PrefetchedMap>> loads;
+
+    /**
+     * Initialize new instance of {@link MapPrefetcher}
+     */
+    public MapPrefetcher(){
+        this.loads = new HashMap<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MapPrefetcher");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Start load of map, when it isn't loaded yet
+     * @param mapId the id of map in database
+     */
+    public void prefetch(int mapId){
+        if (this.loads.containsKey(mapId)){
+            return;
+        }
+
+        this.loads.put(mapId, this.executor.submit(() -> load(mapId)));
+    }
+
+    /**
+     * Check when map is loaded and can be taken without wait
+     * @param mapId the id of map in database
+     * @return true, when load is finished
+     */
+    public boolean isReady(int mapId){
+        Future<PrefetchedMap> load = this.loads.get(mapId);
+        return (load != null) && load.isDone();
+    }
+
+    /**
+     * Take the loaded map. When load isn't finished, method waits for it,
+     * because it is faster than start the load again.
+     * @param mapId the id of map in database
+     * @return the loaded map or null, when map wasn't prefetched or can't be loaded
+     */
+    public PrefetchedMap take(int mapId){
+        Future<PrefetchedMap> load = this.loads.remove(mapId);
+        if (load == null){
+            return null;
+        }
+
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Trace.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Forget all loads, should be called when other map is shown
+     */
+    public void clear(){
+        for (Future<PrefetchedMap> load: this.loads.values()) {
+            load.cancel(false);
+        }
+
+        this.loads.clear();
+    }
+
+    /**
+     * Load the map on worker thread
+     */
+    private static PrefetchedMap load(int mapId) throws SlickException {
+        RetrieveMapsAction action = new RetrieveMapsAction();
+        MapDescriptor descriptor = action.retrieveObjectById(mapId);
+        action.dispose();
+
+        if (descriptor == null){
+            Trace.info("Map " + mapId + " isn't found for prefetch");
+            return null;
+        }
+
+        //Compiled map and streaming world are loaded fast enough on render thread, only descriptor is prefetched
+        if (BinaryMapFormat.hasBinary(descriptor.getPathToTMX()) || BinaryMapFormat.hasWorld(descriptor.getPathToTMX())){
+            return new PrefetchedMap(descriptor, null);
+        }
+
+        return new PrefetchedMap(descriptor, new PrefetchedTiledMap(descriptor.getPathToTMX()));
+    }
+
+    @Override
+    public void dispose() {
+        if (this.executor != null){
+            this.executor.shutdownNow();
+        }
+
+        this.executor = null;
+        this.loads = null;
+    }
+}
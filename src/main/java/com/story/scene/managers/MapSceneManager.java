@@ -1,27 +1,69 @@
 package com.story.scene.managers;
 
+import com.story.application.ApplicationSettings;
+import com.story.dataAccessLayer.dataActions.RetrieveActorAction;
 import com.story.dataAccessLayer.dataActions.RetrieveMapsAction;
+import com.story.dataAccessLayer.dataDescriptors.MapDescriptor;
 import com.story.scene.components.MapComponent;
 import com.story.scene.components.PlayerComponent;
 import com.story.scene.components.SimpleNpcComponent;
 import com.story.scene.components.descriptors.PlayerDescriptor;
 import com.story.scene.components.descriptors.SimpleNpcDescriptor;
+import com.story.scene.components.helpers.ActorAnimationHelper;
+import com.story.scene.components.helpers.AiScheduler;
+import com.story.scene.components.helpers.ActorDirection;
+import com.story.scene.components.helpers.ActorSpatialGrid;
+import com.story.scene.components.helpers.ActorStore;
+import com.story.scene.components.helpers.CollisionGrid;
 import com.story.scene.components.helpers.ComponentAction;
+import com.story.scene.components.helpers.ComponentCommonVariable;
+import com.story.scene.components.helpers.FlowFieldCache;
+import com.story.scene.components.helpers.HierarchicalPathFinder;
+import com.story.scene.components.helpers.MapAssetCache;
+import com.story.scene.components.helpers.MapExit;
+import com.story.scene.components.helpers.NpcBehavior;
+import com.story.scene.components.helpers.NpcSimulation;
+import com.story.scene.components.helpers.OccupancyGrid;
+import com.story.scene.components.helpers.PathFinder;
+import com.story.scene.components.helpers.SpriteSheetCache;
+import com.story.scene.components.helpers.WanderBehavior;
 import com.story.scene.sceneDescriptors.MapSceneDescriptor;
 import com.story.system.IDisposable;
 import com.story.utils.Converter;
-import com.story.utils.Size;
 import com.story.utils.customException.SceneException;
 import com.story.utils.events.EventType;
 import com.story.utils.log.Trace;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * Created by alex on 01.08.16.
  * Manage the map
  */
 public class MapSceneManager implements IDisposable{
+    /**
+     * Count of tiles between player and exit, when map of exit starts loading
+     */
+    private static final int ExitPrefetchDistance = 8;
+
+    /**
+     * Count of tiles around the viewer, where npc outside the screen are simulated with coarse detail.
+     * Npc farther than this are frozen until they come near.
+     */
+    private static final int NpcNearDistance = 16;
+
+    /**
+     * Id of player in occupancy grid, id of npc is {@link #FirstNpcActorId} plus its index
+     */
+    private static final int PlayerActorId = 0;
+    private static final int FirstNpcActorId = PlayerActorId + 1;
+
+    private static final String OccupancyMoveStopEventName = "OccupancyMoveStop";
+
+    private static final String PathRegionsChangeEventName = "PathRegionsChange";
+
     /**
      * Component which represent the map
      */
@@ -33,10 +75,85 @@ public class MapSceneManager implements IDisposable{
     private PlayerComponent playerComponent;
 
     /**
-     * List of npc on map
+     * List of npc on map, components are views of npcStore
      */
     private SimpleNpcComponent[] npcList;
 
+    /**
+     * The data of npc, index of npc in store is its index in npcList
+     */
+    private ActorStore npcStore;
+
+    /**
+     * Animations of npc, one animation for every sprite sheet
+     */
+    private ArrayList<ActorAnimationHelper> npcAnimations;
+
+    /**
+     * The parallel simulation of npc steps
+     */
+    private NpcSimulation npcSimulation;
+
+    /**
+     * The scheduler, which gives npc for simulation by budget of frame
+     */
+    private AiScheduler aiScheduler;
+
+    /**
+     * Indexes of npc, which think on current frame
+     */
+    private int[] npcBatch;
+
+    /**
+     * The grid of npc positions, id of npc is its index in npcList
+     */
+    private ActorSpatialGrid npcGrid;
+
+    /**
+     * The tiles of current map, which are taken by player and npc
+     */
+    private OccupancyGrid occupancyGrid;
+
+    /**
+     * The search of paths over the current map
+     */
+    private PathFinder pathFinder;
+
+    /**
+     * The search of long paths over sectors of the current map
+     */
+    private HierarchicalPathFinder hierarchicalPathFinder;
+
+    /**
+     * The flow fields for npc, which are moved to common targets
+     */
+    private FlowFieldCache flowFieldCache;
+
+    /**
+     * The loader of maps, which are near exits of current map
+     */
+    private MapPrefetcher mapPrefetcher;
+
+    /**
+     * Indexes of npc, which are visible on viewer
+     */
+    private int[] visibleNpcIndexes;
+
+    /**
+     * Count of visible npc
+     */
+    private int visibleNpcCount;
+
+    /**
+     * Indexes of npc near the viewer, including visible npc
+     */
+    private int[] nearNpcIndexes;
+
+    /**
+     * Count of npc near the viewer
+     */
+    private int nearNpcCount;
+
     /**
      * The descriptor, which describe the scene
      */
@@ -48,6 +165,21 @@ public class MapSceneManager implements IDisposable{
         }
 
         this.sceneDescriptor = descriptor;
+        this.mapPrefetcher = new MapPrefetcher();
+    }
+
+    /**
+     * Pack sprite sheets of all actors to atlas before the first actor is created,
+     * so player and npc are drawn from a few textures
+     */
+    private void createActorAtlas(){
+        if (SpriteSheetCache.getInstance().hasAtlas()){
+            return;
+        }
+
+        RetrieveActorAction action = new RetrieveActorAction();
+        SpriteSheetCache.getInstance().createAtlas(action.retrieveSpriteSheetPaths());
+        action.dispose();
     }
 
     /**
@@ -74,6 +206,12 @@ public class MapSceneManager implements IDisposable{
                 PlayerComponent.PlayerMoveStopPropertyName,
                 playerComponent::onStopMoveAnimation);
 
+        this.mapComponent.addEventListener(EventType.MapMoveStop,
+                OccupancyMoveStopEventName,
+                this::onPlayerMoveStop);
+
+        this.getOccupancyGrid().place(PlayerActorId, startPosition.x, startPosition.y);
+
         return playerComponent;
     }
 
@@ -88,12 +226,36 @@ public class MapSceneManager implements IDisposable{
             this.mapComponent.dispose();
         }
 
+        MapPrefetcher.PrefetchedMap prefetchedMap = this.mapPrefetcher.take(mapId);
+        this.mapPrefetcher.clear();
+        if (prefetchedMap != null){
+            return new MapComponent(prefetchedMap.getDescriptor(), startPosition, prefetchedMap.getMap());
+        }
+
+        MapDescriptor cachedDescriptor = MapAssetCache.getInstance().createDescriptor(mapId);
+        if (cachedDescriptor != null){
+            return new MapComponent(cachedDescriptor, startPosition);
+        }
+
         RetrieveMapsAction action = new RetrieveMapsAction();
         return new MapComponent(action.retrieveObjectById(mapId), startPosition);
     }
 
     /**
-     * Creates new list of npc
+     * Start load of maps, which exits are near the player
+     * @param playerPoint the tile of player
+     */
+    private void prefetchNearExits(Point playerPoint){
+        for (MapExit exit: this.mapComponent.getExits()) {
+            if ((exit.getDistance(playerPoint) <= ExitPrefetchDistance)
+                    && !MapAssetCache.getInstance().contains(exit.getMapId())){
+                this.mapPrefetcher.prefetch(exit.getMapId());
+            }
+        }
+    }
+
+    /**
+     * Creates new list of npc. Data of npc is copied to store and descriptors are disposed.
      * @param descriptors the descriptors of npc list
      * @return list of npc
      */
@@ -102,11 +264,55 @@ public class MapSceneManager implements IDisposable{
             return null;
         }
 
+        CollisionGrid collisionGrid = this.mapComponent.getCollisionGrid();
+        this.npcGrid = new ActorSpatialGrid(collisionGrid.getWidth(), collisionGrid.getHeight());
+        this.npcStore = new ActorStore(descriptors.length);
+        this.npcAnimations = new ArrayList<>();
+        this.visibleNpcIndexes = new int[descriptors.length];
+        this.visibleNpcCount = 0;
+        this.nearNpcIndexes = new int[descriptors.length];
+        this.nearNpcCount = 0;
+
+        //Npc stay on their tiles, unless descriptor allows wandering
+        this.npcSimulation = new NpcSimulation(this.npcStore, this.npcGrid, collisionGrid, NpcBehavior.Stay);
+        this.npcSimulation.setOccupancyGrid(this.getOccupancyGrid(), FirstNpcActorId);
+        WanderBehavior wanderBehavior = new WanderBehavior();
+
+        HashMap<String, Integer> animationIndexes = new HashMap<>();
         SimpleNpcComponent[] components = new SimpleNpcComponent[descriptors.length];
         for (int i = 0; i < descriptors.length; i++){
-            components[i] = new SimpleNpcComponent(descriptors[i]);
+            String spriteSheetPath = descriptors[i].getSpriteSheetPath();
+            Integer animationIndex = animationIndexes.get(spriteSheetPath);
+            if (animationIndex == null){
+                animationIndex = this.npcAnimations.size();
+                animationIndexes.put(spriteSheetPath, animationIndex);
+                this.npcAnimations.add(new ActorAnimationHelper(spriteSheetPath,
+                        ComponentCommonVariable.getInstance().getTileSize(),
+                        SimpleNpcComponent.AnimationDuration));
+            }
+
+            ActorAnimationHelper animation = this.npcAnimations.get(animationIndex);
+            Point position = descriptors[i].getStartPosition();
+            int index = this.npcStore.add(descriptors[i].getId(), animationIndex,
+                    animation.getFrameCount(ActorDirection.DOWN), position.x, position.y, ActorDirection.DOWN);
+
+            components[i] = new SimpleNpcComponent(this.npcStore, index, animation);
+            this.npcGrid.add(index, position.x, position.y);
+            this.getOccupancyGrid().place(FirstNpcActorId + index, position.x, position.y);
+            if (descriptors[i].isWandering()){
+                this.npcSimulation.setBehavior(index, wanderBehavior);
+            }
+
+            descriptors[i].dispose();
         }
 
+        this.aiScheduler = new AiScheduler(descriptors.length);
+        this.npcBatch = new int[descriptors.length];
+
+        //Npc get detail levels by distance to viewer on first update
+        for (int i = 0; i < descriptors.length; i++){
+            this.setNpcDetailLevel(i, ActorStore.DetailLevel.Frozen);
+        }
         return components;
     }
 
@@ -118,7 +324,37 @@ public class MapSceneManager implements IDisposable{
     private boolean playerCanMove(Point point){
         return (this.mapComponent.isVisibleOnViewer(point))
                 && (this.mapComponent.isFreeSpace(point))
-                && (this.mapComponent.isFinishFramesDrawing());
+                && (this.mapComponent.isMoveFinished())
+                && (this.getOccupancyGrid().isFreeFor(PlayerActorId, point.x, point.y));
+    }
+
+    /**
+     * Method, which called when regions of streaming world are loaded or unloaded.
+     * Sectors of changed regions are rebuilt and flow fields are built again.
+     */
+    private Void onMapRegionsChange(Void v){
+        if (this.hierarchicalPathFinder != null){
+            for (Rectangle area: this.mapComponent.getChangedRegionAreas()){
+                this.hierarchicalPathFinder.onAreaChanged(area);
+            }
+        }
+
+        if (this.flowFieldCache != null){
+            this.flowFieldCache.invalidate();
+        }
+
+        return null;
+    }
+
+    /**
+     * Method, which called when map move is finished. Tile, which player has left, is released.
+     */
+    private Void onPlayerMoveStop(Void v){
+        if (this.occupancyGrid != null){
+            this.occupancyGrid.finishMove(PlayerActorId);
+        }
+
+        return null;
     }
 
     /**
@@ -128,8 +364,10 @@ public class MapSceneManager implements IDisposable{
     private void moveComponents(Point newPoint, ComponentAction action){
         this.playerComponent.setDirection(Converter.toActorDirection(action, this.playerComponent.getDirection()));
         if (this.playerCanMove(newPoint)){
+            this.getOccupancyGrid().beginMove(PlayerActorId, newPoint.x, newPoint.y);
             this.playerComponent.moveTo(newPoint);
             this.getMapComponent().executeAction(action);
+            this.prefetchNearExits(newPoint);
         }
     }
 
@@ -139,6 +377,8 @@ public class MapSceneManager implements IDisposable{
     public MapComponent getMapComponent() {
         if (this.mapComponent == null){
             this.mapComponent = this.createMapComponent(this.sceneDescriptor.mapId, this.sceneDescriptor.playerStartPoint);
+            this.mapComponent.addEventListener(EventType.MapRegionsChange, PathRegionsChangeEventName,
+                    this::onMapRegionsChange);
         }
 
         return mapComponent;
@@ -159,6 +399,7 @@ public class MapSceneManager implements IDisposable{
         }
 
         if (this.playerComponent == null){
+            this.createActorAtlas();
             this.playerComponent = this.createPlayerComponent(
                     this.sceneDescriptor.playerId,
                     this.sceneDescriptor.playerStartPoint,
@@ -179,12 +420,240 @@ public class MapSceneManager implements IDisposable{
         }
 
         if ((this.npcList == null) || (this.npcList.length == 0)){
+            this.createActorAtlas();
             this.npcList = this.createNpcList(this.sceneDescriptor.npcDescriptors);
         }
 
         return this.npcList;
     }
 
+    /**
+     * Gets the data of npc on map
+     * @return instance of {@link ActorStore}, null when map doesn't have npc
+     */
+    public ActorStore getNpcStore(){
+        this.getSimpleNpcList();
+        return this.npcStore;
+    }
+
+    /**
+     * Gets the tiles of current map, which are taken by player and npc
+     * @return instance of {@link OccupancyGrid}
+     */
+    public OccupancyGrid getOccupancyGrid(){
+        if (this.mapComponent == null){
+            try {
+                throw new SceneException("The map should be initialized before occupancy of tiles");
+            } catch (SceneException e) {
+                Trace.error(e.getMessage(), e);
+                return null;
+            }
+        }
+
+        CollisionGrid collisionGrid = this.mapComponent.getCollisionGrid();
+        if ((this.occupancyGrid == null)
+                || (this.occupancyGrid.getWidth() != collisionGrid.getWidth())
+                || (this.occupancyGrid.getHeight() != collisionGrid.getHeight())){
+            if (this.occupancyGrid != null){
+                this.occupancyGrid.dispose();
+            }
+
+            this.occupancyGrid = new OccupancyGrid(collisionGrid.getWidth(), collisionGrid.getHeight());
+        }
+
+        return this.occupancyGrid;
+    }
+
+    /**
+     * Gets the search of paths for actors over the current map
+     * @return instance of {@link PathFinder}
+     */
+    public PathFinder getPathFinder(){
+        if (this.mapComponent == null){
+            try {
+                throw new SceneException("The map should be initialized before search of path");
+            } catch (SceneException e) {
+                Trace.error(e.getMessage(), e);
+                return null;
+            }
+        }
+
+        if ((this.pathFinder == null) || (this.pathFinder.getGrid() != this.mapComponent.getCollisionGrid())){
+            this.pathFinder = new PathFinder(this.mapComponent.getCollisionGrid());
+        }
+
+        this.pathFinder.setOccupancyGrid(this.getOccupancyGrid());
+
+        return this.pathFinder;
+    }
+
+    /**
+     * Gets the search of long paths for actors over the current map.
+     * Abstract graph of map is built on first call.
+     * @return instance of {@link HierarchicalPathFinder}
+     */
+    public HierarchicalPathFinder getHierarchicalPathFinder(){
+        if (this.mapComponent == null){
+            try {
+                throw new SceneException("The map should be initialized before search of path");
+            } catch (SceneException e) {
+                Trace.error(e.getMessage(), e);
+                return null;
+            }
+        }
+
+        if ((this.hierarchicalPathFinder == null)
+                || (this.hierarchicalPathFinder.getGrid() != this.mapComponent.getCollisionGrid())){
+            if (this.hierarchicalPathFinder != null){
+                this.hierarchicalPathFinder.dispose();
+            }
+
+            this.hierarchicalPathFinder = new HierarchicalPathFinder(this.mapComponent.getCollisionGrid());
+        }
+
+        return this.hierarchicalPathFinder;
+    }
+
+    /**
+     * Gets the cache of flow fields for npc, which are moved to common targets over the current map
+     * @return instance of {@link FlowFieldCache}
+     */
+    public FlowFieldCache getFlowFieldCache(){
+        if (this.mapComponent == null){
+            try {
+                throw new SceneException("The map should be initialized before search of path");
+            } catch (SceneException e) {
+                Trace.error(e.getMessage(), e);
+                return null;
+            }
+        }
+
+        if ((this.flowFieldCache == null) || (this.flowFieldCache.getGrid() != this.mapComponent.getCollisionGrid())){
+            if (this.flowFieldCache != null){
+                this.flowFieldCache.dispose();
+            }
+
+            this.flowFieldCache = new FlowFieldCache(this.mapComponent.getCollisionGrid());
+        }
+
+        return this.flowFieldCache;
+    }
+
+    /**
+     * Change the walkability of tile on current map. Searches of paths get the change on next search.
+     * @param coordinates the tile coordinates
+     * @param blocked true, when tile can't be passed
+     */
+    public void setBarrier(Point coordinates, boolean blocked){
+        if (this.mapComponent == null){
+            return;
+        }
+
+        this.mapComponent.setBarrier(coordinates, blocked);
+        if (this.hierarchicalPathFinder != null){
+            this.hierarchicalPathFinder.onTileChanged(coordinates.x, coordinates.y);
+        }
+
+        if (this.flowFieldCache != null){
+            this.flowFieldCache.invalidate();
+        }
+    }
+
+    /**
+     * Recalculate the npc, which are visible on viewer, and detail levels of npc.
+     * Only npc from cells around the viewer are checked.
+     */
+    public void updateVisibleNpc(){
+        if (this.getSimpleNpcList() == null){
+            return;
+        }
+
+        for (int i = 0; i < this.nearNpcCount; i++){
+            this.setNpcDetailLevel(this.nearNpcIndexes[i], ActorStore.DetailLevel.Frozen);
+        }
+
+        for (int i = 0; i < this.visibleNpcCount; i++){
+            this.npcStore.hide(this.visibleNpcIndexes[i]);
+        }
+
+        Rectangle area = this.mapComponent.getVisibleTileArea();
+        this.nearNpcCount = this.npcGrid.queryRectangle(area.x - NpcNearDistance, area.y - NpcNearDistance,
+                area.width + NpcNearDistance * 2, area.height + NpcNearDistance * 2, this.nearNpcIndexes);
+        for (int i = 0; i < this.nearNpcCount; i++){
+            this.setNpcDetailLevel(this.nearNpcIndexes[i], ActorStore.DetailLevel.Coarse);
+        }
+
+        this.visibleNpcCount = this.npcGrid.queryRectangle(area.x, area.y, area.width, area.height,
+                this.visibleNpcIndexes);
+        for (int i = 0; i < this.visibleNpcCount; i++){
+            this.setNpcDetailLevel(this.visibleNpcIndexes[i], ActorStore.DetailLevel.Full);
+        }
+
+        this.npcStore.updateScreenPositions(this.visibleNpcIndexes, this.visibleNpcCount,
+                this.mapComponent.getGlobalPoint(),
+                ComponentCommonVariable.getInstance().getTileSize().getWidth(),
+                ComponentCommonVariable.getInstance().getTileSize().getHeight(),
+                ApplicationSettings.getSettings().getScreenWidth(),
+                ApplicationSettings.getSettings().getScreenHeight());
+        this.aiScheduler.setPriority(this.visibleNpcIndexes, this.visibleNpcCount);
+    }
+
+    /**
+     * Change how often npc is simulated and thinks
+     */
+    private void setNpcDetailLevel(int index, ActorStore.DetailLevel level){
+        this.npcStore.setDetailLevel(index, level);
+        this.aiScheduler.setDetailLevel(index, level);
+    }
+
+    /**
+     * Make steps of npc, which are given by scheduler for this frame, and move animations of npc
+     * by one loop over store. Visible npc are given first, thinking takes part of frame at max FPS.
+     * Frozen npc aren't updated, their animation is moved forward when they come near the viewer.
+     * @param delta the amount of time thats passed since last update in milliseconds
+     */
+    public void updateNpc(int delta){
+        if (this.getSimpleNpcList() == null){
+            return;
+        }
+
+        int batchCount = this.aiScheduler.schedule(this.npcBatch);
+        if (batchCount > 0){
+            Point playerPoint = this.playerComponent == null ? null : this.playerComponent.getCurrentCoordinate();
+            long startTime = System.nanoTime();
+            this.npcSimulation.step(this.npcBatch, batchCount, playerPoint);
+            this.aiScheduler.reportCost(System.nanoTime() - startTime, batchCount);
+        }
+
+        this.npcStore.updateAnimations(delta, SimpleNpcComponent.AnimationDuration);
+    }
+
+    /**
+     * Gets the scheduler of npc thinking
+     * @return instance of {@link AiScheduler}, null when map doesn't have npc
+     */
+    public AiScheduler getAiScheduler(){
+        this.getSimpleNpcList();
+        return this.aiScheduler;
+    }
+
+    /**
+     * Gets count of npc, which are visible on viewer
+     * @return count of npc
+     */
+    public int getVisibleNpcCount(){
+        return this.visibleNpcCount;
+    }
+
+    /**
+     * Gets visible npc by number
+     * @param number the number of npc from 0 to {@link #getVisibleNpcCount()}
+     * @return the npc component
+     */
+    public SimpleNpcComponent getVisibleNpc(int number){
+        return this.npcList[this.visibleNpcIndexes[number]];
+    }
+
     /**
      * The player component should be moved to other ways
      */
@@ -232,6 +701,61 @@ public class MapSceneManager implements IDisposable{
         this.sceneDescriptor = null;
         this.mapComponent = null;
         this.playerComponent = null;
+        if (this.npcGrid != null){
+            this.npcGrid.dispose();
+        }
+
+        if (this.occupancyGrid != null){
+            this.occupancyGrid.dispose();
+        }
+
+        if (this.pathFinder != null){
+            this.pathFinder.dispose();
+        }
+
+        if (this.hierarchicalPathFinder != null){
+            this.hierarchicalPathFinder.dispose();
+        }
+
+        if (this.flowFieldCache != null){
+            this.flowFieldCache.dispose();
+        }
+
+        if (this.mapPrefetcher != null){
+            this.mapPrefetcher.dispose();
+        }
+
+        if (this.npcSimulation != null){
+            this.npcSimulation.dispose();
+        }
+
+        if (this.aiScheduler != null){
+            this.aiScheduler.dispose();
+        }
+
+        if (this.npcStore != null){
+            this.npcStore.dispose();
+        }
+
+        if (this.npcAnimations != null){
+            for (ActorAnimationHelper animation: this.npcAnimations) {
+                animation.dispose();
+            }
+        }
+
         this.npcList = null;
+        this.npcStore = null;
+        this.npcSimulation = null;
+        this.aiScheduler = null;
+        this.npcBatch = null;
+        this.npcAnimations = null;
+        this.npcGrid = null;
+        this.occupancyGrid = null;
+        this.pathFinder = null;
+        this.hierarchicalPathFinder = null;
+        this.flowFieldCache = null;
+        this.mapPrefetcher = null;
+        this.visibleNpcIndexes = null;
+        this.nearNpcIndexes = null;
     }
 }
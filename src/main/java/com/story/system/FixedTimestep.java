@@ -0,0 +1,107 @@
+package com.story.system;
+
+import com.story.application.Constants;
+
+/**
+ * Represent the driver of simulation with fixed step. Elapsed time of frames is collected in accumulator
+ * and simulation is updated by whole steps, so game runs with the same speed at any count of frames per second.
+ * When rendering is too slow, count of steps per frame is limited and rest of time is dropped,
+ * so simulation doesn't take more and more time. Part of step, which is left in accumulator,
+ * is used by renderer for interpolation between previous and current states.
+ */
+public class FixedTimestep {
+    /**
+     * Default duration of step in milliseconds, one step per frame at {@link Constants#MaxFPS}
+     */
+    public static final int DefaultStepDuration = 1000 / Constants.MaxFPS;
+
+    /**
+     * Default max count of steps per frame
+     */
+    public static final int DefaultMaxCatchUpSteps = 5;
+
+    /**
+     * Duration of one step in milliseconds
+     */
+    private int stepDuration;
+
+    /**
+     * Max count of steps per frame
+     */
+    private int maxCatchUpSteps;
+
+    /**
+     * Time, which isn't simulated yet, in milliseconds
+     */
+    private int accumulator;
+
+    /**
+     * Time, which was dropped since creation, in milliseconds
+     */
+    private long droppedTime;
+
+    /**
+     * Initialize new instance of {@link FixedTimestep}
+     * @param stepDuration duration of one step in milliseconds
+     * @param maxCatchUpSteps max count of steps per frame
+     */
+    public FixedTimestep(int stepDuration, int maxCatchUpSteps){
+        if ((stepDuration <= 0) || (maxCatchUpSteps <= 0)){
+            throw new IllegalArgumentException("Duration of step and count of steps should be positive");
+        }
+
+        this.stepDuration = stepDuration;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Initialize new instance of {@link FixedTimestep} with {@link #DefaultStepDuration} and {@link #DefaultMaxCatchUpSteps}
+     */
+    public FixedTimestep(){
+        this(DefaultStepDuration, DefaultMaxCatchUpSteps);
+    }
+
+    /**
+     * Add time of frame and take count of steps, which should be simulated now
+     * @param delta the amount of time thats passed since last frame in milliseconds
+     * @return count of steps, every step has {@link #getStepDuration()}
+     */
+    public int advance(int delta){
+        this.accumulator += Math.max(delta, 0);
+
+        int steps = this.accumulator / this.stepDuration;
+        if (steps > this.maxCatchUpSteps){
+            int dropped = (steps - this.maxCatchUpSteps) * this.stepDuration;
+            this.accumulator -= dropped;
+            this.droppedTime += dropped;
+            steps = this.maxCatchUpSteps;
+        }
+
+        this.accumulator -= steps * this.stepDuration;
+        return steps;
+    }
+
+    /**
+     * Gets part of step, which has passed after the last simulated step
+     * @return value from 0 to 1, where 0 is previous state and 1 is current state
+     */
+    public float getAlpha(){
+        return (float) this.accumulator / this.stepDuration;
+    }
+
+    public int getStepDuration() {
+        return stepDuration;
+    }
+
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+
+    /**
+     * Gets time, which wasn't simulated, because frames were too slow
+     * @return time in milliseconds
+     */
+    public long getDroppedTime() {
+        return droppedTime;
+    }
+}
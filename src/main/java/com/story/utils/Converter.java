@@ -27,6 +27,22 @@ public class Converter {
         }
     }
 
+    /**
+     * Convert string to float
+     * @param value string, that trying to convert
+     * @param defaultValue value, which return if string isn't a number
+     * @return float value
+     */
+    public static float toFloat(String value, float defaultValue){
+        try {
+            return Float.valueOf(value);
+        }
+        catch (Exception e){
+            Trace.error(e.getMessage(), e);
+            return defaultValue;
+        }
+    }
+
     /**
      * Convert string to boolean
      * @param value string, that trying to convert
@@ -9,5 +9,6 @@ public enum  EventType {
 
     MapRecreate,
     MapMoveStart,
-    MapMoveStop
+    MapMoveStop,
+    MapRegionsChange
 }
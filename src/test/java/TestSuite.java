@@ -1,6 +1,8 @@
 import dalTest.DALTestSuite;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
+import sceneTest.SceneTestSuite;
+import systemTest.FixedTimestepTest;
 
 /**
  * Created by alex on 29.03.16.
@@ -8,7 +10,9 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-        DALTestSuite.class
+        DALTestSuite.class,
+        SceneTestSuite.class,
+        FixedTimestepTest.class
         })
 public class TestSuite {
 }
@@ -0,0 +1,39 @@
+package sceneTest;
+
+import org.junit.runner.RunWith;
+import sceneTest.helpersTest.ActorAnimationLayoutTest;
+import sceneTest.helpersTest.ActorSpatialGridTest;
+import sceneTest.helpersTest.AiSchedulerTest;
+import sceneTest.helpersTest.ActorStoreTest;
+import sceneTest.helpersTest.BinaryMapTest;
+import sceneTest.helpersTest.CollisionGridTest;
+import sceneTest.helpersTest.FlowFieldTest;
+import sceneTest.helpersTest.HierarchicalPathFinderTest;
+import sceneTest.helpersTest.NpcSimulationTest;
+import sceneTest.helpersTest.OffHeapTileStoreTest;
+import sceneTest.helpersTest.OccupancyGridTest;
+import sceneTest.helpersTest.PathFinderTest;
+import sceneTest.helpersTest.RenderCommandBufferTest;
+import sceneTest.helpersTest.RenderQueueTest;
+import sceneTest.helpersTest.TextureAtlasPackerTest;
+
+@RunWith(org.junit.runners.Suite.class)
+@org.junit.runners.Suite.SuiteClasses({
+        CollisionGridTest.class,
+        ActorSpatialGridTest.class,
+        PathFinderTest.class,
+        HierarchicalPathFinderTest.class,
+        FlowFieldTest.class,
+        BinaryMapTest.class,
+        OffHeapTileStoreTest.class,
+        ActorStoreTest.class,
+        NpcSimulationTest.class,
+        AiSchedulerTest.class,
+        TextureAtlasPackerTest.class,
+        ActorAnimationLayoutTest.class,
+        RenderQueueTest.class,
+        RenderCommandBufferTest.class,
+        OccupancyGridTest.class,
+})
+public class SceneTestSuite {
+}
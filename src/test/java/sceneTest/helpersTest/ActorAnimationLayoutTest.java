@@ -0,0 +1,51 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.ActorAnimationLayout;
+import com.story.scene.components.helpers.ActorAnimationState;
+import com.story.scene.components.helpers.ActorDirection;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the layout of animations in sprite sheet
+public class ActorAnimationLayoutTest {
+    //This method checks that default layout has only walk in rows 0 to 3
+    @Test
+    public void DefaultLayoutTest(){
+        ActorAnimationLayout layout = ActorAnimationLayout.createDefault();
+
+        assertEquals(0, layout.getRow(ActorAnimationLayout.getIndex(ActorAnimationState.WALK, ActorDirection.DOWN)));
+        assertEquals(3, layout.getRow(ActorAnimationLayout.getIndex(ActorAnimationState.WALK, ActorDirection.UP)));
+        assertFalse(layout.contains(ActorAnimationLayout.getIndex(ActorAnimationState.IDLE, ActorDirection.DOWN)));
+    }
+
+    //This method checks that states are read from properties
+    @Test
+    public void ParseTest(){
+        Properties properties = new Properties();
+        properties.setProperty("walk.left", "1");
+        properties.setProperty("idle.left", "1, 0, 1");
+        properties.setProperty("attack.left", "5,2");
+
+        ActorAnimationLayout layout = ActorAnimationLayout.parse(properties);
+        int idle = ActorAnimationLayout.getIndex(ActorAnimationState.IDLE, ActorDirection.LEFT);
+        int attack = ActorAnimationLayout.getIndex(ActorAnimationState.ATTACK, ActorDirection.LEFT);
+
+        assertEquals(1, layout.getRow(idle));
+        assertEquals(1, layout.getFrameCount(idle));
+        assertEquals(5, layout.getRow(attack));
+        assertEquals(2, layout.getFirstFrame(attack));
+        assertEquals(ActorAnimationLayout.WholeRow, layout.getFrameCount(attack));
+        assertFalse(layout.contains(ActorAnimationLayout.getIndex(ActorAnimationState.RUN, ActorDirection.LEFT)));
+    }
+
+    //This method checks that invalid value isn't accepted
+    @Test(expected = IllegalArgumentException.class)
+    public void InvalidValueTest(){
+        Properties properties = new Properties();
+        properties.setProperty("run.up", "fast");
+        ActorAnimationLayout.parse(properties);
+    }
+}
@@ -0,0 +1,56 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.ActorSpatialGrid;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the correctness of the ActorSpatialGrid class
+public class ActorSpatialGridTest {
+
+    //This method checks search of actors inside the rectangle
+    @Test
+    public void QueryRectangleTest(){
+        ActorSpatialGrid grid = new ActorSpatialGrid(100, 100, 8);
+        grid.add(0, 5, 5);
+        grid.add(1, 20, 20);
+        grid.add(2, 7, 9);
+        grid.add(3, 90, 90);
+
+        int[] result = new int[4];
+        int count = grid.queryRectangle(0, 0, 10, 10, result);
+        int[] found = Arrays.copyOf(result, count);
+        Arrays.sort(found);
+
+        assertArrayEquals(new int[]{0, 2}, found);
+        assertEquals(0, grid.queryRectangle(30, 30, 10, 10, result));
+    }
+
+    //This method checks that moved actor is found on new place only
+    @Test
+    public void MoveActorTest(){
+        ActorSpatialGrid grid = new ActorSpatialGrid(100, 100, 8);
+        grid.add(0, 5, 5);
+        grid.add(1, 6, 5);
+        grid.move(0, 50, 50);
+
+        assertEquals(ActorSpatialGrid.NoActor, grid.getActorAt(5, 5));
+        assertEquals(0, grid.getActorAt(50, 50));
+        assertEquals(1, grid.getActorAt(6, 5));
+    }
+
+    //This method checks that removed actor isn't found
+    @Test
+    public void RemoveActorTest(){
+        ActorSpatialGrid grid = new ActorSpatialGrid(100, 100, 8);
+        grid.add(0, 5, 5);
+        grid.add(1, 6, 5);
+        grid.remove(0);
+
+        assertFalse(grid.contains(0));
+        assertEquals(ActorSpatialGrid.NoActor, grid.getActorAt(5, 5));
+        assertEquals(1, grid.queryRectangle(0, 0, 8, 8, new int[2]));
+    }
+}
@@ -0,0 +1,88 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.ActorDirection;
+import com.story.scene.components.helpers.ActorStore;
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the store of actors
+public class ActorStoreTest {
+    //This method checks that arrays grow and actors keep their data
+    @Test
+    public void AddTest(){
+        ActorStore store = new ActorStore(1);
+        for (int i = 0; i < 10; i++){
+            assertEquals(i, store.add(100 + i, i % 2, 4, i, i * 2, ActorDirection.LEFT));
+        }
+
+        assertEquals(10, store.getCount());
+        assertEquals(107, store.getId(7));
+        assertEquals(7, store.getTileX(7));
+        assertEquals(14, store.getTileY(7));
+        assertEquals(1, store.getAnimationIndex(7));
+        assertEquals(ActorDirection.LEFT, store.getDirection(7));
+        assertFalse(store.isVisible(7));
+    }
+
+    //This method checks that frames are moved by elapsed time and loop by count of frames
+    @Test
+    public void AnimationTest(){
+        ActorStore store = new ActorStore();
+        store.add(1, 0, 3, 0, 0, ActorDirection.DOWN);
+        store.add(2, 0, 0, 0, 0, ActorDirection.DOWN);
+
+        store.updateAnimations(250, 300);
+        assertEquals(0, store.getFrame(0));
+        store.updateAnimations(100, 300);
+        assertEquals(1, store.getFrame(0));
+        store.updateAnimations(650, 300);
+        assertEquals(0, store.getFrame(0));
+        assertEquals(0, store.getFrame(1));
+    }
+
+    //This method checks that only actors near the viewer get screen coordinates
+    @Test
+    public void ScreenPositionTest(){
+        ActorStore store = new ActorStore();
+        store.add(1, 0, 1, 3, 2, ActorDirection.DOWN);
+        store.add(2, 0, 1, 40, 2, ActorDirection.DOWN);
+
+        store.updateScreenPositions(new int[]{0, 1}, 2, new Point(32, 0), 32, 32, 320, 240);
+        assertTrue(store.isVisible(0));
+        assertEquals(64, store.getScreenX(0));
+        assertEquals(64, store.getScreenY(0));
+        assertFalse(store.isVisible(1));
+
+        store.hide(0);
+        assertFalse(store.isVisible(0));
+    }
+
+    //This method checks that frozen actor skips updates and gets skipped time, when it comes back
+    @Test
+    public void DetailLevelTest(){
+        ActorStore store = new ActorStore();
+        store.add(1, 0, 4, 0, 0, ActorDirection.DOWN);
+        store.add(2, 0, 4, 0, 0, ActorDirection.DOWN);
+        store.add(3, 0, 4, 0, 0, ActorDirection.DOWN);
+        store.setDetailLevel(1, ActorStore.DetailLevel.Coarse);
+        store.setDetailLevel(2, ActorStore.DetailLevel.Frozen);
+
+        store.updateAnimations(300, 300);
+        assertEquals(1, store.getFrame(0));
+        assertEquals(0, store.getFrame(1));
+        assertEquals(0, store.getFrame(2));
+
+        store.updateAnimations(300, 300);
+        assertEquals(2, store.getFrame(0));
+        assertEquals(2, store.getFrame(1));
+        assertEquals(0, store.getFrame(2));
+
+        store.setDetailLevel(2, ActorStore.DetailLevel.Full);
+        store.updateAnimations(300, 300);
+        assertEquals(ActorStore.DetailLevel.Full, store.getDetailLevel(2));
+        assertEquals(store.getFrame(0), store.getFrame(2));
+    }
+}
@@ -0,0 +1,98 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.ActorStore;
+import com.story.scene.components.helpers.AiScheduler;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the scheduler of npc thinking
+public class AiSchedulerTest {
+    //Budget of one millisecond, which fits 100 thinks after cost is measured as 10 microseconds
+    private AiScheduler createScheduler(int count, int thinkInterval){
+        AiScheduler scheduler = new AiScheduler(count, 1, thinkInterval);
+        scheduler.reportCost(10000L * 100, 100);
+        return scheduler;
+    }
+
+    //This method checks that visible npc are taken first and others are taken by round robin
+    @Test
+    public void PriorityTest(){
+        AiScheduler scheduler = new AiScheduler(10, 1, 1);
+        int[] batch = new int[10];
+        scheduler.setPriority(new int[]{7, 8}, 2);
+
+        assertEquals(10, scheduler.schedule(batch));
+        assertEquals(7, batch[0]);
+        assertEquals(8, batch[1]);
+        assertEquals(0, batch[2]);
+        assertEquals(9, batch[9]);
+    }
+
+    //This method checks that size of batch follows the budget and npc waits for its interval
+    @Test
+    public void BudgetTest(){
+        AiScheduler scheduler = this.createScheduler(1000, 5);
+        int[] batch = new int[1000];
+
+        int total = 0;
+        for (int frame = 0; frame < 5; frame++){
+            int size = scheduler.schedule(batch);
+            assertTrue(size <= 100);
+            total += size;
+        }
+
+        assertEquals(500, total);
+        assertEquals(0, scheduler.getStarvedThinkCount());
+
+        //Thinks became twice expensive, so batches become smaller
+        for (int i = 0; i < 20; i++){
+            scheduler.reportCost(20000L * 100, 100);
+        }
+
+        assertTrue(scheduler.schedule(batch) <= 52);
+    }
+
+    //This method checks that npc outside the screen think, when visible npc take whole budget, and starvation is counted
+    @Test
+    public void StarvationTest(){
+        AiScheduler scheduler = this.createScheduler(3000, 1);
+        int[] batch = new int[3000];
+        int[] visible = new int[200];
+        for (int i = 0; i < visible.length; i++){
+            visible[i] = 2800 + i;
+        }
+
+        scheduler.setPriority(visible, visible.length);
+        for (int frame = 0; frame < 120; frame++){
+            scheduler.schedule(batch);
+        }
+
+        //Npc, which never thought, would wait 120 frames
+        assertTrue(scheduler.getWaitFrames(2799) < 120);
+        assertTrue(scheduler.getMaxWaitFrames() > AiScheduler.StarvationFrames);
+        assertTrue(scheduler.getStarvedThinkCount() > 0);
+    }
+
+    //This method checks that frozen npc don't think and coarse npc think rarer
+    @Test
+    public void DetailLevelTest(){
+        AiScheduler scheduler = new AiScheduler(3, 1, 2);
+        int[] batch = new int[3];
+        scheduler.setDetailLevel(1, ActorStore.DetailLevel.Coarse);
+        scheduler.setDetailLevel(2, ActorStore.DetailLevel.Frozen);
+
+        int[] thinkCounts = new int[3];
+        for (int frame = 0; frame < 16; frame++){
+            int size = scheduler.schedule(batch);
+            for (int i = 0; i < size; i++){
+                thinkCounts[batch[i]]++;
+            }
+        }
+
+        assertEquals(8, thinkCounts[0]);
+        assertEquals(2, thinkCounts[1]);
+        assertEquals(0, thinkCounts[2]);
+        assertEquals(0, scheduler.getWaitFrames(2));
+    }
+}
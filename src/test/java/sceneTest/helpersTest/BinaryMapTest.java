@@ -0,0 +1,170 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.BinaryMapCompiler;
+import com.story.scene.components.helpers.BinaryMapFormat;
+import com.story.scene.components.helpers.BinaryTiledMap;
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.OffHeapTileStore;
+import com.story.scene.components.helpers.StreamingTiledMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the compiling and loading of binary maps
+public class BinaryMapTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    //Encode tile ids of layer as Tiled does it
+    private String encodeLayer(int[] tiles) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(tiles.length * 4);
+        for (int tile: tiles) {
+            buffer.put((byte) tile).put((byte) (tile >> 8)).put((byte) (tile >> 16)).put((byte) (tile >> 24));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(buffer.array());
+        }
+
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    //Creates map without tile sets, where ground tile has id = index + 1 and barrier blocks the first and the last tiles
+    private File createMap(int width, int height) throws Exception {
+        int[] ground = new int[width * height];
+        int[] barrier = new int[width * height];
+        for (int i = 0; i < ground.length; i++){
+            ground[i] = i + 1;
+        }
+
+        barrier[1] = 5;
+        barrier[barrier.length - 1] = 5;
+
+        String tmx = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<map version=\"1.0\" orientation=\"orthogonal\" width=\"" + width + "\" height=\"" + height + "\" tilewidth=\"32\" tileheight=\"32\">"
+                + "<properties><property name=\"width\" value=\"" + width + "\"/><property name=\"height\" value=\"" + height + "\"/></properties>"
+                + "<layer name=\"Ground\" width=\"" + width + "\" height=\"" + height + "\">"
+                + "<properties><property name=\"dynamic\" value=\"true\"/></properties>"
+                + "<data encoding=\"base64\" compression=\"gzip\">" + this.encodeLayer(ground) + "</data></layer>"
+                + "<layer name=\"Barrier\" width=\"" + width + "\" height=\"" + height + "\">"
+                + "<data encoding=\"base64\" compression=\"gzip\">" + this.encodeLayer(barrier) + "</data></layer>"
+                + "<objectgroup name=\"Exits\" width=\"" + width + "\" height=\"" + height + "\">"
+                + "<object name=\"Gate\" type=\"Exit\" x=\"64\" y=\"32\" width=\"32\" height=\"64\">"
+                + "<properties><property name=\"mapId\" value=\"7\"/></properties></object>"
+                + "</objectgroup></map>";
+
+        File file = this.folder.newFile("test.tmx");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(tmx.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return file;
+    }
+
+    //This method checks that compiled map keeps tiles, properties, objects and barrier
+    @Test
+    public void CompileAndLoadTest() throws Exception {
+        File tmx = this.createMap(4, 3);
+        String binaryPath = BinaryMapFormat.getBinaryPath(tmx.getPath());
+        BinaryMapCompiler.compile(tmx.getPath(), binaryPath);
+        assertTrue(BinaryMapFormat.hasBinary(tmx.getPath()));
+
+        BinaryTiledMap map = new BinaryTiledMap(binaryPath, false);
+        assertEquals(4, map.getWidth());
+        assertEquals(3, map.getHeight());
+        assertEquals(32, map.getTileWidth());
+        assertEquals("3", map.getMapProperty("height", null));
+        assertEquals(2, map.getLayerCount());
+        assertEquals(1, map.getLayerIndex("Barrier"));
+        assertEquals("true", map.getLayerProperty(0, "dynamic", "false"));
+        assertEquals(7, map.getTileId(2, 1, 0));
+        assertEquals(12, map.getTileId(3, 2, 0));
+
+        assertEquals(1, map.getObjectGroupCount());
+        assertEquals("Exit", map.getObjectType(0, 0));
+        assertEquals(64, map.getObjectX(0, 0));
+        assertEquals(64, map.getObjectHeight(0, 0));
+        assertEquals("7", map.getObjectProperty(0, 0, "mapId", "0"));
+
+        CollisionGrid grid = map.createCollisionGrid();
+        assertEquals(2, grid.getBlockedCount());
+        assertTrue(grid.isBlocked(1, 0));
+        assertTrue(grid.isBlocked(3, 2));
+    }
+
+    //This method checks that tiles of compiled map are read from mapped file and changes don't reach the file
+    @Test
+    public void TileStoreTest() throws Exception {
+        File tmx = this.createMap(4, 3);
+        String binaryPath = BinaryMapFormat.getBinaryPath(tmx.getPath());
+        BinaryMapCompiler.compile(tmx.getPath(), binaryPath);
+
+        BinaryTiledMap map = new BinaryTiledMap(binaryPath, false);
+        OffHeapTileStore store = map.getTileStore();
+        assertEquals(2, store.getLayerCount());
+        assertEquals(7, store.getTileId(2, 1, 0));
+        assertEquals(2, CollisionGrid.createFromLayer(map, "Barrier").getBlockedCount());
+
+        map.setTileId(2, 1, 0, 40000);
+        assertEquals(40000, map.getTileId(2, 1, 0));
+        assertEquals(0, map.getTileId(4, 1, 0));
+        assertEquals(7, new BinaryTiledMap(binaryPath, false).getTileId(2, 1, 0));
+    }
+
+    //This method checks that only regions near the visible area are loaded
+    @Test
+    public void StreamingWorldTest() throws Exception {
+        File tmx = this.createMap(20, 4);
+        String worldPath = BinaryMapFormat.getWorldPath(tmx.getPath());
+        BinaryMapCompiler.compileWorld(tmx.getPath(), worldPath, 4);
+
+        StreamingTiledMap world = new StreamingTiledMap(worldPath);
+        assertEquals(20, world.getWidth());
+        assertEquals("4", world.getMapProperty("height", null));
+        assertEquals(1, world.getObjectGroupCount());
+        CollisionGrid grid = world.createCollisionGrid();
+
+        assertTrue(world.updateRegions(new Rectangle(0, 0, 2, 2), true));
+        assertEquals(2, world.getLoadedRegionCount());
+        assertEquals(6, world.getTileId(5, 0, 0));
+        assertEquals(0, world.getTileId(18, 0, 0));
+        assertTrue(grid.isBlocked(1, 0));
+        assertTrue(grid.isFree(2, 0));
+        assertTrue(grid.isBlocked(18, 0));
+
+        assertTrue(world.updateRegions(new Rectangle(16, 0, 2, 2), true));
+        assertEquals(2, world.getLoadedRegionCount());
+        assertEquals(4, world.getChangedAreas().length);
+        assertEquals(0, world.getTileId(5, 0, 0));
+        assertEquals(20 * 3 + 20, world.getTileId(19, 3, 0));
+        assertTrue(grid.isBlocked(19, 3));
+        assertTrue(grid.isFree(18, 3));
+
+        //Packed words are built from loaded regions, tiles of not loaded regions are blocked
+        assertEquals(2, grid.getWordCount());
+        assertTrue((grid.getWord(0) & (1L << 2)) != 0);
+        assertEquals(0, grid.getWord(1) & (1L << (18 + 3 * 20 - 64)));
+        assertTrue((grid.getWord(1) & (1L << (19 + 3 * 20 - 64))) != 0);
+
+        world.dispose();
+    }
+
+    //This method checks the path of compiled map
+    @Test
+    public void BinaryPathTest(){
+        assertEquals("maps/town.stmb", BinaryMapFormat.getBinaryPath("maps/town.tmx"));
+        assertEquals("maps.v1/town.stmb", BinaryMapFormat.getBinaryPath("maps.v1/town"));
+    }
+}
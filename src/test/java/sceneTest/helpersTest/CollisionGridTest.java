@@ -0,0 +1,56 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.CollisionGrid;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the correctness of the CollisionGrid class
+public class CollisionGridTest {
+
+    //This method checks that new grid hasn't blocked tiles
+    @Test
+    public void EmptyGridTest(){
+        CollisionGrid grid = new CollisionGrid(100, 70);
+
+        assertEquals(0, grid.getBlockedCount());
+        assertTrue(grid.isFree(0, 0));
+        assertTrue(grid.isFree(99, 69));
+    }
+
+    //This method checks blocking and unblocking of tiles on borders of words
+    @Test
+    public void BlockTilesTest(){
+        CollisionGrid grid = new CollisionGrid(100, 70);
+        grid.setBlocked(63, 0, true);
+        grid.setBlocked(64, 0, true);
+        grid.setBlocked(99, 69, true);
+
+        assertTrue(grid.isBlocked(63, 0));
+        assertTrue(grid.isBlocked(64, 0));
+        assertTrue(grid.isBlocked(99, 69));
+        assertTrue(grid.isFree(62, 0));
+        assertTrue(grid.isFree(65, 0));
+        assertEquals(3, grid.getBlockedCount());
+
+        grid.setBlocked(64, 0, false);
+        assertTrue(grid.isFree(64, 0));
+        assertEquals(2, grid.getBlockedCount());
+    }
+
+    //This method check the behavior of the grid with tiles outside the map
+    @Test
+    public void OutsideTilesTest(){
+        CollisionGrid grid = new CollisionGrid(10, 10);
+
+        assertFalse(grid.isFree(-1, 0));
+        assertFalse(grid.isFree(0, 10));
+        assertTrue(grid.isBlocked(10, 0));
+    }
+
+    //This method check the behavior of the grid when tile outside the map is changed
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void BlockOutsideTileTest(){
+        new CollisionGrid(10, 10).setBlocked(10, 10, true);
+    }
+}
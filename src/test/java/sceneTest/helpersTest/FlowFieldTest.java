@@ -0,0 +1,73 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.ActorDirection;
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.FlowField;
+import com.story.scene.components.helpers.FlowFieldCache;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the correctness of the FlowField and FlowFieldCache classes
+public class FlowFieldTest {
+
+    //Creates grid 10x10 with vertical wall on x = 5, which has hole on y = 9
+    private CollisionGrid createGridWithWall(){
+        CollisionGrid grid = new CollisionGrid(10, 10);
+        for (int y = 0; y < 9; y++){
+            grid.setBlocked(5, y, true);
+        }
+
+        return grid;
+    }
+
+    //This method checks that steps by directions lead to target by the shortest way
+    @Test
+    public void FollowFieldTest(){
+        FlowField field = new FlowField(this.createGridWithWall());
+        field.build(6, 0);
+
+        assertEquals(2 + 9 + 9, field.getCost(4, 0));
+        assertEquals(ActorDirection.DOWN, field.getDirection(4, 0));
+        assertNull(field.getDirection(6, 0));
+        assertEquals(FlowField.Unreachable, field.getCost(5, 0));
+
+        int x = 4;
+        int y = 0;
+        int steps = 0;
+        for (ActorDirection direction = field.getDirection(x, y); direction != null; direction = field.getDirection(x, y)){
+            switch (direction){
+                case UP: y--; break;
+                case DOWN: y++; break;
+                case LEFT: x--; break;
+                case RIGHT: x++; break;
+            }
+
+            steps++;
+        }
+
+        assertEquals(6, x);
+        assertEquals(0, y);
+        assertEquals(20, steps);
+    }
+
+    //This method checks that field is rebuilt only when target moves farther than expire distance
+    @Test
+    public void CacheExpireTest(){
+        FlowFieldCache cache = new FlowFieldCache(this.createGridWithWall(), 2, 2);
+
+        FlowField field = cache.getField(1, 0, 0);
+        assertSame(field, cache.getField(1, 1, 1));
+        assertEquals(1, cache.getBuildCount());
+
+        assertSame(field, cache.getField(1, 3, 1));
+        assertEquals(2, cache.getBuildCount());
+        assertEquals(3, field.getTargetX());
+
+        cache.getField(2, 9, 9);
+        cache.getField(3, 9, 0);
+        assertEquals(4, cache.getBuildCount());
+        assertEquals(9, field.getTargetX());
+        assertEquals(0, field.getTargetY());
+    }
+}
@@ -0,0 +1,108 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.HierarchicalPathFinder;
+import com.story.scene.components.helpers.PathFinder;
+import com.story.scene.components.helpers.TilePath;
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the correctness of the HierarchicalPathFinder class
+public class HierarchicalPathFinderTest {
+
+    //Creates grid 32x32 with vertical wall on x = 12, which has hole on y = 30
+    private CollisionGrid createGridWithWall(){
+        CollisionGrid grid = new CollisionGrid(32, 32);
+        for (int y = 0; y < 30; y++){
+            grid.setBlocked(12, y, true);
+        }
+
+        grid.setBlocked(12, 31, true);
+        return grid;
+    }
+
+    //Checks that every step of path is neighbour of previous step and isn't blocked
+    private void assertContinuousPath(CollisionGrid grid, int startX, int startY, TilePath path){
+        int x = startX;
+        int y = startY;
+        for (int i = 0; i < path.getLength(); i++){
+            assertEquals(1, Math.abs(path.getX(i) - x) + Math.abs(path.getY(i) - y));
+            assertTrue(grid.isFree(path.getX(i), path.getY(i)));
+            x = path.getX(i);
+            y = path.getY(i);
+        }
+    }
+
+    //This method checks the path through the hole of wall over several sectors
+    @Test
+    public void FindPathTest(){
+        CollisionGrid grid = this.createGridWithWall();
+        HierarchicalPathFinder finder = new HierarchicalPathFinder(grid, 8);
+        TilePath path = new TilePath();
+
+        assertEquals(PathFinder.SearchResult.Found, finder.findPath(2, 2, 20, 2, path));
+        this.assertContinuousPath(grid, 2, 2, path);
+        assertEquals(20, path.getX(path.getLength() - 1));
+        assertEquals(2, path.getY(path.getLength() - 1));
+        assertTrue(path.getLength() >= 18 + 2 * 28);
+    }
+
+    //This method checks the path over sectors of map with one column of sectors
+    @Test
+    public void OneColumnTest(){
+        CollisionGrid grid = new CollisionGrid(10, 40);
+        HierarchicalPathFinder finder = new HierarchicalPathFinder(grid, 16);
+        TilePath path = new TilePath();
+
+        assertEquals(PathFinder.SearchResult.Found, finder.findPath(0, 0, 0, 39, path));
+        this.assertContinuousPath(grid, 0, 0, path);
+        assertEquals(0, path.getX(path.getLength() - 1));
+        assertEquals(39, path.getY(path.getLength() - 1));
+    }
+
+    //This method checks that sectors of area are rebuilt, e.g. when region of world is loaded
+    @Test
+    public void AreaChangedTest(){
+        CollisionGrid grid = new CollisionGrid(32, 32);
+        for (int y = 0; y < 32; y++){
+            for (int x = 16; x < 32; x++){
+                grid.setBlocked(x, y, true);
+            }
+        }
+
+        HierarchicalPathFinder finder = new HierarchicalPathFinder(grid, 8);
+        TilePath path = new TilePath();
+        assertEquals(PathFinder.SearchResult.NotFound, finder.findPath(2, 2, 20, 2, path));
+
+        for (int y = 0; y < 16; y++){
+            for (int x = 16; x < 32; x++){
+                grid.setBlocked(x, y, false);
+            }
+        }
+
+        finder.onAreaChanged(new Rectangle(16, 0, 16, 16));
+        assertEquals(PathFinder.SearchResult.Found, finder.findPath(2, 2, 20, 2, path));
+        this.assertContinuousPath(grid, 2, 2, path);
+    }
+
+    //This method checks that closed and opened tiles are used by next search
+    @Test
+    public void TileChangedTest(){
+        CollisionGrid grid = this.createGridWithWall();
+        HierarchicalPathFinder finder = new HierarchicalPathFinder(grid, 8);
+        TilePath path = new TilePath();
+
+        grid.setBlocked(12, 30, true);
+        finder.onTileChanged(12, 30);
+        assertEquals(PathFinder.SearchResult.NotFound, finder.findPath(2, 2, 20, 2, path));
+
+        grid.setBlocked(12, 3, false);
+        finder.onTileChanged(12, 3);
+        assertEquals(PathFinder.SearchResult.Found, finder.findPath(2, 2, 20, 2, path));
+        this.assertContinuousPath(grid, 2, 2, path);
+        assertEquals(20, path.getLength());
+    }
+}
@@ -0,0 +1,101 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.ActorDirection;
+import com.story.scene.components.helpers.ActorSpatialGrid;
+import com.story.scene.components.helpers.ActorStore;
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.NpcBehavior;
+import com.story.scene.components.helpers.NpcSimulation;
+import com.story.scene.components.helpers.WanderBehavior;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the parallel simulation of npc
+public class NpcSimulationTest {
+    private ActorStore store;
+    private ActorSpatialGrid actorGrid;
+
+    //Creates npc on every third tile of map with size 100 x 100
+    private NpcSimulation createSimulation(ForkJoinPool pool){
+        CollisionGrid grid = new CollisionGrid(100, 100);
+        this.store = new ActorStore();
+        this.actorGrid = new ActorSpatialGrid(100, 100);
+        for (int y = 0; y < 100; y += 3){
+            for (int x = 0; x < 100; x += 3){
+                int index = this.store.add(index(x, y), 0, 1, x, y, ActorDirection.DOWN);
+                this.actorGrid.add(index, x, y);
+            }
+        }
+
+        return new NpcSimulation(this.store, this.actorGrid, grid, new WanderBehavior(), pool);
+    }
+
+    private static int index(int x, int y){
+        return y * 100 + x;
+    }
+
+    //This method checks that result of steps doesn't depend on count of threads
+    @Test
+    public void DeterministicTest(){
+        NpcSimulation sequential = this.createSimulation(new ForkJoinPool(1));
+        ActorStore sequentialStore = this.store;
+        NpcSimulation parallel = this.createSimulation(new ForkJoinPool(4));
+        ActorStore parallelStore = this.store;
+
+        int movedCount = 0;
+        for (int step = 0; step < 10; step++){
+            int sequentialMoved = sequential.step(new Point(50, 50));
+            assertEquals(sequentialMoved, parallel.step(new Point(50, 50)));
+            movedCount += sequentialMoved;
+        }
+
+        assertTrue(movedCount > 0);
+        for (int i = 0; i < sequentialStore.getCount(); i++){
+            assertEquals(sequentialStore.getTileX(i), parallelStore.getTileX(i));
+            assertEquals(sequentialStore.getTileY(i), parallelStore.getTileY(i));
+        }
+    }
+
+    //This method checks that npc with the least index takes tile, when several npc go to it
+    @Test
+    public void ConflictTest(){
+        CollisionGrid grid = new CollisionGrid(3, 1);
+        ActorStore store = new ActorStore();
+        ActorSpatialGrid actorGrid = new ActorSpatialGrid(3, 1);
+        actorGrid.add(store.add(1, 0, 1, 2, 0, ActorDirection.DOWN), 2, 0);
+        actorGrid.add(store.add(2, 0, 1, 0, 0, ActorDirection.DOWN), 0, 0);
+
+        NpcSimulation simulation = new NpcSimulation(store, actorGrid, grid,
+                (index, snapshot) -> snapshot.getTileX(index) == 2 ? ActorDirection.LEFT : ActorDirection.RIGHT);
+        simulation.setStepDuration(100);
+
+        assertEquals(0, simulation.update(50, null));
+        assertEquals(1, simulation.update(50, null));
+        assertEquals(1, store.getTileX(0));
+        assertEquals(0, store.getTileX(1));
+        assertEquals(ActorDirection.RIGHT, store.getDirection(1));
+        assertEquals(0, actorGrid.getActorAt(1, 0));
+    }
+
+    //This method checks that npc with own behavior walk and other npc keep common behavior
+    @Test
+    public void OwnBehaviorTest(){
+        CollisionGrid grid = new CollisionGrid(3, 2);
+        ActorStore store = new ActorStore();
+        ActorSpatialGrid actorGrid = new ActorSpatialGrid(3, 2);
+        actorGrid.add(store.add(1, 0, 1, 0, 0, ActorDirection.DOWN), 0, 0);
+        actorGrid.add(store.add(2, 0, 1, 0, 1, ActorDirection.DOWN), 0, 1);
+
+        NpcSimulation simulation = new NpcSimulation(store, actorGrid, grid, NpcBehavior.Stay);
+        assertEquals(0, simulation.step(null));
+
+        simulation.setBehavior(1, (index, snapshot) -> ActorDirection.RIGHT);
+        assertEquals(1, simulation.step(null));
+        assertEquals(0, store.getTileX(0));
+        assertEquals(1, store.getTileX(1));
+    }
+}
@@ -0,0 +1,103 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.ActorDirection;
+import com.story.scene.components.helpers.ActorSpatialGrid;
+import com.story.scene.components.helpers.ActorStore;
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.NpcSimulation;
+import com.story.scene.components.helpers.OccupancyGrid;
+import com.story.scene.components.helpers.PathFinder;
+import com.story.scene.components.helpers.TilePath;
+import com.story.scene.components.helpers.WanderBehavior;
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the occupancy of tiles by actors
+public class OccupancyGridTest {
+    //This method checks that actors can't enter taken tile and left tile is reserved till move is finished
+    @Test
+    public void ReservationTest(){
+        OccupancyGrid grid = new OccupancyGrid(10, 10);
+        assertTrue(grid.place(0, 1, 1));
+        assertTrue(grid.place(1, 3, 1));
+        assertFalse(grid.place(2, 3, 1));
+
+        assertTrue(grid.beginMove(0, 2, 1));
+        assertEquals(0, grid.getActorAt(2, 1));
+        assertFalse(grid.isFree(1, 1));
+        assertFalse(grid.beginMove(1, 2, 1));
+        assertFalse(grid.moveTo(1, 1, 1));
+
+        grid.finishMove(0);
+        assertTrue(grid.isFree(1, 1));
+        assertFalse(grid.moveTo(1, 2, 1));
+        assertFalse(grid.moveTo(1, 10, 1));
+        assertTrue(grid.moveTo(1, 3, 2));
+        assertTrue(grid.isFree(3, 1));
+    }
+
+    //This method checks that only taken tiles are stored, so grid of huge world is created at once
+    @Test
+    public void SparseTest(){
+        OccupancyGrid grid = new OccupancyGrid(100000, 100000);
+        for (int i = 0; i < 100; i++){
+            assertTrue(grid.place(i, i * 997, 99999 - i));
+        }
+
+        assertEquals(100, grid.getTileCount());
+        for (int i = 0; i < 100; i += 2){
+            assertTrue(grid.moveTo(i, i * 997 + 1, 99999 - i));
+            grid.remove(i + 1);
+        }
+
+        assertEquals(50, grid.getTileCount());
+        for (int i = 0; i < 100; i += 2){
+            assertEquals(i, grid.getActorAt(i * 997 + 1, 99999 - i));
+            assertTrue(grid.isFree(i * 997, 99999 - i));
+            assertTrue(grid.isFree((i + 1) * 997, 99998 - i));
+        }
+    }
+
+    //This method checks that path goes around actor, but actor on goal doesn't block search
+    @Test
+    public void PathFinderTest(){
+        OccupancyGrid occupancy = new OccupancyGrid(3, 3);
+        occupancy.place(1, 1, 0);
+        occupancy.place(2, 2, 0);
+
+        PathFinder finder = new PathFinder(new CollisionGrid(3, 3));
+        finder.setOccupancyGrid(occupancy);
+        TilePath path = new TilePath();
+
+        assertEquals(PathFinder.SearchResult.Found, finder.findPath(0, 0, 2, 0, path));
+        assertEquals(4, path.getLength());
+        assertEquals(1, path.getY(1));
+    }
+
+    //This method checks that npc don't enter tile of player
+    @Test
+    public void NpcSimulationTest(){
+        ActorStore store = new ActorStore();
+        ActorSpatialGrid actorGrid = new ActorSpatialGrid(2, 1);
+        OccupancyGrid occupancy = new OccupancyGrid(2, 1);
+        store.add(0, 0, 1, 0, 0, ActorDirection.DOWN);
+        actorGrid.add(0, 0, 0);
+        occupancy.place(1, 0, 0);
+        occupancy.place(0, 1, 0);
+
+        NpcSimulation simulation = new NpcSimulation(store, actorGrid, new CollisionGrid(2, 1),
+                (index, snapshot) -> ActorDirection.RIGHT);
+        simulation.setOccupancyGrid(occupancy, 1);
+
+        assertEquals(0, simulation.step((Point) null));
+        assertEquals(0, store.getTileX(0));
+
+        occupancy.remove(0);
+        assertEquals(1, simulation.step((Point) null));
+        assertEquals(1, occupancy.getActorAt(1, 0));
+        assertTrue(occupancy.isFree(0, 0));
+    }
+}
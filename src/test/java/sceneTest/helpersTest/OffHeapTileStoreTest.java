@@ -0,0 +1,44 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.OffHeapTileStore;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the tiles, which are stored outside the heap
+public class OffHeapTileStoreTest {
+    //This method checks that ids are stored by layers and read as unsigned values
+    @Test
+    public void TileIdTest(){
+        OffHeapTileStore store = new OffHeapTileStore(5, 4, 2);
+        store.setTileId(4, 3, 0, 7);
+        store.setTileId(4, 3, 1, OffHeapTileStore.MaxTileId);
+
+        assertEquals(7, store.getTileId(4, 3, 0));
+        assertEquals(OffHeapTileStore.MaxTileId, store.getTileId(4, 3, 1));
+        assertEquals(0, store.getTileId(3, 3, 0));
+        assertTrue(store.hasTile(4, 3, 1));
+        assertFalse(store.hasTile(0, 0, 1));
+        assertEquals(5 * 4 * 2 * 2, store.getByteSize());
+    }
+
+    //This method checks that id larger than 16 bits isn't stored
+    @Test(expected = IllegalArgumentException.class)
+    public void TooLargeTileIdTest(){
+        new OffHeapTileStore(2, 2, 1).setTileId(0, 0, 0, OffHeapTileStore.MaxTileId + 1);
+    }
+
+    //This method checks that collision grid is baked from the layer of store
+    @Test
+    public void CollisionGridTest(){
+        OffHeapTileStore store = new OffHeapTileStore(70, 3, 2);
+        store.setTileId(65, 2, 1, 3);
+        store.setTileId(1, 0, 0, 3);
+
+        CollisionGrid grid = CollisionGrid.createFromLayer(store, 1);
+        assertEquals(1, grid.getBlockedCount());
+        assertTrue(grid.isBlocked(65, 2));
+        assertTrue(grid.isFree(1, 0));
+    }
+}
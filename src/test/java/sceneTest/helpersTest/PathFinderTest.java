@@ -0,0 +1,70 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.CollisionGrid;
+import com.story.scene.components.helpers.PathFinder;
+import com.story.scene.components.helpers.TilePath;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the correctness of the PathFinder class
+public class PathFinderTest {
+
+    //Creates grid 10x10 with vertical wall on x = 5, which has hole on y = 9
+    private CollisionGrid createGridWithWall(){
+        CollisionGrid grid = new CollisionGrid(10, 10);
+        for (int y = 0; y < 9; y++){
+            grid.setBlocked(5, y, true);
+        }
+
+        return grid;
+    }
+
+    //This method checks the shortest path around the wall
+    @Test
+    public void FindPathTest(){
+        PathFinder finder = new PathFinder(this.createGridWithWall());
+        TilePath path = new TilePath();
+
+        assertEquals(PathFinder.SearchResult.Found, finder.findPath(4, 0, 6, 0, path));
+        assertEquals(2 + 9 + 9, path.getLength());
+        assertEquals(6, path.getX(path.getLength() - 1));
+        assertEquals(0, path.getY(path.getLength() - 1));
+        assertEquals(5, path.getX(9));
+        assertEquals(9, path.getY(9));
+    }
+
+    //This method checks that buffers are reused correctly by next search
+    @Test
+    public void RepeatSearchTest(){
+        PathFinder finder = new PathFinder(this.createGridWithWall());
+        TilePath path = new TilePath();
+
+        finder.findPath(4, 0, 6, 0, path);
+        assertEquals(PathFinder.SearchResult.Found, finder.findPath(0, 0, 3, 0, path));
+        assertEquals(3, path.getLength());
+    }
+
+    //This method check the behavior of the search when goal can't be reached
+    @Test
+    public void UnreachableGoalTest(){
+        CollisionGrid grid = this.createGridWithWall();
+        grid.setBlocked(5, 9, true);
+        PathFinder finder = new PathFinder(grid);
+        TilePath path = new TilePath();
+
+        assertEquals(PathFinder.SearchResult.NotFound, finder.findPath(0, 0, 9, 9, path));
+        assertEquals(PathFinder.SearchResult.NotFound, finder.findPath(0, 0, 5, 0, path));
+        assertTrue(path.isEmpty());
+    }
+
+    //This method check the behavior of the search when budget of nodes is exceeded
+    @Test
+    public void NodeBudgetTest(){
+        PathFinder finder = new PathFinder(this.createGridWithWall());
+        TilePath path = new TilePath();
+
+        assertEquals(PathFinder.SearchResult.BudgetExceeded, finder.findPath(4, 0, 6, 0, 5, path));
+        assertEquals(5, finder.getExpandedCount());
+    }
+}
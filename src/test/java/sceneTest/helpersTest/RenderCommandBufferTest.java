@@ -0,0 +1,85 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.RenderCommandBuffer;
+import org.junit.Test;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.opengl.TextureImpl;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the sorting and culling of draw commands
+public class RenderCommandBufferTest {
+    //Image without texture, it is enough for sorting
+    private static class TestImage extends Image {
+        TestImage(){
+            this.width = 32;
+            this.height = 32;
+            this.inited = true;
+        }
+
+        TestImage(int textureId){
+            this();
+            this.texture = new TextureImpl("test", 0, textureId);
+        }
+    }
+
+    //This method checks that commands are sorted by layer, then by sort key, then keep order of adding
+    @Test
+    public void SortTest(){
+        RenderCommandBuffer buffer = new RenderCommandBuffer(1, 0, 0);
+        Image lastGround = new TestImage();
+        Image ground = new TestImage();
+        Image first = new TestImage();
+        Image second = new TestImage();
+        Image third = new TestImage();
+
+        buffer.add(RenderCommandBuffer.Layer.Ground, 10, lastGround, 0, 0);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 5, second, 0, 0);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 5, third, 0, 0);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 1, first, 0, 0);
+        buffer.add(RenderCommandBuffer.Layer.Ground, 9, ground, 0, 0);
+
+        assertEquals(5, buffer.sort());
+        assertSame(ground, buffer.getImage(0));
+        assertSame(lastGround, buffer.getImage(1));
+        assertSame(first, buffer.getImage(2));
+        assertSame(second, buffer.getImage(3));
+        assertSame(third, buffer.getImage(4));
+    }
+
+    //This method checks that commands outside the screen are skipped
+    @Test
+    public void CullingTest(){
+        RenderCommandBuffer buffer = new RenderCommandBuffer(320, 240);
+        Image image = new TestImage();
+
+        buffer.add(RenderCommandBuffer.Layer.Actors, 0, image, -16, -16);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 0, image, -32, 0);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 0, image, 100, 240);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 0, image, 319, 239);
+
+        assertEquals(2, buffer.getCount());
+        assertEquals(-16, buffer.getX(0), 0);
+    }
+
+    //This method checks that commands with equal sort key are grouped by texture
+    @Test
+    public void TextureTest(){
+        RenderCommandBuffer buffer = new RenderCommandBuffer(0, 0);
+        Image first = new TestImage(2);
+        Image second = new TestImage(1);
+        Image third = new TestImage(2);
+        Image deeper = new TestImage(1);
+
+        buffer.add(RenderCommandBuffer.Layer.Actors, 40, first, 0, 0);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 40, second, 0, 0);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 40, third, 0, 0);
+        buffer.add(RenderCommandBuffer.Layer.Actors, 72, deeper, 0, 0);
+
+        assertEquals(4, buffer.sort());
+        assertSame(second, buffer.getImage(0));
+        assertSame(first, buffer.getImage(1));
+        assertSame(third, buffer.getImage(2));
+        assertSame(deeper, buffer.getImage(3));
+    }
+}
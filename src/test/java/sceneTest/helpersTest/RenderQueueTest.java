@@ -0,0 +1,109 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.RenderCommandBuffer;
+import com.story.scene.components.helpers.RenderQueue;
+import org.junit.Test;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.opengl.TextureImpl;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the order of sprites by depth
+public class RenderQueueTest {
+    //Image without texture, it is enough for sorting
+    private static class TestImage extends Image {
+        TestImage(int height){
+            this.width = 32;
+            this.height = height;
+            this.inited = true;
+        }
+
+        TestImage(int height, int textureId){
+            this(height);
+            this.texture = new TextureImpl("test", 0, textureId);
+        }
+    }
+
+    private static final Image Sprite = new TestImage(32);
+
+    //This method checks that actors are drawn from top to bottom and tiles are merged by depth
+    @Test
+    public void OrderTest(){
+        RenderQueue queue = new RenderQueue(2);
+        queue.addActor(0, Sprite, 0, 100);
+        queue.addActor(5, Sprite, 0, 20);
+        queue.addActor(3, Sprite, 0, 60);
+        queue.addTile(Sprite, 0, 40, 72);
+        queue.addTile(Sprite, 0, 90, 122);
+
+        assertEquals(5, queue.sort());
+        assertEquals(20, queue.getY(0), 0);
+        assertEquals(40, queue.getY(1), 0);
+        assertEquals(60, queue.getY(2), 0);
+        assertEquals(90, queue.getY(3), 0);
+        assertEquals(100, queue.getY(4), 0);
+    }
+
+    //This method checks that order is kept between frames and only moved actors are shifted
+    @Test
+    public void IncrementalTest(){
+        RenderQueue queue = new RenderQueue();
+        for (int i = 0; i < 1000; i++){
+            queue.addActor(i, Sprite, 0, 1000 - i);
+        }
+
+        queue.sort();
+        queue.nextFrame();
+
+        //Actor 500 goes down a little, other actors stay
+        for (int i = 0; i < 1000; i++){
+            queue.addActor(i, Sprite, 0, i == 500 ? 1000 - i + 3 : 1000 - i);
+        }
+
+        assertEquals(1000, queue.sort());
+        assertEquals(3, queue.getShiftCount());
+        for (int i = 1; i < 1000; i++){
+            assertTrue(queue.getY(i - 1) <= queue.getY(i));
+        }
+    }
+
+    //This method checks that actors, which aren't added on frame, aren't drawn
+    @Test
+    public void RemoveTest(){
+        RenderQueue queue = new RenderQueue();
+        queue.addActor(1, Sprite, 0, 10);
+        queue.addActor(2, Sprite, 0, 20);
+        queue.sort();
+        queue.nextFrame();
+
+        queue.addActor(2, Sprite, 0, 20);
+        assertEquals(1, queue.sort());
+        queue.nextFrame();
+
+        queue.addActor(1, Sprite, 0, 30);
+        queue.addActor(2, Sprite, 0, 20);
+        assertEquals(2, queue.sort());
+        assertEquals(30, queue.getY(1), 0);
+    }
+
+    //This method checks that buffer keeps order of queue, actor is drawn before tile of lower texture at equal depth
+    @Test
+    public void BufferOrderTest(){
+        Image actor = new TestImage(32, 7);
+        Image tile = new TestImage(32, 1);
+        Image upperActor = new TestImage(32, 7);
+
+        RenderQueue queue = new RenderQueue();
+        queue.addActor(0, actor, 0, 40);
+        queue.addActor(1, upperActor, 0, 10);
+        queue.addTile(tile, 0, 40, 72);
+
+        RenderCommandBuffer buffer = new RenderCommandBuffer(0, 0);
+        queue.flush(buffer, RenderCommandBuffer.Layer.Actors);
+
+        assertEquals(3, buffer.sort());
+        assertSame(upperActor, buffer.getImage(0));
+        assertSame(actor, buffer.getImage(1));
+        assertSame(tile, buffer.getImage(2));
+    }
+}
@@ -0,0 +1,50 @@
+package sceneTest.helpersTest;
+
+import com.story.scene.components.helpers.TextureAtlasPacker;
+import com.story.utils.Size;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the packing of sprite sheets to atlas
+public class TextureAtlasPackerTest {
+    //This method checks that regions keep order of sizes and don't overlap
+    @Test
+    public void PackTest(){
+        TextureAtlasPacker packer = new TextureAtlasPacker(256);
+        Size[] sizes = {new Size(96, 64), new Size(128, 128), new Size(96, 64), new Size(32, 32)};
+        TextureAtlasPacker.Region[] regions = packer.pack(sizes);
+
+        assertEquals(1, packer.getPageCount());
+        for (int i = 0; i < regions.length; i++){
+            assertEquals(sizes[i].getWidth(), regions[i].getWidth());
+            assertEquals(sizes[i].getHeight(), regions[i].getHeight());
+            assertTrue(regions[i].getX() + regions[i].getWidth() <= 256);
+            assertTrue(regions[i].getY() + regions[i].getHeight() <= packer.getPageHeight(0));
+
+            for (int j = 0; j < i; j++){
+                boolean separated = regions[i].getX() >= regions[j].getX() + regions[j].getWidth()
+                        || regions[j].getX() >= regions[i].getX() + regions[i].getWidth()
+                        || regions[i].getY() >= regions[j].getY() + regions[j].getHeight()
+                        || regions[j].getY() >= regions[i].getY() + regions[i].getHeight();
+                assertTrue(separated);
+            }
+        }
+
+        //The highest rectangle is placed first
+        assertEquals(0, regions[1].getX());
+        assertEquals(0, regions[1].getY());
+    }
+
+    //This method checks that new page is started, when rectangles don't fit
+    @Test
+    public void PagesTest(){
+        TextureAtlasPacker packer = new TextureAtlasPacker(128);
+        TextureAtlasPacker.Region[] regions = packer.pack(new Size[]{new Size(128, 100), new Size(128, 100)});
+
+        assertEquals(2, packer.getPageCount());
+        assertEquals(0, regions[0].getPage());
+        assertEquals(1, regions[1].getPage());
+        assertEquals(100, packer.getPageHeight(1));
+    }
+}
@@ -0,0 +1,39 @@
+package systemTest;
+
+import com.story.system.FixedTimestep;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+//This TestClass designed to check the fixed step of simulation
+public class FixedTimestepTest {
+    //This method checks that simulated time doesn't depend on count of frames per second
+    @Test
+    public void FrameRateTest(){
+        int[] frameDurations = {33, 16, 7};
+        for (int frameDuration : frameDurations){
+            FixedTimestep timestep = new FixedTimestep(10, 5);
+            int steps = 0;
+            for (int time = 0; time < 990; time += frameDuration){
+                steps += timestep.advance(frameDuration);
+            }
+
+            int elapsed = (990 + frameDuration - 1) / frameDuration * frameDuration;
+            assertEquals(elapsed / 10, steps);
+            assertTrue(timestep.getAlpha() >= 0);
+            assertTrue(timestep.getAlpha() < 1);
+        }
+    }
+
+    //This method checks that count of steps per frame is limited and rest of time is dropped
+    @Test
+    public void CatchUpTest(){
+        FixedTimestep timestep = new FixedTimestep(10, 5);
+        assertEquals(5, timestep.advance(1005));
+        assertEquals(950, timestep.getDroppedTime());
+        assertEquals(0.5f, timestep.getAlpha(), 0.0001f);
+
+        assertEquals(1, timestep.advance(5));
+        assertEquals(0, timestep.getAlpha(), 0.0001f);
+    }
+}